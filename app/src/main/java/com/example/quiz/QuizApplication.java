@@ -1,11 +1,21 @@
 package com.example.quiz;
 
 import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.quiz.data.QuizCache;
+import com.example.quiz.util.DocumentParsing;
+import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.MediaUtils;
 import com.google.firebase.FirebaseApp;
 // import com.google.firebase.appcheck.FirebaseAppCheck;
 // import com.google.firebase.appcheck.safetynet.SafetyNetAppCheckProviderFactory;
 
 public class QuizApplication extends Application {
+    private static final String TAG = "QuizApplication";
+    
     @Override
     public void onCreate() {
         super.onCreate();
@@ -13,6 +23,19 @@ public class QuizApplication extends Application {
         // Initialiser Firebase
         FirebaseApp.initializeApp(this);
         
+        // Initialiser le cache local des quizzes et questions
+        QuizCache.init(this);
+        
+        // Une conversion de documents Firestore sur ce thread fait échouer un build de debug ;
+        // en release, elle est seulement journalisée
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        DocumentParsing.setMainThread(Looper.getMainLooper().getThread());
+        DocumentParsing.setStrict(debuggable);
+        DocumentParsing.setMainThreadListener(trace -> Log.w(TAG, "Conversion sur le thread principal", trace));
+        
+        // Compteurs et statistiques envoyés par lots, y compris ceux restés en attente
+        FirestoreUtils.initWriteBehind(this);
+        
         // App Check temporairement désactivé pour éviter les erreurs
         /*
         FirebaseAppCheck firebaseAppCheck = FirebaseAppCheck.getInstance();
@@ -20,4 +43,16 @@ public class QuizApplication extends Application {
             SafetyNetAppCheckProviderFactory.getInstance());
         */
     }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        
+        // Interface masquée : l'application passe en arrière-plan, envoyer les incréments en attente
+        // et enregistrer les derniers accès aux médias
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            FirestoreUtils.flushPendingWrites();
+            MediaUtils.flushMediaIndex(this);
+        }
+    }
 } 
\ No newline at end of file
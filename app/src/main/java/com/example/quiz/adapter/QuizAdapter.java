@@ -1,6 +1,5 @@
 package com.example.quiz.adapter;
 
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,56 +8,85 @@ import android.widget.RatingBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.quiz.R;
-import com.example.quiz.model.Quiz;
-import com.example.quiz.util.MediaUtils;
+import com.example.quiz.model.QuizSummary;
+import com.bumptech.glide.Glide;
+import com.example.quiz.util.MediaReference;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 
-public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder> {
-    private List<Quiz> quizzes;
+/**
+ * Liste de quizzes : chaque nouvelle liste est comparée à l'ancienne en arrière-plan (QuizSummaryDiffCallback)
+ * et seules les cartes ajoutées, déplacées ou modifiées sont redessinées
+ */
+public class QuizAdapter extends ListAdapter<QuizSummary, QuizAdapter.QuizViewHolder> {
     private OnQuizClickListener listener;
+    private final ArrayDeque<View> inflatedViews = new ArrayDeque<>(); // Cartes déjà inflatées (HomeFeedRenderer)
 
     public interface OnQuizClickListener {
-        void onQuizClick(Quiz quiz);
+        void onQuizClick(QuizSummary quiz);
     }
 
-    public QuizAdapter(List<Quiz> quizzes) {
-        this.quizzes = quizzes;
+    public QuizAdapter() {
+        super(QuizSummaryDiffCallback.INSTANCE);
+        setHasStableIds(true);
     }
     
-    public QuizAdapter(List<Quiz> quizzes, OnQuizClickListener listener) {
-        this.quizzes = quizzes;
+    public QuizAdapter(OnQuizClickListener listener) {
+        this();
         this.listener = listener;
     }
 
     @NonNull
     @Override
     public QuizViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_quiz, parent, false);
+        View view = inflatedViews.poll();
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_quiz, parent, false);
+        }
         return new QuizViewHolder(view);
     }
 
+    /**
+     * Carte inflatée à l'avance (ex. par AsyncLayoutInflater), utilisée par le prochain onCreateViewHolder
+     */
+    public void addInflatedView(@NonNull View view) {
+        inflatedViews.add(view);
+    }
+
     @Override
     public void onBindViewHolder(@NonNull QuizViewHolder holder, int position) {
-        Quiz quiz = quizzes.get(position);
+        QuizSummary quiz = getItem(position);
         holder.bind(quiz);
     }
 
     @Override
-    public int getItemCount() {
-        return quizzes.size();
+    public long getItemId(int position) {
+        return QuizSummaryDiffCallback.stableId(getItem(position).getId());
     }
-    
-    public void updateQuizzes(List<Quiz> newQuizzes) {
-        this.quizzes.clear();
-        this.quizzes.addAll(newQuizzes);
-        notifyDataSetChanged();
+
+    @Override
+    public void onViewRecycled(@NonNull QuizViewHolder holder) {
+        super.onViewRecycled(holder);
+        Glide.with(holder.imageQuiz).clear(holder.imageQuiz);
+    }
+
+    /**
+     * Affiche une nouvelle liste ; une copie est gardée, la liste de l'appelant peut continuer à changer
+     */
+    public void updateQuizzes(List<QuizSummary> newQuizzes) {
+        submitList(new ArrayList<>(newQuizzes));
     }
 
-    public class QuizViewHolder extends RecyclerView.ViewHolder {
+    /**
+     * Statique : avec un RecycledViewPool partagé, une carte créée par un adaptateur peut être liée par un autre
+     */
+    public static class QuizViewHolder extends RecyclerView.ViewHolder {
         private final ImageView imageQuiz;
         private final TextView textTitle;
         private final TextView textAuthor;
@@ -75,46 +103,29 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
             ratingBar = itemView.findViewById(R.id.ratingBar);
             
             itemView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onQuizClick(quizzes.get(position));
+                // Adaptateur qui a lié la carte, pas forcément celui qui l'a créée
+                QuizAdapter adapter = (QuizAdapter) getBindingAdapter();
+                int position = getBindingAdapterPosition();
+                if (adapter != null && position != RecyclerView.NO_POSITION && adapter.listener != null) {
+                    adapter.listener.onQuizClick(adapter.getItem(position));
                 }
             });
         }
 
-        public void bind(Quiz quiz) {
+        public void bind(QuizSummary quiz) {
             textTitle.setText(quiz.getTitle());
             textAuthor.setText(quiz.getAuthorName());
             textPlayCount.setText(String.format("%d joués", quiz.getPlayCount()));
             ratingBar.setRating((float) quiz.getRating());
             
-            // Charger l'image (de base64 si disponible)
-            String imageUrl = quiz.getImageUrl();
-            if (imageUrl != null && !imageUrl.isEmpty()) {
-                // Vérifier si c'est du base64 ou un chemin
-                if (imageUrl.startsWith("http")) {
-                    // URL - à gérer avec une bibliothèque comme Glide
-                    // Note: normalement nous n'utilisons pas Firebase Storage
-                    imageQuiz.setImageResource(R.drawable.ic_quiz_placeholder);
-                } else if (imageUrl.length() > 100) {
-                    // Probablement du base64
-                    Bitmap bitmap = MediaUtils.base64ToImage(imageUrl);
-                    if (bitmap != null) {
-                        imageQuiz.setImageBitmap(bitmap);
-                    } else {
-                        imageQuiz.setImageResource(R.drawable.ic_quiz_placeholder);
-                    }
-                } else {
-                    // Probablement un chemin local
-                    imageQuiz.setImageResource(R.drawable.ic_quiz_placeholder);
-                    // Le chargement réel nécessiterait le contexte
-                    // File file = MediaUtils.getMediaFile(itemView.getContext(), imageUrl);
-                    // imageQuiz.setImageURI(Uri.fromFile(file));
-                }
-            } else {
-                // Aucune image disponible
-                imageQuiz.setImageResource(R.drawable.ic_quiz_placeholder);
-            }
+            // Vignette (Base64, fichier local ou URL) : décodée à la taille de la vue et mise en cache par Glide,
+            // qui annule aussi le chargement précédent de cette vue
+            Glide.with(imageQuiz)
+                .load(MediaReference.glideModel(quiz.getThumbnailUrl()))
+                .placeholder(R.drawable.ic_quiz_placeholder)
+                .error(R.drawable.ic_quiz_placeholder)
+                .fallback(R.drawable.ic_quiz_placeholder)
+                .into(imageQuiz);
         }
     }
 } 
\ No newline at end of file
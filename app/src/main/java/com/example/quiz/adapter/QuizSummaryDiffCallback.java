@@ -0,0 +1,53 @@
+package com.example.quiz.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.quiz.model.QuizSummary;
+
+/**
+ * Comparaison des résumés de quiz pour les ListAdapter : même quiz si même ID,
+ * carte à redessiner seulement si un champ affiché a changé
+ */
+public class QuizSummaryDiffCallback extends DiffUtil.ItemCallback<QuizSummary> {
+    public static final QuizSummaryDiffCallback INSTANCE = new QuizSummaryDiffCallback();
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @Override
+    public boolean areItemsTheSame(@NonNull QuizSummary oldItem, @NonNull QuizSummary newItem) {
+        return equal(oldItem.getId(), newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull QuizSummary oldItem, @NonNull QuizSummary newItem) {
+        return oldItem.getUpdatedAt() == newItem.getUpdatedAt()
+            && oldItem.getQuestionCount() == newItem.getQuestionCount()
+            && oldItem.getPlayCount() == newItem.getPlayCount()
+            && Double.compare(oldItem.getRating(), newItem.getRating()) == 0
+            && equal(oldItem.getTitle(), newItem.getTitle())
+            && equal(oldItem.getCategory(), newItem.getCategory())
+            && equal(oldItem.getDifficulty(), newItem.getDifficulty())
+            && equal(oldItem.getAuthorName(), newItem.getAuthorName())
+            && equal(oldItem.getThumbnailUrl(), newItem.getThumbnailUrl());
+    }
+
+    /**
+     * ID stable d'une carte (RecyclerView.Adapter#getItemId) : empreinte FNV-1a 64 bits de l'ID du quiz,
+     * sans les collisions fréquentes de String.hashCode() sur 32 bits
+     */
+    public static long stableId(String quizId) {
+        if (quizId == null) return -1; // RecyclerView.NO_ID
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < quizId.length(); i++) {
+            hash ^= quizId.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash == -1 ? 0 : hash;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == b || (a != null && a.equals(b));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.quiz.data;
+
+import androidx.room.TypeConverter;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convertisseurs Room pour les listes de chaînes (IDs de questions, options)
+ */
+public class Converters {
+
+    @TypeConverter
+    public static String fromStringList(List<String> values) {
+        if (values == null) return null;
+        return new JSONArray(values).toString();
+    }
+
+    @TypeConverter
+    public static List<String> toStringList(String json) {
+        List<String> values = new ArrayList<>();
+        if (json == null || json.isEmpty()) return values;
+
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                values.add(array.optString(i));
+            }
+        } catch (JSONException e) {
+            // Données corrompues : on renvoie une liste vide, la ligne sera réécrite à la prochaine synchro
+        }
+        return values;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.quiz.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.quiz.util.WriteBehindBuffer;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Enregistre les incréments en attente de la file d'écritures différées dans les SharedPreferences (en JSON).
+ * save() rend la main aussitôt : l'écriture (commit) se fait sur un thread disque dédié, et les états
+ * enregistrés pendant une écriture sont regroupés, seul le dernier est écrit.
+ */
+public class PendingWritesStore implements WriteBehindBuffer.Storage {
+    private static final String TAG = "PendingWritesStore";
+    private static final String PREFS_NAME = "pending_writes";
+    private static final String KEY_PENDING = "pending";
+
+    private final SharedPreferences preferences;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    // Dernier état à écrire, null si aucune écriture n'est programmée
+    private final AtomicReference<Map<String, Map<String, Long>>> nextSave = new AtomicReference<>();
+
+    public PendingWritesStore(Context context) {
+        preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> load() {
+        Map<String, Map<String, Long>> pending = new LinkedHashMap<>();
+        String json = preferences.getString(KEY_PENDING, null);
+        if (json == null || json.isEmpty()) return pending;
+
+        try {
+            JSONObject documents = new JSONObject(json);
+            Iterator<String> paths = documents.keys();
+            while (paths.hasNext()) {
+                String path = paths.next();
+                JSONObject fieldsJson = documents.getJSONObject(path);
+                Map<String, Long> fields = new LinkedHashMap<>();
+                Iterator<String> names = fieldsJson.keys();
+                while (names.hasNext()) {
+                    String name = names.next();
+                    fields.put(name, fieldsJson.getLong(name));
+                }
+                pending.put(path, fields);
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Incréments en attente illisibles, ils sont abandonnés", e);
+        }
+        return pending;
+    }
+
+    @Override
+    public void save(Map<String, Map<String, Long>> pending) {
+        // Une écriture est déjà programmée : elle prendra ce nouvel état
+        if (nextSave.getAndSet(pending) != null) return;
+        diskExecutor.execute(() -> write(nextSave.getAndSet(null)));
+    }
+
+    private void write(Map<String, Map<String, Long>> pending) {
+        JSONObject documents = new JSONObject();
+        try {
+            for (Map.Entry<String, Map<String, Long>> document : pending.entrySet()) {
+                JSONObject fields = new JSONObject();
+                for (Map.Entry<String, Long> field : document.getValue().entrySet()) {
+                    fields.put(field.getKey(), field.getValue().longValue());
+                }
+                documents.put(document.getKey(), fields);
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Erreur lors de l'enregistrement des incréments en attente", e);
+            return;
+        }
+        if (!preferences.edit().putString(KEY_PENDING, documents.toString()).commit()) {
+            Log.e(TAG, "Impossible d'enregistrer les incréments en attente");
+        }
+    }
+}
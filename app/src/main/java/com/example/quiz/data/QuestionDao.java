@@ -0,0 +1,24 @@
+package com.example.quiz.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Accès aux questions en cache
+ */
+@Dao
+public interface QuestionDao {
+
+    @Query("SELECT * FROM questions WHERE id IN (:ids)")
+    List<QuestionEntity> getByIds(List<String> ids);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(List<QuestionEntity> questions);
+
+    @Query("DELETE FROM questions WHERE id = :id")
+    void delete(String id);
+}
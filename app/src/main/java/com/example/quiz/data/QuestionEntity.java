@@ -0,0 +1,65 @@
+package com.example.quiz.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.quiz.model.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copie locale d'un document "questions", indexée par son ID Firestore et versionnée par updatedAt
+ */
+@Entity(tableName = "questions")
+public class QuestionEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String text;
+    public String imageUrl;
+    public String videoUrl;
+    public List<String> options;
+    public int correctAnswerIndex;
+    public String explanation;
+    public int difficulty;
+    public String category;
+    public long createdAt;
+    public long updatedAt;
+    public String authorId;
+    public String type;
+
+    public static QuestionEntity fromQuestion(Question question) {
+        QuestionEntity entity = new QuestionEntity();
+        entity.id = question.getId();
+        entity.text = question.getText();
+        entity.imageUrl = question.getImageUrl();
+        entity.videoUrl = question.getVideoUrl();
+        entity.options = question.getOptions() != null ? new ArrayList<>(question.getOptions()) : new ArrayList<>();
+        entity.correctAnswerIndex = question.getCorrectAnswerIndex();
+        entity.explanation = question.getExplanation();
+        entity.difficulty = question.getDifficulty();
+        entity.category = question.getCategory();
+        entity.createdAt = question.getCreatedAt();
+        entity.updatedAt = question.getUpdatedAt();
+        entity.authorId = question.getAuthorId();
+        entity.type = question.getType() != null ? question.getType().name() : Question.Type.SINGLE_CHOICE.name();
+        return entity;
+    }
+
+    public Question toQuestion() {
+        Question.Type questionType;
+        try {
+            questionType = type != null ? Question.Type.valueOf(type) : Question.Type.SINGLE_CHOICE;
+        } catch (IllegalArgumentException e) {
+            questionType = Question.Type.SINGLE_CHOICE;
+        }
+
+        Question question = new Question(id, text, imageUrl, videoUrl,
+                options != null ? new ArrayList<>(options) : new ArrayList<>(),
+                correctAnswerIndex, explanation, difficulty, category, createdAt, authorId, questionType);
+        question.setUpdatedAt(updatedAt);
+        return question;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.quiz.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.model.Quiz;
+import com.example.quiz.model.QuizSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache disque (Room) des quizzes et des questions.
+ * Toutes les lectures/écritures passent par un unique thread disque, dans l'ordre des appels,
+ * et les résultats sont renvoyés sur le thread principal.
+ */
+public class QuizCache {
+    private static final String TAG = "QuizCache";
+    private static volatile QuizCache instance;
+
+    /**
+     * Listes de quizzes affichées sur l'accueil
+     */
+    public enum Feed {
+        RECENT,   // Triés par date de création
+        POPULAR,  // Triés par nombre de parties
+        AUTHOR    // Quizzes d'un auteur, triés par date de création
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private final QuizDatabase database;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private QuizCache(Context context) {
+        database = QuizDatabase.getInstance(context);
+    }
+
+    /**
+     * Initialise le cache (appelé depuis QuizApplication)
+     */
+    public static void init(Context context) {
+        if (instance == null) {
+            synchronized (QuizCache.class) {
+                if (instance == null) {
+                    instance = new QuizCache(context.getApplicationContext());
+                }
+            }
+        }
+    }
+
+    /**
+     * Renvoie le cache, ou null s'il n'a pas été initialisé (tests, processus secondaire)
+     */
+    public static QuizCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Lit une liste de l'accueil (résumés uniquement) depuis le disque. limit <= 0 signifie sans limite.
+     */
+    public void readFeed(Feed feed, String authorId, int limit, Callback<List<QuizSummary>> callback) {
+        diskExecutor.execute(() -> {
+            List<QuizSummary> summaries = new ArrayList<>();
+            try {
+                for (QuizSummaryEntity entity : queryFeed(feed, authorId, limit)) {
+                    summaries.add(entity.toSummary());
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de la lecture du cache " + feed, e);
+            }
+            mainHandler.post(() -> callback.onResult(summaries));
+        });
+    }
+
+    /**
+     * Enregistre la version distante d'une liste et renvoie uniquement les résumés
+     * absents du cache ou dont la version a changé. Seules ces lignes sont réécrites.
+     */
+    public void mergeSummaries(List<QuizSummary> freshSummaries, Callback<List<QuizSummary>> changedCallback) {
+        diskExecutor.execute(() -> {
+            List<QuizSummary> changed = new ArrayList<>();
+            try {
+                List<String> ids = new ArrayList<>();
+                for (QuizSummary summary : freshSummaries) {
+                    ids.add(summary.getId());
+                }
+
+                Map<String, QuizSummaryEntity> cachedById = new HashMap<>();
+                if (!ids.isEmpty()) {
+                    for (QuizSummaryEntity entity : database.quizSummaryDao().getByIds(ids)) {
+                        cachedById.put(entity.id, entity);
+                    }
+                }
+
+                List<QuizSummaryEntity> toWrite = new ArrayList<>();
+                for (QuizSummary summary : freshSummaries) {
+                    QuizSummaryEntity fresh = QuizSummaryEntity.fromSummary(summary);
+                    if (!fresh.isSameVersion(cachedById.get(fresh.id))) {
+                        toWrite.add(fresh);
+                        changed.add(summary);
+                    }
+                }
+
+                if (!toWrite.isEmpty()) {
+                    database.quizSummaryDao().upsert(toWrite);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de la mise à jour du cache des résumés", e);
+                changed.clear();
+                changed.addAll(freshSummaries);
+            }
+            mainHandler.post(() -> changedCallback.onResult(changed));
+        });
+    }
+
+    /**
+     * Lit un quiz complet en cache (null s'il n'y est pas)
+     */
+    public void readQuiz(String quizId, Callback<Quiz> callback) {
+        diskExecutor.execute(() -> {
+            Quiz quiz = null;
+            try {
+                QuizEntity entity = database.quizDao().getById(quizId);
+                if (entity != null) quiz = entity.toQuiz();
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de la lecture du quiz en cache " + quizId, e);
+            }
+            Quiz result = quiz;
+            mainHandler.post(() -> callback.onResult(result));
+        });
+    }
+
+    /**
+     * Écrit des quizzes complets et leurs résumés dans le cache, sans rappel
+     */
+    public void putQuizzes(List<Quiz> quizzes) {
+        List<QuizEntity> entities = new ArrayList<>();
+        List<QuizSummaryEntity> summaries = new ArrayList<>();
+        for (Quiz quiz : quizzes) {
+            if (quiz.getId() != null && !quiz.getId().isEmpty()) {
+                entities.add(QuizEntity.fromQuiz(quiz));
+                summaries.add(QuizSummaryEntity.fromSummary(QuizSummary.fromQuiz(quiz)));
+            }
+        }
+        if (entities.isEmpty()) return;
+
+        diskExecutor.execute(() -> {
+            try {
+                database.quizDao().upsert(entities);
+                database.quizSummaryDao().upsert(summaries);
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de l'écriture des quizzes en cache", e);
+            }
+        });
+    }
+
+    public void deleteQuiz(String quizId) {
+        diskExecutor.execute(() -> {
+            try {
+                database.quizDao().delete(quizId);
+                database.quizSummaryDao().delete(quizId);
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de la suppression du quiz en cache " + quizId, e);
+            }
+        });
+    }
+
+    /**
+     * Lit des questions en cache, indexées par ID (les IDs absents sont ignorés)
+     */
+    public void readQuestions(List<String> ids, Callback<Map<String, Question>> callback) {
+        diskExecutor.execute(() -> {
+            Map<String, Question> questionsById = new HashMap<>();
+            try {
+                for (QuestionEntity entity : database.questionDao().getByIds(ids)) {
+                    questionsById.put(entity.id, entity.toQuestion());
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de la lecture des questions en cache", e);
+            }
+            mainHandler.post(() -> callback.onResult(questionsById));
+        });
+    }
+
+    public void putQuestions(Collection<Question> questions) {
+        List<QuestionEntity> entities = new ArrayList<>();
+        for (Question question : questions) {
+            if (question.getId() != null && !question.getId().isEmpty()) {
+                entities.add(QuestionEntity.fromQuestion(question));
+            }
+        }
+        if (entities.isEmpty()) return;
+
+        diskExecutor.execute(() -> {
+            try {
+                database.questionDao().upsert(entities);
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de l'écriture des questions en cache", e);
+            }
+        });
+    }
+
+    public void deleteQuestion(String questionId) {
+        diskExecutor.execute(() -> {
+            try {
+                database.questionDao().delete(questionId);
+            } catch (Exception e) {
+                Log.e(TAG, "Erreur lors de la suppression de la question en cache " + questionId, e);
+            }
+        });
+    }
+
+    private List<QuizSummaryEntity> queryFeed(Feed feed, String authorId, int limit) {
+        int sqlLimit = limit > 0 ? limit : -1; // -1 = sans limite pour SQLite
+        switch (feed) {
+            case POPULAR:
+                return database.quizSummaryDao().getPopular(sqlLimit);
+            case AUTHOR:
+                return authorId != null ? database.quizSummaryDao().getByAuthor(authorId, sqlLimit) : new ArrayList<>();
+            case RECENT:
+            default:
+                return database.quizSummaryDao().getRecent(sqlLimit);
+        }
+    }
+}
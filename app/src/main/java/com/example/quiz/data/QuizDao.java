@@ -0,0 +1,27 @@
+package com.example.quiz.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Accès aux quizzes complets en cache
+ */
+@Dao
+public interface QuizDao {
+
+    @Query("SELECT * FROM quizzes WHERE id IN (:ids)")
+    List<QuizEntity> getByIds(List<String> ids);
+
+    @Query("SELECT * FROM quizzes WHERE id = :id")
+    QuizEntity getById(String id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(List<QuizEntity> quizzes);
+
+    @Query("DELETE FROM quizzes WHERE id = :id")
+    void delete(String id);
+}
@@ -0,0 +1,37 @@
+package com.example.quiz.data;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+
+/**
+ * Base Room servant de cache local aux données Firestore
+ */
+@Database(entities = {QuizEntity.class, QuizSummaryEntity.class, QuestionEntity.class}, version = 3, exportSchema = false)
+@TypeConverters(Converters.class)
+public abstract class QuizDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "quiz_cache.db";
+    private static volatile QuizDatabase instance;
+
+    public abstract QuizDao quizDao();
+
+    public abstract QuizSummaryDao quizSummaryDao();
+
+    public abstract QuestionDao questionDao();
+
+    public static QuizDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (QuizDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), QuizDatabase.class, DATABASE_NAME)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
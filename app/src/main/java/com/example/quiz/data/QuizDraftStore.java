@@ -0,0 +1,286 @@
+package com.example.quiz.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.util.DraftJournal;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Brouillon d'un quiz en cours de création, enregistré dans un journal (fichier en ajout seul) :
+ * chaque question ajoutée, modifiée ou supprimée y est écrite aussitôt, et le brouillon est restauré
+ * à la réouverture de l'écran, même après l'arrêt du processus.
+ * Les écritures sur le disque se font dans l'ordre, sur un thread dédié.
+ */
+public class QuizDraftStore {
+    private static final String TAG = "QuizDraftStore";
+    private static final String DRAFTS_DIR = "quiz_drafts";
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    /** Brouillon d'un nouveau quiz (un quiz existant a pour brouillon son ID) */
+    public static final String NEW_QUIZ_DRAFT = "new";
+
+    public static final String META_QUIZ_ID = "quizId";
+    public static final String META_TITLE = "title";
+    public static final String META_DESCRIPTION = "description";
+    public static final String META_CATEGORY = "category";
+    /** Questions de la version publiée, séparées par des virgules : celles retirées sont supprimées à la publication */
+    public static final String META_PUBLISHED_QUESTION_IDS = "publishedQuestionIds";
+
+    private static final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Brouillons ouverts, partagés entre l'écran du quiz et celui d'une question
+    private static final Map<String, QuizDraftStore> openDrafts = new HashMap<>();
+
+    private final String draftKey;
+    private final File file;
+    private final DraftJournal journal;
+
+    private QuizDraftStore(String draftKey, File file) {
+        this.draftKey = draftKey;
+        this.file = file;
+        this.journal = new DraftJournal(new FileStorage(file));
+    }
+
+    /**
+     * Ouvre (ou crée) un brouillon ; le journal est relu hors du thread principal.
+     * Le callback est appelé sur le thread principal.
+     */
+    public static void open(Context context, String draftKey, QuizCache.Callback<QuizDraftStore> callback) {
+        QuizDraftStore opened;
+        synchronized (openDrafts) {
+            opened = openDrafts.get(draftKey);
+        }
+        if (opened != null) {
+            mainHandler.post(() -> callback.onResult(opened));
+            return;
+        }
+
+        File dir = new File(context.getApplicationContext().getFilesDir(), DRAFTS_DIR);
+        diskExecutor.execute(() -> {
+            QuizDraftStore store;
+            synchronized (openDrafts) {
+                store = openDrafts.get(draftKey);
+                if (store == null) {
+                    if (!dir.exists() && !dir.mkdirs()) {
+                        Log.e(TAG, "Impossible de créer le dossier des brouillons");
+                    }
+                    store = new QuizDraftStore(draftKey, new File(dir, draftKey + JOURNAL_EXTENSION));
+                    openDrafts.put(draftKey, store);
+                }
+            }
+            QuizDraftStore result = store;
+            mainHandler.post(() -> callback.onResult(result));
+        });
+    }
+
+    public String getDraftKey() {
+        return draftKey;
+    }
+
+    public boolean isEmpty() {
+        return journal.isEmpty();
+    }
+
+    public String getMeta(String key) {
+        return journal.getMeta(key);
+    }
+
+    public void putMeta(String key, String value) {
+        journal.putMeta(key, value);
+    }
+
+    /**
+     * Questions du brouillon, dans l'ordre d'ajout
+     */
+    public List<Question> getQuestions() {
+        List<Question> questions = new ArrayList<>();
+        for (String id : journal.getIds()) {
+            Question question = getQuestion(id);
+            if (question != null) questions.add(question);
+        }
+        return questions;
+    }
+
+    public Question getQuestion(String questionId) {
+        String payload = journal.get(questionId);
+        if (payload == null) return null;
+        try {
+            return Question.fromMap(toMap(new JSONObject(payload)), questionId);
+        } catch (JSONException e) {
+            Log.e(TAG, "Question illisible dans le brouillon: " + questionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Ajoute ou met à jour une question (sans effet si elle n'a pas changé)
+     */
+    public void putQuestion(Question question) {
+        journal.put(question.getId(), new JSONObject(question.toMap()).toString());
+    }
+
+    public void removeQuestion(String questionId) {
+        journal.remove(questionId);
+    }
+
+    /**
+     * Questions modifiées depuis la dernière publication : ID -> révision, à repasser à markSynced()
+     */
+    public Map<String, Long> getDirtyRevisions() {
+        return journal.getDirtyRevisions();
+    }
+
+    public void markSynced(Map<String, Long> revisions) {
+        journal.markSynced(revisions);
+    }
+
+    /**
+     * Supprime le brouillon (quiz publié ou abandonné)
+     */
+    public void delete() {
+        synchronized (openDrafts) {
+            openDrafts.remove(draftKey);
+        }
+        journal.clear();
+        diskExecutor.execute(() -> {
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "Impossible de supprimer le brouillon " + draftKey);
+            }
+        });
+    }
+
+    // Valeurs JSON converties dans les types lus par Question.fromMap (entiers en Long, tableaux en List)
+    private static Map<String, Object> toMap(JSONObject json) throws JSONException {
+        Map<String, Object> map = new HashMap<>();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = json.get(key);
+            if (value == JSONObject.NULL) {
+                continue;
+            } else if (value instanceof JSONArray) {
+                JSONArray array = (JSONArray) value;
+                List<String> list = new ArrayList<>();
+                for (int i = 0; i < array.length(); i++) {
+                    list.add(array.optString(i));
+                }
+                map.put(key, list);
+            } else if (value instanceof Integer) {
+                map.put(key, ((Integer) value).longValue());
+            } else {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Journal dans un fichier : ajouts synchronisés sur le disque (fsync), réécriture par fichier temporaire
+     * puis renommage. Une dernière ligne incomplète (arrêt pendant une écriture) est retirée à la lecture.
+     */
+    private static class FileStorage implements DraftJournal.Storage {
+        private final File file;
+
+        FileStorage(File file) {
+            this.file = file;
+        }
+
+        // Appelé à l'ouverture, déjà sur le thread disque
+        @Override
+        public List<String> read() {
+            List<String> records = new ArrayList<>();
+            if (!file.exists()) return records;
+            try {
+                byte[] data = readFully(file);
+                int lastNewline = -1;
+                for (int i = 0; i < data.length; i++) {
+                    if (data[i] == '\n') {
+                        if (i > lastNewline + 1) {
+                            records.add(new String(data, lastNewline + 1, i - lastNewline - 1, StandardCharsets.UTF_8));
+                        }
+                        lastNewline = i;
+                    }
+                }
+                if (lastNewline + 1 < data.length) {
+                    // Ligne incomplète : la retirer pour que le prochain ajout commence sur une ligne propre
+                    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                        raf.setLength(lastNewline + 1);
+                    }
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Erreur lors de la lecture du brouillon " + file.getName(), e);
+            }
+            return records;
+        }
+
+        @Override
+        public void append(String record) {
+            byte[] line = (record + "\n").getBytes(StandardCharsets.UTF_8);
+            diskExecutor.execute(() -> {
+                try (FileOutputStream out = new FileOutputStream(file, true)) {
+                    out.write(line);
+                    out.getFD().sync();
+                } catch (IOException e) {
+                    Log.e(TAG, "Erreur lors de l'écriture du brouillon " + file.getName(), e);
+                }
+            });
+        }
+
+        @Override
+        public void rewrite(List<String> records) {
+            StringBuilder builder = new StringBuilder();
+            for (String record : records) {
+                builder.append(record).append('\n');
+            }
+            byte[] data = builder.toString().getBytes(StandardCharsets.UTF_8);
+            diskExecutor.execute(() -> {
+                File temp = new File(file.getPath() + ".tmp");
+                try (FileOutputStream out = new FileOutputStream(temp)) {
+                    out.write(data);
+                    out.getFD().sync();
+                } catch (IOException e) {
+                    Log.e(TAG, "Erreur lors de la compaction du brouillon " + file.getName(), e);
+                    return;
+                }
+                if (!temp.renameTo(file)) {
+                    Log.e(TAG, "Impossible de remplacer le brouillon " + file.getName());
+                }
+            });
+        }
+
+        private static byte[] readFully(File file) throws IOException {
+            try (InputStream in = new FileInputStream(file)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            }
+        }
+    }
+}
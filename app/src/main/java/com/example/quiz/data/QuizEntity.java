@@ -0,0 +1,76 @@
+package com.example.quiz.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copie locale d'un document "quizzes", indexée par son ID Firestore et versionnée par updatedAt.
+ * Comme le document, elle ne garde que la vignette : l'image complète est lue à part ("quiz_images").
+ */
+@Entity(tableName = "quizzes")
+public class QuizEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String title;
+    public String description;
+    public String thumbnailUrl;
+    public String authorId;
+    public String authorName;
+    public int playCount;
+    public double rating;
+    public long createdAt;
+    public long updatedAt;
+    public List<String> questionIds;
+    public int questionCount;
+    public boolean isPublic;
+    public String category;
+    public String difficulty;
+    public int timeLimit;
+    public boolean published;
+
+    public static QuizEntity fromQuiz(Quiz quiz) {
+        QuizEntity entity = new QuizEntity();
+        entity.id = quiz.getId();
+        entity.title = quiz.getTitle();
+        entity.description = quiz.getDescription();
+        entity.thumbnailUrl = quiz.getThumbnailUrl();
+        entity.authorId = quiz.getAuthorId();
+        entity.authorName = quiz.getAuthorName();
+        entity.playCount = quiz.getPlayCount();
+        entity.rating = quiz.getRating();
+        entity.createdAt = quiz.getCreatedAt();
+        entity.updatedAt = quiz.getUpdatedAt();
+        entity.questionIds = quiz.getQuestionIds() != null ? new ArrayList<>(quiz.getQuestionIds()) : new ArrayList<>();
+        entity.questionCount = quiz.getQuestionCount();
+        entity.isPublic = quiz.isPublic();
+        entity.category = quiz.getCategory();
+        entity.difficulty = quiz.getDifficulty();
+        entity.timeLimit = quiz.getTimeLimit();
+        entity.published = quiz.isPublished();
+        return entity;
+    }
+
+    public Quiz toQuiz() {
+        Quiz quiz = new Quiz(id, title, description, null, authorId, authorName);
+        quiz.setThumbnailUrl(thumbnailUrl);
+        quiz.setPlayCount(playCount);
+        quiz.setRating(rating);
+        quiz.setCreatedAt(createdAt);
+        quiz.setUpdatedAt(updatedAt);
+        quiz.setQuestionIds(questionIds != null ? new ArrayList<>(questionIds) : new ArrayList<>());
+        quiz.setQuestionCount(questionCount);
+        quiz.setPublic(isPublic);
+        quiz.setCategory(category);
+        quiz.setDifficulty(difficulty);
+        quiz.setTimeLimit(timeLimit);
+        quiz.setPublished(published);
+        return quiz;
+    }
+}
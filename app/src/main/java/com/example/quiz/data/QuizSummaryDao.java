@@ -0,0 +1,33 @@
+package com.example.quiz.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Accès aux résumés de quizzes en cache. Les requêtes reproduisent les tris des listes de l'accueil.
+ */
+@Dao
+public interface QuizSummaryDao {
+
+    @Query("SELECT * FROM quiz_summaries ORDER BY createdAt DESC LIMIT :limit")
+    List<QuizSummaryEntity> getRecent(int limit);
+
+    @Query("SELECT * FROM quiz_summaries ORDER BY playCount DESC LIMIT :limit")
+    List<QuizSummaryEntity> getPopular(int limit);
+
+    @Query("SELECT * FROM quiz_summaries WHERE authorId = :authorId ORDER BY createdAt DESC LIMIT :limit")
+    List<QuizSummaryEntity> getByAuthor(String authorId, int limit);
+
+    @Query("SELECT * FROM quiz_summaries WHERE id IN (:ids)")
+    List<QuizSummaryEntity> getByIds(List<String> ids);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(List<QuizSummaryEntity> summaries);
+
+    @Query("DELETE FROM quiz_summaries WHERE id = :id")
+    void delete(String id);
+}
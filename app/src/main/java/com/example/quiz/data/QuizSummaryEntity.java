@@ -0,0 +1,76 @@
+package com.example.quiz.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.quiz.model.QuizSummary;
+
+/**
+ * Copie locale d'un document "quiz_summaries", utilisée pour afficher les listes de l'accueil.
+ * La version d'une ligne est donnée par updatedAt (et les compteurs, qui évoluent sans toucher updatedAt).
+ */
+@Entity(tableName = "quiz_summaries",
+        indices = {@Index("createdAt"), @Index("playCount"), @Index("authorId")})
+public class QuizSummaryEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String title;
+    public String category;
+    public String difficulty;
+    public int questionCount;
+    public String thumbnailUrl;
+    public int playCount;
+    public double rating;
+    public String authorId;
+    public String authorName;
+    public long createdAt;
+    public long updatedAt;
+
+    public static QuizSummaryEntity fromSummary(QuizSummary summary) {
+        QuizSummaryEntity entity = new QuizSummaryEntity();
+        entity.id = summary.getId();
+        entity.title = summary.getTitle();
+        entity.category = summary.getCategory();
+        entity.difficulty = summary.getDifficulty();
+        entity.questionCount = summary.getQuestionCount();
+        entity.thumbnailUrl = summary.getThumbnailUrl();
+        entity.playCount = summary.getPlayCount();
+        entity.rating = summary.getRating();
+        entity.authorId = summary.getAuthorId();
+        entity.authorName = summary.getAuthorName();
+        entity.createdAt = summary.getCreatedAt();
+        entity.updatedAt = summary.getUpdatedAt();
+        return entity;
+    }
+
+    public QuizSummary toSummary() {
+        QuizSummary summary = new QuizSummary();
+        summary.setId(id);
+        summary.setTitle(title);
+        summary.setCategory(category);
+        summary.setDifficulty(difficulty);
+        summary.setQuestionCount(questionCount);
+        summary.setThumbnailUrl(thumbnailUrl);
+        summary.setPlayCount(playCount);
+        summary.setRating(rating);
+        summary.setAuthorId(authorId);
+        summary.setAuthorName(authorName);
+        summary.setCreatedAt(createdAt);
+        summary.setUpdatedAt(updatedAt);
+        return summary;
+    }
+
+    /**
+     * Indique si la ligne locale correspond déjà à la version distante
+     */
+    public boolean isSameVersion(QuizSummaryEntity other) {
+        return other != null
+                && updatedAt == other.updatedAt
+                && playCount == other.playCount
+                && rating == other.rating
+                && questionCount == other.questionCount;
+    }
+}
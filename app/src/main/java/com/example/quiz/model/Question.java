@@ -32,6 +32,7 @@ public class Question {
     private int difficulty; // 1-5
     private String category;
     private long createdAt;
+    private long updatedAt;
     private String authorId;
     private Type type;
     
@@ -59,6 +60,7 @@ public class Question {
         this.difficulty = difficulty;
         this.category = category;
         this.createdAt = createdAt;
+        this.updatedAt = createdAt;
         this.authorId = authorId;
         this.type = Type.SINGLE_CHOICE;
     }
@@ -74,6 +76,16 @@ public class Question {
         this.type = type;
     }
     
+    /**
+     * Copie d'une question (la liste des options est copiée)
+     */
+    public Question(Question other) {
+        this(other.id, other.text, other.imageUrl, other.videoUrl,
+                other.options != null ? new ArrayList<>(other.options) : null, other.correctAnswerIndex,
+                other.explanation, other.difficulty, other.category, other.createdAt, other.authorId, other.type);
+        this.updatedAt = other.updatedAt;
+    }
+    
     /**
      * Crée une Question à partir d'un Map Firestore
      */
@@ -105,6 +117,13 @@ public class Question {
             question.createdAt = (Long) map.get("createdAt");
         }
         
+        // Date de dernière modification (les anciennes questions n'en ont pas)
+        if (map.get("updatedAt") instanceof Long) {
+            question.updatedAt = (Long) map.get("updatedAt");
+        } else {
+            question.updatedAt = question.createdAt;
+        }
+        
         question.authorId = (String) map.get("authorId");
         
         // Récupérer le type de question
@@ -136,6 +155,7 @@ public class Question {
         map.put("difficulty", difficulty);
         map.put("category", category);
         map.put("createdAt", createdAt);
+        map.put("updatedAt", updatedAt);
         map.put("authorId", authorId);
         map.put("type", type != null ? type.name() : Type.SINGLE_CHOICE.name());
         return map;
@@ -233,6 +253,14 @@ public class Question {
         this.createdAt = createdAt;
     }
 
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getAuthorId() {
         return authorId;
     }
@@ -25,7 +25,8 @@ public class Quiz {
     private String id;
     private String title;
     private String description;
-    private String imageUrl; // Base64 ou chemin local
+    private String imageUrl; // Image complète (Base64 ou chemin local), stockée dans "quiz_images/{id}"
+    private String thumbnailUrl; // Vignette de quelques Ko, stockée sur le quiz et son résumé
     private String authorId;
     private String authorName;
     private int playCount;
@@ -34,6 +35,7 @@ public class Quiz {
     private long updatedAt;
     private List<String> questionIds; // IDs des questions dans Firestore
     private List<Question> questions; // Questions chargées
+    private int questionCount; // Nombre de questions, dénormalisé pour les listes
     private boolean isPublic;
     private String category;
     private String difficulty; // "Facile", "Moyen", "Difficile"
@@ -82,7 +84,8 @@ public class Quiz {
         quiz.id = documentId;
         quiz.title = (String) map.get("title");
         quiz.description = (String) map.get("description");
-        quiz.imageUrl = (String) map.get("imageUrl");
+        quiz.imageUrl = (String) map.get("imageUrl"); // Quiz antérieurs à "quiz_images"
+        quiz.thumbnailUrl = (String) map.get("thumbnailUrl");
         quiz.authorId = (String) map.get("authorId");
         quiz.authorName = (String) map.get("authorName");
         
@@ -92,6 +95,15 @@ public class Quiz {
             quiz.questionIds = questionIds;
         }
         
+        // Récupérer le nombre de questions
+        if (map.get("questionCount") instanceof Long) {
+            quiz.questionCount = ((Long) map.get("questionCount")).intValue();
+        } else if (map.get("questionCount") instanceof Integer) {
+            quiz.questionCount = (Integer) map.get("questionCount");
+        } else {
+            quiz.questionCount = quiz.questionIds.size();
+        }
+        
         // Récupérer le nombre de parties
         if (map.get("playCount") instanceof Long) {
             quiz.playCount = ((Long) map.get("playCount")).intValue();
@@ -144,10 +156,11 @@ public class Quiz {
         Map<String, Object> map = new HashMap<>();
         map.put("title", title);
         map.put("description", description);
-        map.put("imageUrl", imageUrl);
+        map.put("thumbnailUrl", thumbnailUrl); // L'image complète est écrite à part, dans "quiz_images"
         map.put("authorId", authorId);
         map.put("authorName", authorName);
         map.put("questionIds", questionIds);
+        map.put("questionCount", getQuestionCount());
         map.put("playCount", playCount);
         map.put("rating", rating);
         map.put("createdAt", createdAt);
@@ -246,6 +259,14 @@ public class Quiz {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     public String getAuthorId() {
         return authorId;
     }
@@ -270,6 +291,20 @@ public class Quiz {
         this.questionIds = questionIds;
     }
 
+    /**
+     * Nombre de questions : taille de questionIds si la liste est connue, sinon la valeur dénormalisée
+     */
+    public int getQuestionCount() {
+        if (questionIds != null && !questionIds.isEmpty()) {
+            return questionIds.size();
+        }
+        return questionCount;
+    }
+
+    public void setQuestionCount(int questionCount) {
+        this.questionCount = questionCount;
+    }
+
     public List<Question> getQuestions() {
         return questions;
     }
@@ -0,0 +1,191 @@
+package com.example.quiz.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Projection légère d'un quiz pour les listes (collection Firestore "quiz_summaries").
+ * Elle ne contient ni la description, ni les IDs de questions, ni l'image complète :
+ * c'est tout ce qu'il faut pour dessiner une carte, le quiz complet n'étant chargé qu'à l'ouverture.
+ */
+public class QuizSummary {
+    private String id;
+    private String title;
+    private String category;
+    private String difficulty;
+    private int questionCount;
+    private String thumbnailUrl; // Référence de la vignette (Base64 ou chemin local)
+    private int playCount;
+    private double rating;
+    private String authorId;
+    private String authorName;
+    private long createdAt;
+    private long updatedAt;
+
+    // Constructeur vide requis pour Firestore
+    public QuizSummary() {
+    }
+
+    /**
+     * Construit le résumé d'un quiz complet
+     */
+    public static QuizSummary fromQuiz(Quiz quiz) {
+        QuizSummary summary = new QuizSummary();
+        summary.id = quiz.getId();
+        summary.title = quiz.getTitle();
+        summary.category = quiz.getCategory();
+        summary.difficulty = quiz.getDifficulty();
+        summary.questionCount = quiz.getQuestionCount();
+        summary.thumbnailUrl = quiz.getThumbnailUrl();
+        summary.playCount = quiz.getPlayCount();
+        summary.rating = quiz.getRating();
+        summary.authorId = quiz.getAuthorId();
+        summary.authorName = quiz.getAuthorName();
+        summary.createdAt = quiz.getCreatedAt();
+        summary.updatedAt = quiz.getUpdatedAt();
+        return summary;
+    }
+
+    // Méthode pour convertir un document Firestore en QuizSummary
+    public static QuizSummary fromMap(Map<String, Object> map, String documentId) {
+        QuizSummary summary = new QuizSummary();
+        summary.id = documentId;
+        summary.title = (String) map.get("title");
+        summary.category = (String) map.get("category");
+        summary.difficulty = (String) map.get("difficulty");
+        summary.thumbnailUrl = (String) map.get("thumbnailUrl");
+        summary.authorId = (String) map.get("authorId");
+        summary.authorName = (String) map.get("authorName");
+
+        if (map.get("questionCount") instanceof Number) {
+            summary.questionCount = ((Number) map.get("questionCount")).intValue();
+        }
+        if (map.get("playCount") instanceof Number) {
+            summary.playCount = ((Number) map.get("playCount")).intValue();
+        }
+        if (map.get("rating") instanceof Number) {
+            summary.rating = ((Number) map.get("rating")).doubleValue();
+        }
+        if (map.get("createdAt") instanceof Number) {
+            summary.createdAt = ((Number) map.get("createdAt")).longValue();
+        }
+        if (map.get("updatedAt") instanceof Number) {
+            summary.updatedAt = ((Number) map.get("updatedAt")).longValue();
+        }
+        return summary;
+    }
+
+    // Méthode pour convertir QuizSummary en Map pour Firestore
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("title", title);
+        map.put("category", category);
+        map.put("difficulty", difficulty);
+        map.put("questionCount", questionCount);
+        map.put("thumbnailUrl", thumbnailUrl);
+        map.put("playCount", playCount);
+        map.put("rating", rating);
+        map.put("authorId", authorId);
+        map.put("authorName", authorName);
+        map.put("createdAt", createdAt);
+        map.put("updatedAt", updatedAt);
+        return map;
+    }
+
+    // Getters et Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(int questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public int getPlayCount() {
+        return playCount;
+    }
+
+    public void setPlayCount(int playCount) {
+        this.playCount = playCount;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
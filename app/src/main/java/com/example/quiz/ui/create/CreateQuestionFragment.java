@@ -16,10 +16,12 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
+import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.quiz.R;
+import com.example.quiz.data.QuizDraftStore;
 import com.example.quiz.model.Question;
 import com.example.quiz.util.FirestoreUtils;
 import com.google.android.material.textfield.TextInputEditText;
@@ -41,12 +43,16 @@ public class CreateQuestionFragment extends Fragment {
     private RecyclerView recyclerViewOptions;
     
     private OptionsAdapter optionsAdapter;
+    // Options en cours d'édition, conservées quand la vue est recréée
+    private final OptionsDraft optionsDraft = new OptionsDraft();
     private List<String> options = new ArrayList<>();
     private int correctAnswerIndex = 0;
     
     private boolean isNewQuestion = true;
     private String questionId = null;
     private Question currentQuestion = null;
+    // Brouillon du quiz en cours de création (QuizDraftStore), null si la question est enregistrée directement
+    private String draftKey = null;
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
@@ -73,25 +79,33 @@ public class CreateQuestionFragment extends Fragment {
         
         // Configurer le RecyclerView pour les options
         recyclerViewOptions.setLayoutManager(new LinearLayoutManager(getContext()));
-        optionsAdapter = new OptionsAdapter(options, position -> {
-            correctAnswerIndex = position;
-            optionsAdapter.setCorrectAnswerIndex(correctAnswerIndex);
-            optionsAdapter.notifyDataSetChanged();
-        }, position -> {
-            // Supprimer l'option
-            options.remove(position);
-            if (correctAnswerIndex >= position && correctAnswerIndex > 0) {
-                correctAnswerIndex--;
-            }
-            optionsAdapter.setCorrectAnswerIndex(correctAnswerIndex);
-            optionsAdapter.notifyDataSetChanged();
+        optionsAdapter = new OptionsAdapter(optionsDraft, (updatedOptions, updatedCorrectIndex) -> {
+            options = updatedOptions;
+            correctAnswerIndex = updatedCorrectIndex;
         });
         recyclerViewOptions.setAdapter(optionsAdapter);
         
+        // Appui long puis glisser pour réordonner les options
+        new ItemTouchHelper(new ItemTouchHelper.SimpleCallback(ItemTouchHelper.UP | ItemTouchHelper.DOWN, 0) {
+            @Override
+            public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder,
+                                  @NonNull RecyclerView.ViewHolder target) {
+                int from = viewHolder.getBindingAdapterPosition();
+                int to = target.getBindingAdapterPosition();
+                if (from == RecyclerView.NO_POSITION || to == RecyclerView.NO_POSITION) return false;
+                optionsAdapter.moveOption(from, to);
+                return true;
+            }
+            
+            @Override
+            public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {}
+        }).attachToRecyclerView(recyclerViewOptions);
+        
         // Récupérer les arguments
         if (getArguments() != null) {
             isNewQuestion = getArguments().getBoolean("isNewQuestion", true);
             questionId = getArguments().getString("questionId");
+            draftKey = getArguments().getString("draftKey");
             
             if (!isNewQuestion && questionId != null) {
                 // Charger la question existante
@@ -100,26 +114,39 @@ public class CreateQuestionFragment extends Fragment {
         }
         
         // Ajouter une option par défaut s'il s'agit d'une nouvelle question
-        if (isNewQuestion && options.isEmpty()) {
-            options.add("");
-            optionsAdapter.notifyDataSetChanged();
+        if (isNewQuestion && optionsDraft.size() == 0) {
+            optionsAdapter.addOption();
         }
         
         // Configurer les listeners
-        buttonAddOption.setOnClickListener(v -> {
-            options.add("");
-            optionsAdapter.notifyDataSetChanged();
-        });
+        buttonAddOption.setOnClickListener(v -> optionsAdapter.addOption());
         
         buttonSaveQuestion.setOnClickListener(v -> saveQuestion());
     }
     
     private void loadQuestion(String questionId) {
-        // TODO: Implémenter le chargement d'une question existante depuis Firestore
-        // Pour l'instant, nous utilisons un objet vide
-        currentQuestion = new Question();
-        currentQuestion.setId(questionId);
+        if (draftKey == null) {
+            // TODO: Implémenter le chargement d'une question existante depuis Firestore
+            // Pour l'instant, nous utilisons un objet vide
+            currentQuestion = new Question();
+            currentQuestion.setId(questionId);
+            showQuestion();
+            return;
+        }
         
+        // Question relue depuis le brouillon du quiz
+        QuizDraftStore.open(requireContext(), draftKey, store -> {
+            if (getView() == null) return;
+            currentQuestion = store.getQuestion(questionId);
+            if (currentQuestion == null) {
+                currentQuestion = new Question();
+                currentQuestion.setId(questionId);
+            }
+            showQuestion();
+        });
+    }
+    
+    private void showQuestion() {
         // Remplir l'interface avec les données de la question
         if (currentQuestion != null) {
             editTextQuestionText.setText(currentQuestion.getText());
@@ -135,16 +162,20 @@ public class CreateQuestionFragment extends Fragment {
             
             // Remplir les options
             if (currentQuestion.getOptions() != null) {
-                options.clear();
-                options.addAll(currentQuestion.getOptions());
-                correctAnswerIndex = currentQuestion.getCorrectAnswerIndex();
-                optionsAdapter.setCorrectAnswerIndex(correctAnswerIndex);
-                optionsAdapter.notifyDataSetChanged();
+                int previousCount = optionsDraft.size();
+                optionsDraft.setAll(currentQuestion.getOptions(), currentQuestion.getCorrectAnswerIndex());
+                options = optionsDraft.getTexts();
+                correctAnswerIndex = optionsDraft.getCorrectAnswerIndex();
+                optionsAdapter.notifyItemRangeRemoved(0, previousCount);
+                optionsAdapter.notifyItemRangeInserted(0, optionsDraft.size());
             }
         }
     }
     
     private void saveQuestion() {
+        // Prendre en compte la dernière saisie, même si la pause n'est pas écoulée
+        optionsAdapter.flushPendingChanges();
+        
         // Valider les entrées
         String questionText = editTextQuestionText.getText().toString().trim();
         String explanation = editTextExplanation.getText().toString().trim();
@@ -187,7 +218,15 @@ public class CreateQuestionFragment extends Fragment {
         question.setDifficulty(2); // Difficulté moyenne par défaut
         question.setAuthorId(FirebaseAuth.getInstance().getCurrentUser() != null ? 
                 FirebaseAuth.getInstance().getCurrentUser().getUid() : "offline_user");
-        question.setCreatedAt(System.currentTimeMillis());
+        if (question.getCreatedAt() == 0) {
+            question.setCreatedAt(System.currentTimeMillis());
+        }
+        question.setUpdatedAt(System.currentTimeMillis());
+        
+        if (draftKey != null) {
+            saveQuestionToDraft(question);
+            return;
+        }
         
         // Sauvegarder la question dans Firestore
         FirestoreUtils.addQuestion(question, new FirestoreUtils.OnOperationCompleteListener() {
@@ -207,6 +246,25 @@ public class CreateQuestionFragment extends Fragment {
         });
     }
     
+    /**
+     * Enregistre la question dans le brouillon du quiz : elle sera envoyée à la publication du quiz
+     */
+    private void saveQuestionToDraft(Question question) {
+        QuizDraftStore.open(requireContext(), draftKey, store -> {
+            store.putQuestion(question);
+            if (getView() == null) return;
+            
+            Toast.makeText(getContext(), "Question ajoutée au quiz", Toast.LENGTH_SHORT).show();
+            Bundle args = new Bundle();
+            if (!QuizDraftStore.NEW_QUIZ_DRAFT.equals(draftKey)) {
+                // Quiz existant : son brouillon porte son ID
+                args.putString("quizId", draftKey);
+            }
+            NavController navController = Navigation.findNavController(requireView());
+            navController.navigate(R.id.action_create_question_to_create_quiz, args);
+        });
+    }
+    
     // Classe utilitaire pour générer un ID unique pour les questions en mode hors ligne
     private static class FirebaseUtils {
         public static String generateUniqueId() {
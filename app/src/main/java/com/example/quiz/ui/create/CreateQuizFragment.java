@@ -1,5 +1,6 @@
 package com.example.quiz.ui.create;
 
+import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Log;
@@ -8,8 +9,11 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.ImageView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
@@ -19,14 +23,19 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.quiz.R;
+import com.example.quiz.data.QuizDraftStore;
 import com.example.quiz.model.Question;
 import com.example.quiz.model.Quiz;
 import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.MediaUtils;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CreateQuizFragment extends Fragment {
     private static final String TAG = "CreateQuizFragment";
@@ -36,14 +45,25 @@ public class CreateQuizFragment extends Fragment {
     private EditText editTextCategory;
     private Button buttonAddQuestion;
     private Button buttonSaveQuiz;
+    private Button buttonPickImage;
+    private ImageView imageViewQuizImage;
     private RecyclerView recyclerViewQuestions;
     
     private List<Question> questions = new ArrayList<>();
     private QuestionAdapter adapter;
     
+    // Brouillon sur disque : chaque question ajoutée, modifiée ou supprimée y est enregistrée aussitôt
+    private QuizDraftStore draft;
+    private String draftKey = QuizDraftStore.NEW_QUIZ_DRAFT;
+    
     private FirebaseAuth mAuth;
     private String quizId;
     private boolean isEditing = false;
+    private Quiz loadedQuiz; // Version publiée du quiz modifié, si elle a été chargée
+    private MediaUtils.QuizImages pickedImages; // Nouvelle image choisie, publiée avec le quiz
+    
+    private final ActivityResultLauncher<String> pickImage =
+        registerForActivityResult(new ActivityResultContracts.GetContent(), this::onImagePicked);
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
@@ -64,6 +84,8 @@ public class CreateQuizFragment extends Fragment {
         editTextCategory = view.findViewById(R.id.editTextCategory);
         buttonAddQuestion = view.findViewById(R.id.buttonAddQuestion);
         buttonSaveQuiz = view.findViewById(R.id.buttonSaveQuiz);
+        buttonPickImage = view.findViewById(R.id.buttonPickImage);
+        imageViewQuizImage = view.findViewById(R.id.imageViewQuizImage);
         recyclerViewQuestions = view.findViewById(R.id.recyclerViewQuestions);
         
         // Configurer le RecyclerView
@@ -78,8 +100,11 @@ public class CreateQuizFragment extends Fragment {
             @Override
             public void onDeleteQuestion(int position) {
                 // Supprimer la question
-                questions.remove(position);
-                adapter.notifyDataSetChanged();
+                Question removed = questions.remove(position);
+                if (draft != null) {
+                    draft.removeQuestion(removed.getId());
+                }
+                adapter.notifyItemRemoved(position);
                 updateQuestionCount();
             }
         });
@@ -89,25 +114,84 @@ public class CreateQuizFragment extends Fragment {
         if (getArguments() != null && getArguments().containsKey("quizId")) {
             quizId = getArguments().getString("quizId");
             isEditing = true;
-            
-            // Charger le quiz existant
-            loadQuiz(quizId);
+            draftKey = quizId;
         }
         
+        // Restaurer le brouillon s'il existe, sinon charger le quiz existant
+        openDraft();
+        
         // Configurer les listeners
         buttonAddQuestion.setOnClickListener(v -> addNewQuestion());
         
         buttonSaveQuiz.setOnClickListener(v -> saveQuiz());
         
+        buttonPickImage.setOnClickListener(v -> pickImage.launch("image/*"));
+        showQuizImage(pickedImages);
+        
         // Mettre à jour le compteur de questions
         updateQuestionCount();
     }
     
+    @Override
+    public void onPause() {
+        super.onPause();
+        saveDraftFields();
+    }
+    
+    private void openDraft() {
+        QuizDraftStore.open(requireContext(), draftKey, store -> {
+            if (getView() == null) return;
+            draft = store;
+            
+            if (!store.isEmpty()) {
+                restoreDraft(store);
+            } else if (isEditing) {
+                loadQuiz(quizId);
+            }
+        });
+    }
+    
+    private void restoreDraft(QuizDraftStore store) {
+        if (store.getMeta(QuizDraftStore.META_TITLE) != null) {
+            editTextTitle.setText(store.getMeta(QuizDraftStore.META_TITLE));
+            editTextDescription.setText(store.getMeta(QuizDraftStore.META_DESCRIPTION));
+            editTextCategory.setText(store.getMeta(QuizDraftStore.META_CATEGORY));
+        }
+        // ID fixé lors d'une publication interrompue d'un nouveau quiz
+        String draftQuizId = store.getMeta(QuizDraftStore.META_QUIZ_ID);
+        if (quizId == null && !TextUtils.isEmpty(draftQuizId)) {
+            quizId = draftQuizId;
+        }
+        setQuestions(store.getQuestions());
+    }
+    
+    /**
+     * Enregistre le titre, la description et la catégorie dans le brouillon (sans effet s'ils n'ont pas changé)
+     */
+    private void saveDraftFields() {
+        if (draft == null || editTextTitle == null) return;
+        draft.putMeta(QuizDraftStore.META_TITLE, editTextTitle.getText().toString());
+        draft.putMeta(QuizDraftStore.META_DESCRIPTION, editTextDescription.getText().toString());
+        draft.putMeta(QuizDraftStore.META_CATEGORY, editTextCategory.getText().toString());
+    }
+    
+    private void setQuestions(List<Question> newQuestions) {
+        int previousCount = questions.size();
+        questions.clear();
+        adapter.notifyItemRangeRemoved(0, previousCount);
+        questions.addAll(newQuestions);
+        adapter.notifyItemRangeInserted(0, questions.size());
+        updateQuestionCount();
+    }
+    
     private void loadQuiz(String quizId) {
         FirestoreUtils.loadQuiz(quizId, new FirestoreUtils.OnQuizLoadedListener() {
             @Override
             public void onQuizLoaded(Quiz quiz) {
                 if (getActivity() == null) return;
+                // Version plus récente reçue après celle du cache : ignorée si l'utilisateur a déjà modifié le quiz
+                if (hasLocalEdits()) return;
+                loadedQuiz = quiz;
                 
                 // Remplir les champs avec les données du quiz
                 editTextTitle.setText(quiz.getTitle());
@@ -118,10 +202,21 @@ public class CreateQuizFragment extends Fragment {
                 FirestoreUtils.loadQuestionsForQuiz(quiz, new FirestoreUtils.OnQuestionsLoadedListener() {
                     @Override
                     public void onQuestionsLoaded(List<Question> loadedQuestions) {
-                        questions.clear();
-                        questions.addAll(loadedQuestions);
-                        adapter.notifyDataSetChanged();
-                        updateQuestionCount();
+                        if (getView() == null || hasLocalEdits()) return;
+                        setQuestions(loadedQuestions);
+                        
+                        // Le brouillon part de la version publiée : rien à renvoyer tant qu'une question n'est pas modifiée
+                        if (draft != null) {
+                            for (Question question : loadedQuestions) {
+                                draft.putQuestion(question);
+                            }
+                            draft.markSynced(draft.getDirtyRevisions());
+                            if (quiz.getQuestionIds() != null) {
+                                draft.putMeta(QuizDraftStore.META_PUBLISHED_QUESTION_IDS,
+                                    TextUtils.join(",", quiz.getQuestionIds()));
+                            }
+                            saveDraftFields();
+                        }
                     }
                     
                     @Override
@@ -140,11 +235,53 @@ public class CreateQuizFragment extends Fragment {
         });
     }
     
+    /**
+     * Vrai si le brouillon a été modifié depuis qu'il a été rempli avec la version publiée
+     */
+    private boolean hasLocalEdits() {
+        if (draft == null) return false;
+        if (!draft.getDirtyRevisions().isEmpty()) return true;
+        return isFieldEdited(editTextTitle, QuizDraftStore.META_TITLE)
+            || isFieldEdited(editTextDescription, QuizDraftStore.META_DESCRIPTION)
+            || isFieldEdited(editTextCategory, QuizDraftStore.META_CATEGORY);
+    }
+    
+    private boolean isFieldEdited(EditText field, String metaKey) {
+        String seeded = draft.getMeta(metaKey);
+        return seeded != null && !seeded.equals(field.getText().toString());
+    }
+    
+    private void onImagePicked(Uri imageUri) {
+        if (imageUri == null) return;
+        
+        // Décodage et compression hors du thread principal ; l'enregistrement attend la fin
+        buttonPickImage.setEnabled(false);
+        buttonSaveQuiz.setEnabled(false);
+        MediaUtils.createQuizImages(requireContext(), imageUri, images -> {
+            if (getView() == null) return;
+            buttonPickImage.setEnabled(true);
+            buttonSaveQuiz.setEnabled(true);
+            if (images == null) {
+                Toast.makeText(getContext(), "Impossible de lire cette image", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            pickedImages = images;
+            showQuizImage(images);
+        });
+    }
+    
+    private void showQuizImage(MediaUtils.QuizImages images) {
+        if (images == null) return;
+        imageViewQuizImage.setImageBitmap(MediaUtils.base64ToImage(images.thumbnail));
+        imageViewQuizImage.setVisibility(View.VISIBLE);
+    }
+    
     private void addNewQuestion() {
         // Naviguer vers le fragment de création de question
         NavController navController = Navigation.findNavController(requireView());
         Bundle args = new Bundle();
         args.putBoolean("isNewQuestion", true);
+        args.putString("draftKey", draftKey);
         navController.navigate(R.id.action_create_quiz_to_create_question, args);
     }
     
@@ -155,8 +292,8 @@ public class CreateQuizFragment extends Fragment {
         Bundle args = new Bundle();
         args.putBoolean("isNewQuestion", false);
         args.putString("questionId", question.getId());
-        // Vous devrez implémenter une méthode pour sérialiser/désérialiser la question
-        // ou la stocker temporairement dans un singleton ou un ViewModel partagé
+        // La question est relue depuis le brouillon
+        args.putString("draftKey", draftKey);
         navController.navigate(R.id.action_create_quiz_to_create_question, args);
     }
     
@@ -192,89 +329,52 @@ public class CreateQuizFragment extends Fragment {
             authorName = "Utilisateur " + authorId.substring(0, 5);
         }
         
-        // Créer ou mettre à jour le quiz
-        Quiz quiz;
-        if (isEditing && quizId != null) {
-            // Mettre à jour un quiz existant
-            quiz = new Quiz(quizId, title, description, null, authorId, authorName);
-        } else {
-            // Créer un nouveau quiz
-            quiz = new Quiz("", title, description, null, authorId, authorName);
+        // Créer ou mettre à jour le quiz. L'ID est fixé dès la première tentative
+        // pour qu'un nouvel essai réécrive le même document au lieu d'en créer un autre.
+        if (quizId == null) {
+            quizId = FirestoreUtils.generateQuizId();
+            if (draft != null) {
+                draft.putMeta(QuizDraftStore.META_QUIZ_ID, quizId);
+            }
         }
-        
+        // En modification, le quiz chargé garde ses champs non modifiables (parties, date de création, vignette)
+        Quiz quiz = isEditing && loadedQuiz != null
+            ? loadedQuiz
+            : new Quiz(quizId, title, description, null, authorId, authorName);
+        quiz.setTitle(title);
+        quiz.setDescription(description);
         quiz.setCategory(category);
-        quiz.setQuestions(new ArrayList<>(questions));
-        
-        // Liste des IDs de questions
-        List<String> questionIds = new ArrayList<>();
-        for (Question q : questions) {
-            questionIds.add(q.getId());
+        if (pickedImages != null) {
+            quiz.setThumbnailUrl(pickedImages.thumbnail);
+            quiz.setImageUrl(pickedImages.fullImage);
+        } else if (isEditing) {
+            // Pas de nouvelle image : celle de "quiz_images" n'est pas réécrite
+            quiz.setImageUrl(null);
         }
-        quiz.setQuestionIds(questionIds);
         
-        // Sauvegarder d'abord toutes les questions
-        saveQuestions(quiz);
+        // Publier les questions et le quiz en une seule validation
+        publishQuiz(quiz);
     }
     
-    private void saveQuestions(Quiz quiz) {
-        final int[] savedCount = {0};
-        final boolean[] hasError = {false};
-        final Exception[] lastError = {null};
-        
-        if (questions.isEmpty()) {
-            // Pas de questions à sauvegarder, enregistrer le quiz directement
-            saveQuizToFirestore(quiz);
-            return;
-        }
+    private void publishQuiz(Quiz quiz) {
+        buttonSaveQuiz.setEnabled(false);
         
-        // Sauvegarder chaque question
-        for (Question question : questions) {
-            FirestoreUtils.addQuestion(question, new FirestoreUtils.OnOperationCompleteListener() {
-                @Override
-                public void onSuccess() {
-                    savedCount[0]++;
-                    
-                    // Vérifier si toutes les questions ont été sauvegardées
-                    if (savedCount[0] >= questions.size()) {
-                        if (!hasError[0]) {
-                            // Toutes les questions ont été sauvegardées, enregistrer le quiz
-                            saveQuizToFirestore(quiz);
-                        } else {
-                            // Il y a eu une erreur lors de l'enregistrement des questions
-                            if (getContext() != null) {
-                                Toast.makeText(getContext(), 
-                                    "Erreur lors de l'enregistrement des questions: " + 
-                                    (lastError[0] != null ? lastError[0].getMessage() : "Erreur inconnue"), 
-                                    Toast.LENGTH_SHORT).show();
-                            }
-                        }
-                    }
-                }
-                
-                @Override
-                public void onError(Exception e) {
-                    savedCount[0]++;
-                    hasError[0] = true;
-                    lastError[0] = e;
-                    
-                    Log.e(TAG, "Erreur lors de l'enregistrement de la question", e);
-                    
-                    // Vérifier si toutes les questions ont été traitées
-                    if (savedCount[0] >= questions.size() && getContext() != null) {
-                        Toast.makeText(getContext(), 
-                            "Erreur lors de l'enregistrement des questions: " + e.getMessage(), 
-                            Toast.LENGTH_SHORT).show();
-                    }
-                }
-            });
-        }
-    }
-    
-    private void saveQuizToFirestore(Quiz quiz) {
-        FirestoreUtils.createQuiz(quiz, new FirestoreUtils.OnQuizCreatedListener() {
+        // Seules les questions modifiées depuis la dernière publication sont envoyées
+        QuizDraftStore publishedDraft = draft;
+        Map<String, Long> dirtyRevisions = publishedDraft != null ? publishedDraft.getDirtyRevisions() : null;
+        Set<String> changedQuestionIds = dirtyRevisions != null ? dirtyRevisions.keySet() : null;
+        List<String> removedQuestionIds = getRemovedQuestionIds(publishedDraft);
+        FirestoreUtils.OnQuizCreatedListener listener = new FirestoreUtils.OnQuizCreatedListener() {
             @Override
             public void onSuccess(String quizId) {
+                // Le quiz est publié : son brouillon n'est plus utile. Celui d'une modification est supprimé
+                // aussi, sinon il masquerait à la prochaine ouverture les versions publiées depuis.
+                if (publishedDraft != null) {
+                    publishedDraft.delete();
+                    if (draft == publishedDraft) draft = null;
+                }
                 if (getContext() == null) return;
+                buttonSaveQuiz.setEnabled(true);
                 
                 Toast.makeText(getContext(), "Quiz enregistré avec succès", Toast.LENGTH_SHORT).show();
                 
@@ -286,11 +386,38 @@ public class CreateQuizFragment extends Fragment {
             @Override
             public void onError(Exception e) {
                 if (getContext() == null) return;
+                buttonSaveQuiz.setEnabled(true);
                 
                 Log.e(TAG, "Erreur lors de l'enregistrement du quiz", e);
                 Toast.makeText(getContext(), "Erreur lors de l'enregistrement du quiz: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             }
-        });
+        };
+        
+        if (isEditing) {
+            // Seuls les champs modifiés ici sont fusionnés : le classement (et l'image, sauf nouvelle) sont conservés
+            FirestoreUtils.publishQuizEdits(quiz, questions, changedQuestionIds, removedQuestionIds, listener);
+        } else {
+            FirestoreUtils.publishQuiz(quiz, questions, changedQuestionIds, listener);
+        }
+    }
+    
+    /**
+     * Questions de la version publiée qui ne sont plus dans le quiz
+     */
+    private List<String> getRemovedQuestionIds(QuizDraftStore store) {
+        List<String> removed = new ArrayList<>();
+        String published = store != null ? store.getMeta(QuizDraftStore.META_PUBLISHED_QUESTION_IDS) : null;
+        if (TextUtils.isEmpty(published)) {
+            if (loadedQuiz != null && loadedQuiz.getQuestionIds() != null) {
+                removed.addAll(loadedQuiz.getQuestionIds());
+            }
+        } else {
+            removed.addAll(Arrays.asList(TextUtils.split(published, ",")));
+        }
+        for (Question question : questions) {
+            removed.remove(question.getId());
+        }
+        return removed;
     }
     
     private void updateQuestionCount() {
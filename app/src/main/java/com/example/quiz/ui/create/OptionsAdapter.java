@@ -1,6 +1,9 @@
 package com.example.quiz.ui.create;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
+import android.text.TextUtils;
 import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -17,48 +20,110 @@ import com.example.quiz.R;
 import java.util.List;
 
 /**
- * Adaptateur pour gérer les options lors de la création d'une question
+ * Adaptateur pour gérer les options lors de la création d'une question.
+ * Les options sont lues et modifiées dans un OptionsDraft : chaque ViewHolder a un seul TextWatcher,
+ * relié à l'ID de l'option affichée. Les saisies sont enregistrées aussitôt dans le brouillon
+ * et signalées à l'écran après une courte pause ; les ajouts, suppressions et déplacements sont signalés
+ * immédiatement, avec des notifications par position.
  */
 public class OptionsAdapter extends RecyclerView.Adapter<OptionsAdapter.OptionViewHolder> {
-    
-    private List<String> options;
-    private int correctAnswerIndex = 0;
-    private OnOptionSelectedListener onOptionSelectedListener;
-    private OnOptionRemovedListener onOptionRemovedListener;
-    
+    public static final long TEXT_CHANGE_DEBOUNCE_MS = 300;
+
+    // Mise à jour partielle : seuls le bouton radio et le bouton de suppression sont redessinés
+    private static final Object PAYLOAD_STATE = new Object();
+
+    private final OptionsDraft draft;
+    private final OnOptionsChangedListener onOptionsChangedListener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable pendingTextChange = this::dispatchOptionsChanged;
+    private boolean textChangePending = false;
+
     /**
-     * Interface pour gérer la sélection d'une option comme réponse correcte
+     * Interface pour être prévenu des modifications des options
      */
-    public interface OnOptionSelectedListener {
-        void onOptionSelected(int position);
+    public interface OnOptionsChangedListener {
+        void onOptionsChanged(List<String> options, int correctAnswerIndex);
     }
-    
+
     /**
-     * Interface pour gérer la suppression d'une option
+     * Constructeur
+     * @param draft Options en cours d'édition
+     * @param onOptionsChangedListener Listener pour les modifications (peut être null)
      */
-    public interface OnOptionRemovedListener {
-        void onOptionRemoved(int position);
+    public OptionsAdapter(OptionsDraft draft, OnOptionsChangedListener onOptionsChangedListener) {
+        this.draft = draft;
+        this.onOptionsChangedListener = onOptionsChangedListener;
+        setHasStableIds(true);
     }
-    
+
     /**
-     * Constructeur
-     * @param options Liste des options
-     * @param onOptionSelectedListener Listener pour la sélection d'une option
-     * @param onOptionRemovedListener Listener pour la suppression d'une option
+     * Ajoute une option vide à la fin de la liste
      */
-    public OptionsAdapter(List<String> options, OnOptionSelectedListener onOptionSelectedListener,
-                         OnOptionRemovedListener onOptionRemovedListener) {
-        this.options = options;
-        this.onOptionSelectedListener = onOptionSelectedListener;
-        this.onOptionRemovedListener = onOptionRemovedListener;
+    public void addOption() {
+        int previousSize = draft.size();
+        int position = draft.add("");
+        notifyItemInserted(position);
+        if (previousSize == 1) {
+            // La première option peut maintenant être supprimée
+            notifyItemChanged(0, PAYLOAD_STATE);
+        }
+        dispatchOptionsChanged();
+    }
+
+    public void removeOption(int position) {
+        int previousCorrect = draft.getCorrectAnswerIndex();
+        draft.remove(position);
+        notifyItemRemoved(position);
+        if (previousCorrect == position && draft.size() > 0) {
+            notifyItemChanged(draft.getCorrectAnswerIndex(), PAYLOAD_STATE);
+        }
+        if (draft.size() == 1) {
+            // Dernière option : plus de bouton de suppression
+            notifyItemChanged(0, PAYLOAD_STATE);
+        }
+        dispatchOptionsChanged();
+    }
+
+    public void moveOption(int fromPosition, int toPosition) {
+        draft.move(fromPosition, toPosition);
+        notifyItemMoved(fromPosition, toPosition);
+        dispatchOptionsChanged();
     }
-    
+
     /**
-     * Définir l'index de la réponse correcte
-     * @param index Index de la réponse correcte
+     * Définir la réponse correcte
+     * @param position Position de l'option correcte
      */
-    public void setCorrectAnswerIndex(int index) {
-        this.correctAnswerIndex = index;
+    public void setCorrectAnswer(int position) {
+        int previous = draft.getCorrectAnswerIndex();
+        if (previous == position) return;
+        draft.setCorrectAnswerIndex(position);
+        if (previous >= 0) notifyItemChanged(previous, PAYLOAD_STATE);
+        notifyItemChanged(position, PAYLOAD_STATE);
+        dispatchOptionsChanged();
+    }
+
+    /**
+     * Signale tout de suite une saisie encore en attente (avant d'enregistrer la question)
+     */
+    public void flushPendingChanges() {
+        if (textChangePending) {
+            dispatchOptionsChanged();
+        }
+    }
+
+    private void scheduleTextChange() {
+        textChangePending = true;
+        handler.removeCallbacks(pendingTextChange);
+        handler.postDelayed(pendingTextChange, TEXT_CHANGE_DEBOUNCE_MS);
+    }
+
+    private void dispatchOptionsChanged() {
+        textChangePending = false;
+        handler.removeCallbacks(pendingTextChange);
+        if (onOptionsChangedListener != null) {
+            onOptionsChangedListener.onOptionsChanged(draft.getTexts(), draft.getCorrectAnswerIndex());
+        }
     }
 
     @NonNull
@@ -70,15 +135,35 @@ public class OptionsAdapter extends RecyclerView.Adapter<OptionsAdapter.OptionVi
 
     @Override
     public void onBindViewHolder(@NonNull OptionViewHolder holder, int position) {
-        String option = options.get(position);
-        holder.bind(option, position);
+        holder.bind(draft.getId(position), draft.getText(position));
+        holder.bindState(position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull OptionViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.bindState(position);
+        }
     }
 
     @Override
     public int getItemCount() {
-        return options.size();
+        return draft.size();
     }
-    
+
+    @Override
+    public long getItemId(int position) {
+        return draft.getId(position);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        flushPendingChanges();
+    }
+
     /**
      * ViewHolder pour représenter une option
      */
@@ -86,55 +171,69 @@ public class OptionsAdapter extends RecyclerView.Adapter<OptionsAdapter.OptionVi
         private EditText editTextOption;
         private RadioButton radioButtonCorrect;
         private ImageButton buttonRemoveOption;
-        
+        private long optionId = OptionsDraft.NO_ID;
+        private boolean binding = false; // Ignore le setText() du bind
+
         public OptionViewHolder(@NonNull View itemView) {
             super(itemView);
             editTextOption = itemView.findViewById(R.id.editTextOption);
             radioButtonCorrect = itemView.findViewById(R.id.radioButtonCorrect);
             buttonRemoveOption = itemView.findViewById(R.id.buttonRemoveOption);
-        }
-        
-        /**
-         * Lier les données à la vue
-         * @param option Texte de l'option
-         * @param position Position dans la liste
-         */
-        public void bind(String option, final int position) {
-            // Définir le texte de l'option
-            editTextOption.setText(option);
-            
-            // Ajouter un TextWatcher pour mettre à jour la liste des options
+
+            // Un seul TextWatcher par ViewHolder, qui écrit dans l'option actuellement liée
             editTextOption.addTextChangedListener(new TextWatcher() {
                 @Override
                 public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-                
+
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {}
-                
+
                 @Override
                 public void afterTextChanged(Editable s) {
-                    options.set(position, s.toString());
+                    if (binding || optionId == OptionsDraft.NO_ID) return;
+                    if (draft.setText(optionId, s.toString())) {
+                        scheduleTextChange();
+                    }
                 }
             });
-            
-            // Vérifier si cette option est la réponse correcte
-            radioButtonCorrect.setChecked(position == correctAnswerIndex);
-            
-            // Configurer les listeners
+
+            // Position lue au moment du clic : elle change quand des options sont ajoutées ou déplacées
             radioButtonCorrect.setOnClickListener(v -> {
-                if (onOptionSelectedListener != null) {
-                    onOptionSelectedListener.onOptionSelected(position);
+                int position = getBindingAdapterPosition();
+                if (position != RecyclerView.NO_POSITION) {
+                    setCorrectAnswer(position);
                 }
             });
-            
+
             buttonRemoveOption.setOnClickListener(v -> {
-                if (onOptionRemovedListener != null) {
-                    onOptionRemovedListener.onOptionRemoved(position);
+                int position = getBindingAdapterPosition();
+                if (position != RecyclerView.NO_POSITION) {
+                    removeOption(position);
                 }
             });
-            
-            // Cacher le bouton de suppression si c'est la seule option
-            buttonRemoveOption.setVisibility(options.size() > 1 ? View.VISIBLE : View.GONE);
+        }
+
+        /**
+         * Lier l'option à la vue
+         * @param id ID stable de l'option
+         * @param text Texte de l'option
+         */
+        void bind(long id, String text) {
+            optionId = id;
+            // Texte inchangé (même option) : ne pas déplacer le curseur
+            if (!TextUtils.equals(editTextOption.getText(), text)) {
+                binding = true;
+                editTextOption.setText(text);
+                binding = false;
+            }
+        }
+
+        /**
+         * Bouton radio de la réponse correcte, et bouton de suppression caché s'il ne reste qu'une option
+         */
+        void bindState(int position) {
+            radioButtonCorrect.setChecked(position == draft.getCorrectAnswerIndex());
+            buttonRemoveOption.setVisibility(draft.size() > 1 ? View.VISIBLE : View.GONE);
         }
     }
-} 
\ No newline at end of file
+}
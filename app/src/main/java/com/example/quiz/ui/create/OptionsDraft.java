@@ -0,0 +1,123 @@
+package com.example.quiz.ui.create;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Options d'une question en cours d'édition. Chaque option a un ID stable : le texte saisi est rangé
+ * par ID (et non par position), et la bonne réponse suit son option quand la liste est réordonnée.
+ */
+public class OptionsDraft {
+    public static final long NO_ID = -1;
+
+    private static class Option {
+        final long id;
+        String text;
+
+        Option(long id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private final List<Option> options = new ArrayList<>();
+    private long nextId = 0;
+    private long correctOptionId = NO_ID;
+
+    /**
+     * Remplace toutes les options (chargement d'une question existante)
+     */
+    public void setAll(List<String> texts, int correctAnswerIndex) {
+        options.clear();
+        for (String text : texts) {
+            options.add(new Option(nextId++, text != null ? text : ""));
+        }
+        correctOptionId = correctAnswerIndex >= 0 && correctAnswerIndex < options.size()
+            ? options.get(correctAnswerIndex).id : NO_ID;
+        ensureCorrectOption();
+    }
+
+    /**
+     * Ajoute une option à la fin et renvoie sa position
+     */
+    public int add(String text) {
+        options.add(new Option(nextId++, text != null ? text : ""));
+        ensureCorrectOption();
+        return options.size() - 1;
+    }
+
+    /**
+     * Supprime l'option à cette position. Si c'était la bonne réponse, la première option le devient.
+     */
+    public void remove(int position) {
+        Option removed = options.remove(position);
+        if (removed.id == correctOptionId) {
+            correctOptionId = NO_ID;
+            ensureCorrectOption();
+        }
+    }
+
+    public void move(int fromPosition, int toPosition) {
+        options.add(toPosition, options.remove(fromPosition));
+    }
+
+    /**
+     * Enregistre le texte d'une option. Renvoie false si l'option n'existe plus ou si le texte est inchangé.
+     */
+    public boolean setText(long id, String text) {
+        int position = positionOf(id);
+        if (position < 0) return false;
+        Option option = options.get(position);
+        if (option.text.equals(text)) return false;
+        option.text = text;
+        return true;
+    }
+
+    public int size() {
+        return options.size();
+    }
+
+    public long getId(int position) {
+        return options.get(position).id;
+    }
+
+    public String getText(int position) {
+        return options.get(position).text;
+    }
+
+    /**
+     * Position actuelle d'une option, -1 si elle a été supprimée
+     */
+    public int positionOf(long id) {
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).id == id) return i;
+        }
+        return -1;
+    }
+
+    public int getCorrectAnswerIndex() {
+        return positionOf(correctOptionId);
+    }
+
+    public void setCorrectAnswerIndex(int position) {
+        correctOptionId = options.get(position).id;
+    }
+
+    /**
+     * Copie des textes, dans l'ordre affiché
+     */
+    public List<String> getTexts() {
+        List<String> texts = new ArrayList<>(options.size());
+        for (Option option : options) {
+            texts.add(option.text);
+        }
+        return texts;
+    }
+
+    // Une question a toujours une bonne réponse tant qu'elle a des options
+    private void ensureCorrectOption() {
+        if (correctOptionId == NO_ID && !options.isEmpty()) {
+            correctOptionId = options.get(0).id;
+        }
+    }
+}
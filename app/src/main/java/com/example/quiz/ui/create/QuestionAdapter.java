@@ -74,16 +74,18 @@ public class QuestionAdapter extends RecyclerView.Adapter<QuestionAdapter.Questi
             int optionsCount = question.getOptions() != null ? question.getOptions().size() : 0;
             textAnswerCount.setText(String.format("%d réponses", optionsCount));
             
-            // Gérer les clics sur les boutons
+            // Gérer les clics sur les boutons (position lue au clic : elle change après une suppression)
             buttonEditQuestion.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onEditQuestion(position);
+                int currentPosition = getBindingAdapterPosition();
+                if (listener != null && currentPosition != RecyclerView.NO_POSITION) {
+                    listener.onEditQuestion(currentPosition);
                 }
             });
             
             buttonDeleteQuestion.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onDeleteQuestion(position);
+                int currentPosition = getBindingAdapterPosition();
+                if (listener != null && currentPosition != RecyclerView.NO_POSITION) {
+                    listener.onDeleteQuestion(currentPosition);
                 }
             });
         }
@@ -1,6 +1,7 @@
 package com.example.quiz.ui.explore;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,10 +10,24 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.navigation.Navigation;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.quiz.R;
+import com.example.quiz.adapter.QuizAdapter;
+import com.example.quiz.data.QuizCache;
+import com.example.quiz.model.QuizSummary;
+import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.PagerScrollListener;
+import com.example.quiz.util.QuizPager;
 
 public class ExploreFragment extends Fragment {
+    private static final String TAG = "ExploreFragment";
+
+    private QuizPager pager;
+    private QuizAdapter adapter;
+    private TextView textEmpty;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -23,6 +38,75 @@ public class ExploreFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        // Placeholder pour le développement futur
+        textEmpty = view.findViewById(R.id.textExploreEmpty);
+
+        // Tous les quizzes, du plus récent au plus ancien, chargés page par page au défilement
+        pager = new QuizPager(FirestoreUtils.feedPageFetcher(QuizCache.Feed.RECENT, null));
+        adapter = new QuizAdapter(this::openQuiz);
+
+        RecyclerView recyclerView = view.findViewById(R.id.recyclerViewExplore);
+        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new PagerScrollListener(pager));
+
+        pager.setListener(new QuizPager.Listener() {
+            @Override
+            public void onItemRangeInserted(int position, int count) {
+                adapter.updateQuizzes(pager.getItems());
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int position, int count) {
+                adapter.updateQuizzes(pager.getItems());
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemRangeChanged(int position, int count) {
+                adapter.updateQuizzes(pager.getItems());
+            }
+
+            @Override
+            public void onItemMoved(int fromPosition, int toPosition) {
+                adapter.updateQuizzes(pager.getItems());
+            }
+
+            @Override
+            public void onDataSetChanged() {
+                adapter.updateQuizzes(pager.getItems());
+                updateEmptyState();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Erreur lors du chargement des quizzes", e);
+                if (getView() == null || !pager.getItems().isEmpty()) return;
+                // Liste vide : rien à faire défiler, le nouvel essai se fait en touchant le message
+                textEmpty.setText("Impossible de charger les quizzes. Touchez pour réessayer");
+                textEmpty.setOnClickListener(v -> pager.retry());
+                textEmpty.setVisibility(View.VISIBLE);
+            }
+        });
+
+        pager.refresh();
+    }
+
+    private void updateEmptyState() {
+        if (getView() == null) return;
+        boolean empty = pager.getItems().isEmpty() && pager.isEndReached();
+        textEmpty.setText("Aucun quiz à explorer");
+        textEmpty.setOnClickListener(null);
+        textEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+    }
+
+    private void openQuiz(QuizSummary quiz) {
+        try {
+            Bundle args = new Bundle();
+            args.putString("quizId", quiz.getId());
+            Navigation.findNavController(requireView()).navigate(R.id.quizDetailsFragment, args);
+        } catch (Exception e) {
+            Log.e(TAG, "Erreur lors de la navigation: " + e.getMessage());
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.example.quiz.ui.home;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.quiz.R;
+import com.example.quiz.adapter.QuizAdapter;
+import com.example.quiz.util.PagerScrollListener;
+import com.example.quiz.util.QuizPager;
+
+/**
+ * Listes horizontales de l'accueil : un seul RecycledViewPool pour toutes les listes (une carte sortie
+ * d'une liste sert à la suivante), un préchargement initial du nombre de cartes visibles,
+ * et quelques cartes inflatées à l'avance hors du thread principal pour le premier défilement.
+ */
+class HomeFeedRenderer {
+    private static final int CARD_VIEW_TYPE = 0; // Seul type de QuizAdapter
+    private static final int PREWARMED_CARDS_PER_LIST = 2; // Cartes entrant à l'écran au premier défilement
+
+    private final Context context;
+    private final RecyclerView.RecycledViewPool viewPool = new RecyclerView.RecycledViewPool();
+    private final int visibleCardCount;
+
+    HomeFeedRenderer(@NonNull Context context, int listCount) {
+        this.context = context;
+        this.visibleCardCount = computeVisibleCardCount(context.getResources());
+        // Assez de cartes pour les cartes préchargées et celles qui sortent de l'écran, dans toutes les listes
+        viewPool.setMaxRecycledViews(CARD_VIEW_TYPE, listCount * (visibleCardCount + PREWARMED_CARDS_PER_LIST));
+    }
+
+    /**
+     * Branche une liste horizontale sur un pager, avec le pool partagé
+     */
+    void attach(@NonNull RecyclerView recyclerView, @NonNull QuizAdapter adapter, @NonNull QuizPager pager) {
+        LinearLayoutManager layoutManager = new LinearLayoutManager(context, LinearLayoutManager.HORIZONTAL, false);
+        layoutManager.setInitialPrefetchItemCount(visibleCardCount);
+        layoutManager.setRecycleChildrenOnDetach(true); // Cartes rendues au pool partagé quand la liste est détachée
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setRecycledViewPool(viewPool);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new PagerScrollListener(pager));
+    }
+
+    /**
+     * Inflate quelques cartes avec AsyncLayoutInflater puis les place dans le pool partagé ;
+     * seule la création du ViewHolder (findViewById) reste sur le thread principal
+     */
+    void prewarm(@NonNull RecyclerView recyclerView, @NonNull QuizAdapter adapter) {
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(context);
+        for (int i = 0; i < PREWARMED_CARDS_PER_LIST; i++) {
+            inflater.inflate(R.layout.item_quiz, recyclerView, (view, resid, parent) -> {
+                if (parent == null || !recyclerView.isAttachedToWindow()) return;
+                adapter.addInflatedView(view);
+                viewPool.putRecycledView(adapter.createViewHolder(parent, CARD_VIEW_TYPE));
+            });
+        }
+    }
+
+    // Cartes (partiellement) visibles sur la largeur de l'écran, plus celle qui entre au premier défilement
+    private static int computeVisibleCardCount(Resources resources) {
+        int cardWidth = resources.getDimensionPixelSize(R.dimen.quiz_card_width)
+            + 2 * resources.getDimensionPixelSize(R.dimen.quiz_card_margin);
+        int screenWidth = resources.getDisplayMetrics().widthPixels;
+        return (screenWidth + cardWidth - 1) / cardWidth + 1;
+    }
+}
@@ -11,21 +11,21 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.quiz.R;
 import com.example.quiz.adapter.QuizAdapter;
 import com.example.quiz.model.Quiz;
+import com.example.quiz.model.QuizSummary;
 import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.QuizPager;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -41,14 +41,15 @@ public class HomeFragment extends Fragment {
     private QuizAdapter recentAdapter;
     private QuizAdapter popularAdapter;
     private QuizAdapter yourAdapter;
+    private HomeFeedRenderer feedRenderer;
     
-    private List<Quiz> recentQuizzes = new ArrayList<>();
-    private List<Quiz> popularQuizzes = new ArrayList<>();
-    private List<Quiz> yourQuizzes = new ArrayList<>();
+    // Listes paginées conservées par le ViewModel : une rotation ou un retour sur l'accueil ne relit rien
+    private HomeViewModel viewModel;
     
     private FirebaseAuth mAuth;
     private FirebaseFirestore db;
     private boolean useFirestore = true; // Activé par défaut
+    private boolean useLiveFeeds = true; // Premières pages mises à jour en temps réel
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
@@ -64,6 +65,11 @@ public class HomeFragment extends Fragment {
         mAuth = FirebaseAuth.getInstance();
         db = FirebaseFirestore.getInstance();
         
+        FirebaseUser currentUser = mAuth.getCurrentUser();
+        viewModel = new ViewModelProvider(this).get(HomeViewModel.class);
+        viewModel.setLiveFeeds(useLiveFeeds);
+        viewModel.setUserId(currentUser != null ? currentUser.getUid() : null);
+        
         // Configurer les RecyclerViews
         setupRecyclerViews(view);
         
@@ -90,302 +96,170 @@ public class HomeFragment extends Fragment {
             });
         }
         
-        // Charger les données
-        loadData();
+        // Données de démo, ou de Firestore (relues par le ViewModel dans onStart si elles sont trop anciennes)
+        if (!useFirestore) {
+            loadLocalData();
+        } else if (currentUser == null) {
+            // Utilisateur non connecté, afficher des données de démo
+            viewModel.getYours().getPager().showPlaceholder(Collections.singletonList(createDemoQuiz(
+                "Connectez-vous pour voir vos quizzes",
+                "Créez un compte pour enregistrer vos quizzes et suivre votre progression")));
+        }
+    }
+    
+    @Override
+    public void onStart() {
+        super.onStart();
+        if (useFirestore) {
+            viewModel.onScreenStarted();
+        }
+    }
+    
+    @Override
+    public void onStop() {
+        super.onStop();
+        viewModel.onScreenStopped(requireActivity().isChangingConfigurations());
     }
     
     private void setupRecyclerViews(View view) {
+        // Un seul pool de cartes pour les trois listes
+        feedRenderer = new HomeFeedRenderer(requireContext(), 3);
+        
         // RecyclerView des quizzes récents
         recyclerViewRecent = view.findViewById(R.id.recyclerViewRecent);
-        recyclerViewRecent.setLayoutManager(new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false));
-        recentAdapter = new QuizAdapter(recentQuizzes, quiz -> {
-            // Gestion du clic sur un quiz
-            Log.d(TAG, "Quiz sélectionné: " + quiz.getTitle());
-            
-            // Naviguer vers le détail du quiz (si l'action existe)
-            try {
-                NavController navController = Navigation.findNavController(requireView());
-                Bundle args = new Bundle();
-                args.putString("quizId", quiz.getId());
-                // navController.navigate(R.id.action_home_to_quiz_details, args);
-                // Pour l'instant, juste afficher un message
-                Toast.makeText(getContext(), "Quiz sélectionné: " + quiz.getTitle(), Toast.LENGTH_SHORT).show();
-            } catch (Exception e) {
-                Log.e(TAG, "Erreur lors de la navigation: " + e.getMessage());
+        recentAdapter = setupPagedList(recyclerViewRecent, viewModel.getRecent(), "récents", new FeedPlaceholders() {
+            @Override
+            List<QuizSummary> emptyPlaceholder() {
+                return createDemoQuizzes();
             }
         });
-        recyclerViewRecent.setAdapter(recentAdapter);
         
         // RecyclerView des quizzes populaires
         recyclerViewPopular = view.findViewById(R.id.recyclerViewPopular);
-        recyclerViewPopular.setLayoutManager(new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false));
-        popularAdapter = new QuizAdapter(popularQuizzes, quiz -> {
-            // Gestion du clic sur un quiz
-            Log.d(TAG, "Quiz sélectionné: " + quiz.getTitle());
-            Toast.makeText(getContext(), "Quiz sélectionné: " + quiz.getTitle(), Toast.LENGTH_SHORT).show();
+        popularAdapter = setupPagedList(recyclerViewPopular, viewModel.getPopular(), "populaires", new FeedPlaceholders() {
+            @Override
+            List<QuizSummary> emptyPlaceholder() {
+                // Inverser l'ordre pour avoir des données différentes des quizzes récents
+                List<QuizSummary> demoQuizzes = createDemoQuizzes();
+                Collections.reverse(demoQuizzes);
+                return demoQuizzes;
+            }
         });
-        recyclerViewPopular.setAdapter(popularAdapter);
         
         // RecyclerView de vos quizzes
         recyclerViewYours = view.findViewById(R.id.recyclerViewYours);
-        recyclerViewYours.setLayoutManager(new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false));
-        yourAdapter = new QuizAdapter(yourQuizzes, quiz -> {
-            // Gestion du clic sur un quiz
-            Log.d(TAG, "Quiz sélectionné: " + quiz.getTitle());
-            Toast.makeText(getContext(), "Quiz sélectionné: " + quiz.getTitle(), Toast.LENGTH_SHORT).show();
+        yourAdapter = setupPagedList(recyclerViewYours, viewModel.getYours(), "de l'utilisateur", new FeedPlaceholders() {
+            @Override
+            List<QuizSummary> emptyPlaceholder() {
+                return Collections.singletonList(createDemoQuiz("Vous n'avez pas encore créé de quiz", 
+                    "Appuyez sur le bouton + pour créer votre premier quiz"));
+            }
+            
+            @Override
+            List<QuizSummary> errorPlaceholder() {
+                return Collections.singletonList(createDemoQuiz("Erreur de chargement", 
+                    "Impossible de charger vos quizzes pour le moment"));
+            }
         });
-        recyclerViewYours.setAdapter(yourAdapter);
+        
+        // Cartes inflatées en arrière-plan pendant le chargement des premières pages
+        feedRenderer.prewarm(recyclerViewRecent, recentAdapter);
+        feedRenderer.prewarm(recyclerViewPopular, popularAdapter);
+        feedRenderer.prewarm(recyclerViewYours, yourAdapter);
     }
     
-    private void loadData() {
-        // Vérifier si on utilise Firestore ou les données locales
-        if (useFirestore) {
-            // Charger depuis Firestore avec fallback sur données locales
-            loadFirestoreData();
-        } else {
-            // Utiliser uniquement les données locales
-            loadLocalData();
+    /**
+     * Branche une RecyclerView horizontale sur une liste du ViewModel (voir HomeFeedRenderer) : chaque changement
+     * soumet une copie des éléments à l'adaptateur, qui ne redessine que les cartes modifiées.
+     * Après une rotation, la dernière copie est renvoyée aussitôt à la nouvelle vue.
+     */
+    private QuizAdapter setupPagedList(RecyclerView recyclerView, HomeViewModel.Feed feed, String feedName,
+                                       FeedPlaceholders placeholders) {
+        QuizAdapter adapter = new QuizAdapter(this::openQuiz);
+        QuizPager pager = feed.getPager();
+        feedRenderer.attach(recyclerView, adapter, pager);
+        
+        feed.getItems().observe(getViewLifecycleOwner(), items -> {
+            adapter.updateQuizzes(items);
+            if (items.isEmpty() && pager.isEndReached()) {
+                pager.showPlaceholder(placeholders.emptyPlaceholder());
+            }
+        });
+        feed.getError().observe(getViewLifecycleOwner(), e -> {
+            if (e == null) return;
+            Log.w(TAG, "Erreur lors du chargement des quizzes " + feedName, e);
+            
+            // Conserver ce qui est affiché (cache, pages déjà chargées), sinon afficher des données de démo
+            if (pager.getItems().isEmpty()) {
+                pager.showPlaceholder(placeholders.errorPlaceholder());
+            }
+        });
+        return adapter;
+    }
+    
+    /**
+     * Données de démo affichées quand une liste est vide ou n'a pas pu être chargée
+     */
+    private abstract static class FeedPlaceholders {
+        abstract List<QuizSummary> emptyPlaceholder();
+        
+        List<QuizSummary> errorPlaceholder() {
+            return emptyPlaceholder();
+        }
+    }
+    
+    /**
+     * Ouvre le détail d'un quiz : c'est seulement là que le quiz complet et ses questions sont chargés
+     */
+    private void openQuiz(QuizSummary quiz) {
+        Log.d(TAG, "Quiz sélectionné: " + quiz.getTitle());
+        
+        // Les quizzes de démonstration n'existent pas dans Firestore
+        if (quiz.getId() == null || quiz.getId().startsWith("demo")) {
+            Toast.makeText(getContext(), "Quiz sélectionné: " + quiz.getTitle(), Toast.LENGTH_SHORT).show();
+            return;
+        }
+        
+        try {
+            NavController navController = Navigation.findNavController(requireView());
+            Bundle args = new Bundle();
+            args.putString("quizId", quiz.getId());
+            navController.navigate(R.id.action_home_to_quiz_details, args);
+        } catch (Exception e) {
+            Log.e(TAG, "Erreur lors de la navigation: " + e.getMessage());
         }
     }
     
     private void loadLocalData() {
         // Charger les quizzes récents
-        recentQuizzes.clear();
-        recentQuizzes.addAll(createDemoQuizzes());
-        recentAdapter.notifyDataSetChanged();
+        viewModel.getRecent().getPager().showPlaceholder(createDemoQuizzes());
         
         // Charger les quizzes populaires (mêmes données mais ordre différent)
-        popularQuizzes.clear();
-        List<Quiz> demoPop = createDemoQuizzes();
+        List<QuizSummary> demoPop = createDemoQuizzes();
         Collections.reverse(demoPop); // Inverser l'ordre pour simuler un tri différent
-        popularQuizzes.addAll(demoPop);
-        popularAdapter.notifyDataSetChanged();
+        viewModel.getPopular().getPager().showPlaceholder(demoPop);
         
         // Charger vos quizzes
-        yourQuizzes.clear();
-        yourQuizzes.add(createDemoQuiz(
+        viewModel.getYours().getPager().showPlaceholder(Collections.singletonList(createDemoQuiz(
             "Créez votre premier quiz", 
-            "Appuyez sur le bouton + pour commencer à créer vos propres quiz"));
-        yourAdapter.notifyDataSetChanged();
-    }
-    
-    private void loadFirestoreData() {
-        // Vérifier si l'utilisateur est connecté
-        FirebaseUser currentUser = mAuth.getCurrentUser();
-        String userId = currentUser != null ? currentUser.getUid() : null;
-        
-        // Charger les quizzes récents avec timeout pour éviter de bloquer l'UI
-        loadRecentQuizzes();
-        
-        // Charger les quizzes populaires avec timeout
-        loadPopularQuizzes();
-        
-        // Charger vos quizzes si l'utilisateur est connecté
-        if (userId != null) {
-            loadYourQuizzes(userId);
-        } else {
-            // Utilisateur non connecté, afficher des données de démo
-            yourQuizzes.clear();
-            yourQuizzes.add(createDemoQuiz("Connectez-vous pour voir vos quizzes", 
-                "Créez un compte pour enregistrer vos quizzes et suivre votre progression"));
-            yourAdapter.notifyDataSetChanged();
-        }
-    }
-    
-    private void loadRecentQuizzes() {
-        try {
-            db.collection("quizzes")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .limit(10)
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        recentQuizzes.clear();
-                        for (DocumentSnapshot document : task.getResult()) {
-                            try {
-                                Quiz quiz = documentToQuiz(document);
-                                if (quiz != null) {
-                                    recentQuizzes.add(quiz);
-                                    
-                                    // Charger les questions pour ce quiz
-                                    loadQuestionsForQuiz(quiz);
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Erreur lors de la conversion du document: " + e.getMessage());
-                            }
-                        }
-                        
-                        // Si aucun quiz n'est trouvé, afficher des données de démo
-                        if (recentQuizzes.isEmpty()) {
-                            recentQuizzes.addAll(createDemoQuizzes());
-                        }
-                        
-                        recentAdapter.notifyDataSetChanged();
-                    } else {
-                        Log.w(TAG, "Erreur lors du chargement des quizzes récents", task.getException());
-                        // En cas d'erreur, afficher des données de démo
-                        recentQuizzes.clear();
-                        recentQuizzes.addAll(createDemoQuizzes());
-                        recentAdapter.notifyDataSetChanged();
-                    }
-                });
-        } catch (Exception e) {
-            Log.e(TAG, "Exception lors du chargement des quizzes récents: " + e.getMessage());
-            // En cas d'erreur, afficher des données de démo
-            recentQuizzes.clear();
-            recentQuizzes.addAll(createDemoQuizzes());
-            recentAdapter.notifyDataSetChanged();
-        }
+            "Appuyez sur le bouton + pour commencer à créer vos propres quiz")));
     }
     
-    private void loadQuestionsForQuiz(Quiz quiz) {
-        FirestoreUtils.loadQuestionsForQuiz(quiz, new FirestoreUtils.OnQuestionsLoadedListener() {
+    private void migrateQuizImages() {
+        FirestoreUtils.migrateQuizImages(new FirestoreUtils.OnOperationCompleteListener() {
             @Override
-            public void onQuestionsLoaded(List<com.example.quiz.model.Question> questions) {
-                // Mettre à jour l'adapter pour refléter le nombre de questions chargées
-                recentAdapter.notifyDataSetChanged();
-                popularAdapter.notifyDataSetChanged();
-                yourAdapter.notifyDataSetChanged();
+            public void onSuccess() {
+                viewModel.refresh();
             }
             
             @Override
             public void onError(Exception e) {
-                Log.e(TAG, "Erreur lors du chargement des questions pour le quiz " + quiz.getId(), e);
+                Log.e(TAG, "Erreur lors de la migration des images de quiz", e);
+                viewModel.refresh();
             }
         });
     }
     
-    private void loadPopularQuizzes() {
-        try {
-            db.collection("quizzes")
-                .orderBy("playCount", Query.Direction.DESCENDING)
-                .limit(10)
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        popularQuizzes.clear();
-                        for (DocumentSnapshot document : task.getResult()) {
-                            try {
-                                Quiz quiz = documentToQuiz(document);
-                                if (quiz != null) {
-                                    popularQuizzes.add(quiz);
-                                    
-                                    // Charger les questions pour ce quiz
-                                    loadQuestionsForQuiz(quiz);
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Erreur lors de la conversion du document: " + e.getMessage());
-                            }
-                        }
-                        
-                        // Si aucun quiz n'est trouvé, afficher des données de démo
-                        if (popularQuizzes.isEmpty()) {
-                            popularQuizzes.addAll(createDemoQuizzes());
-                            // Inverser l'ordre pour avoir des données différentes des quizzes récents
-                            Collections.reverse(popularQuizzes);
-                        }
-                        
-                        popularAdapter.notifyDataSetChanged();
-                    } else {
-                        Log.w(TAG, "Erreur lors du chargement des quizzes populaires", task.getException());
-                        // En cas d'erreur, afficher des données de démo
-                        popularQuizzes.clear();
-                        List<Quiz> demoQuizzes = createDemoQuizzes();
-                        Collections.reverse(demoQuizzes);
-                        popularQuizzes.addAll(demoQuizzes);
-                        popularAdapter.notifyDataSetChanged();
-                    }
-                });
-        } catch (Exception e) {
-            Log.e(TAG, "Exception lors du chargement des quizzes populaires: " + e.getMessage());
-            // En cas d'erreur, afficher des données de démo
-            popularQuizzes.clear();
-            List<Quiz> demoQuizzes = createDemoQuizzes();
-            Collections.reverse(demoQuizzes);
-            popularQuizzes.addAll(demoQuizzes);
-            popularAdapter.notifyDataSetChanged();
-        }
-    }
-    
-    private void loadYourQuizzes(String userId) {
-        try {
-            db.collection("quizzes")
-                .whereEqualTo("authorId", userId)
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        yourQuizzes.clear();
-                        for (DocumentSnapshot document : task.getResult()) {
-                            try {
-                                Quiz quiz = documentToQuiz(document);
-                                if (quiz != null) {
-                                    yourQuizzes.add(quiz);
-                                    
-                                    // Charger les questions pour ce quiz
-                                    loadQuestionsForQuiz(quiz);
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Erreur lors de la conversion du document: " + e.getMessage());
-                            }
-                        }
-                        
-                        // Si aucun quiz n'est trouvé, afficher un message
-                        if (yourQuizzes.isEmpty()) {
-                            yourQuizzes.add(createDemoQuiz("Vous n'avez pas encore créé de quiz", 
-                                "Appuyez sur le bouton + pour créer votre premier quiz"));
-                        }
-                        
-                        yourAdapter.notifyDataSetChanged();
-                    } else {
-                        Log.w(TAG, "Erreur lors du chargement de vos quizzes", task.getException());
-                        // En cas d'erreur, afficher un message
-                        yourQuizzes.clear();
-                        yourQuizzes.add(createDemoQuiz("Erreur de chargement", 
-                            "Impossible de charger vos quizzes pour le moment"));
-                        yourAdapter.notifyDataSetChanged();
-                    }
-                });
-        } catch (Exception e) {
-            Log.e(TAG, "Exception lors du chargement de vos quizzes: " + e.getMessage());
-            // En cas d'erreur, afficher un message
-            yourQuizzes.clear();
-            yourQuizzes.add(createDemoQuiz("Erreur de chargement", 
-                "Impossible de charger vos quizzes pour le moment"));
-            yourAdapter.notifyDataSetChanged();
-        }
-    }
-    
-    private Quiz documentToQuiz(DocumentSnapshot document) {
-        try {
-            String id = document.getId();
-            String title = document.getString("title");
-            String description = document.getString("description");
-            String imageUrl = document.getString("imageUrl");
-            String authorId = document.getString("authorId");
-            String authorName = document.getString("authorName");
-            long playCount = document.getLong("playCount") != null ? document.getLong("playCount") : 0;
-            double rating = document.getDouble("rating") != null ? document.getDouble("rating") : 0.0;
-            long createdAt = document.getLong("createdAt") != null ? document.getLong("createdAt") : System.currentTimeMillis();
-            
-            Quiz quiz = new Quiz(id, title, description, imageUrl, authorId, authorName);
-            quiz.setPlayCount((int) playCount);
-            quiz.setRating(rating);
-            quiz.setCreatedAt(createdAt);
-            
-            // Récupérer la liste des IDs de questions
-            List<String> questionIds = (List<String>) document.get("questionIds");
-            if (questionIds != null) {
-                quiz.setQuestionIds(questionIds);
-            }
-            
-            return quiz;
-        } catch (Exception e) {
-            Log.e(TAG, "Erreur lors de la conversion du document en quiz", e);
-            return null;
-        }
-    }
-    
     private void syncDemoQuestionsToFirestore() {
         if (getContext() == null) return;
         
@@ -397,8 +271,19 @@ public class HomeFragment extends Fragment {
                 if (getContext() == null) return;
                 Toast.makeText(getContext(), "Questions de démonstration synchronisées avec succès!", Toast.LENGTH_SHORT).show();
                 
-                // Recharger les données
-                loadData();
+                // Créer les résumés manquants des quizzes existants, séparer leurs images, puis recharger les données
+                FirestoreUtils.rebuildQuizSummaries(new FirestoreUtils.OnOperationCompleteListener() {
+                    @Override
+                    public void onSuccess() {
+                        migrateQuizImages();
+                    }
+                    
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Erreur lors de la reconstruction des résumés", e);
+                        migrateQuizImages();
+                    }
+                });
             }
             
             @Override
@@ -410,8 +295,8 @@ public class HomeFragment extends Fragment {
         });
     }
     
-    private List<Quiz> createDemoQuizzes() {
-        List<Quiz> demoQuizzes = new ArrayList<>();
+    private List<QuizSummary> createDemoQuizzes() {
+        List<QuizSummary> demoQuizzes = new ArrayList<>();
         
         Quiz quiz1 = new Quiz(
             "demo1",
@@ -423,7 +308,7 @@ public class HomeFragment extends Fragment {
         );
         quiz1.setPlayCount(120);
         quiz1.setRating(4.5);
-        demoQuizzes.add(quiz1);
+        demoQuizzes.add(QuizSummary.fromQuiz(quiz1));
         
         Quiz quiz2 = new Quiz(
             "demo2",
@@ -435,7 +320,7 @@ public class HomeFragment extends Fragment {
         );
         quiz2.setPlayCount(85);
         quiz2.setRating(4.2);
-        demoQuizzes.add(quiz2);
+        demoQuizzes.add(QuizSummary.fromQuiz(quiz2));
         
         Quiz quiz3 = new Quiz(
             "demo3",
@@ -447,7 +332,7 @@ public class HomeFragment extends Fragment {
         );
         quiz3.setPlayCount(210);
         quiz3.setRating(4.7);
-        demoQuizzes.add(quiz3);
+        demoQuizzes.add(QuizSummary.fromQuiz(quiz3));
         
         Quiz quiz4 = new Quiz(
             "demo4",
@@ -459,7 +344,7 @@ public class HomeFragment extends Fragment {
         );
         quiz4.setPlayCount(98);
         quiz4.setRating(4.3);
-        demoQuizzes.add(quiz4);
+        demoQuizzes.add(QuizSummary.fromQuiz(quiz4));
         
         Quiz quiz5 = new Quiz(
             "demo5",
@@ -471,19 +356,19 @@ public class HomeFragment extends Fragment {
         );
         quiz5.setPlayCount(156);
         quiz5.setRating(4.6);
-        demoQuizzes.add(quiz5);
+        demoQuizzes.add(QuizSummary.fromQuiz(quiz5));
         
         return demoQuizzes;
     }
     
-    private Quiz createDemoQuiz(String title, String description) {
-        return new Quiz(
+    private QuizSummary createDemoQuiz(String title, String description) {
+        return QuizSummary.fromQuiz(new Quiz(
             "demo",
             title,
             description,
             null,
             "system",
             "Quiz Système"
-        );
+        ));
     }
 } 
\ No newline at end of file
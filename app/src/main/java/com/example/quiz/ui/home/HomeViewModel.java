@@ -0,0 +1,302 @@
+package com.example.quiz.ui.home;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.example.quiz.data.QuizCache;
+import com.example.quiz.model.QuizSummary;
+import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.QuizPager;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * État de l'accueil (listes récents, populaires et "vos quizzes"), conservé lors d'une rotation ou d'un retour
+ * sur l'accueil. Les écouteurs temps réel restent attachés pendant une rotation ; quand l'accueil est quitté,
+ * ils sont retirés et les listes ne sont relues (écouteur ou lecture ponctuelle) que si elles sont plus
+ * anciennes que la fenêtre de fraîcheur : revenir sur l'accueil dans cette fenêtre réaffiche les listes
+ * sans aucune lecture.
+ */
+public class HomeViewModel extends ViewModel {
+    public static final long DEFAULT_STALENESS_WINDOW_MS = 5 * 60 * 1000L;
+
+    /**
+     * Origine des listes (Firestore en production)
+     */
+    public interface FeedSource {
+        QuizPager.PageFetcher pageFetcher(QuizCache.Feed type, String authorId);
+        ListenerRegistration listen(QuizCache.Feed type, String authorId, int limit,
+                                    FirestoreUtils.OnQuizFeedChangesListener listener);
+    }
+
+    private static final FeedSource FIRESTORE_SOURCE = new FeedSource() {
+        @Override
+        public QuizPager.PageFetcher pageFetcher(QuizCache.Feed type, String authorId) {
+            return FirestoreUtils.feedPageFetcher(type, authorId);
+        }
+
+        @Override
+        public ListenerRegistration listen(QuizCache.Feed type, String authorId, int limit,
+                                           FirestoreUtils.OnQuizFeedChangesListener listener) {
+            return FirestoreUtils.listenToQuizFeed(type, authorId, limit, listener);
+        }
+    };
+
+    /**
+     * Une liste de l'accueil : son pager et les éléments à afficher, publiés à chaque changement du pager
+     */
+    public static class Feed implements QuizPager.Listener {
+        private final QuizCache.Feed type;
+        private final String authorId;
+        private final QuizPager pager;
+        private final MutableLiveData<List<QuizSummary>> items = new MutableLiveData<>();
+        private final MutableLiveData<Exception> error = new MutableLiveData<>();
+        private ListenerRegistration registration;
+        private long updatedAt = 0; // Dernière donnée reçue de Firestore (horloge SystemClock), 0 si jamais
+
+        Feed(QuizCache.Feed type, String authorId, FeedSource source) {
+            this.type = type;
+            this.authorId = authorId;
+            this.pager = new QuizPager(source.pageFetcher(type, authorId));
+            pager.setListener(this);
+        }
+
+        public QuizPager getPager() {
+            return pager;
+        }
+
+        /**
+         * Copie des éléments du pager après chaque changement
+         */
+        public LiveData<List<QuizSummary>> getItems() {
+            return items;
+        }
+
+        /**
+         * Dernière erreur de chargement (null après un chargement réussi)
+         */
+        public LiveData<Exception> getError() {
+            return error;
+        }
+
+        private void publish() {
+            // Une page reçue (et non un contenu provisoire) rafraîchit la liste
+            if (pager.getLoadedPageCount() > 0) {
+                updatedAt = SystemClock.elapsedRealtime();
+                error.setValue(null);
+            }
+            items.setValue(new ArrayList<>(pager.getItems()));
+        }
+
+        @Override
+        public void onItemRangeInserted(int position, int count) {
+            publish();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int position, int count) {
+            publish();
+        }
+
+        @Override
+        public void onItemRangeChanged(int position, int count) {
+            publish();
+        }
+
+        @Override
+        public void onItemMoved(int fromPosition, int toPosition) {
+            publish();
+        }
+
+        @Override
+        public void onDataSetChanged() {
+            publish();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error.setValue(e);
+        }
+
+        private void stopListening() {
+            if (registration != null) {
+                // À jour jusqu'ici : la fenêtre de fraîcheur part de l'arrêt de l'écoute
+                if (pager.getLoadedPageCount() > 0) updatedAt = SystemClock.elapsedRealtime();
+                registration.remove();
+                registration = null;
+            }
+        }
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable staleRefresh = this::refreshStaleFeeds;
+    private final FeedSource source;
+    private final Feed recent;
+    private final Feed popular;
+    private Feed yours;
+    private String userId;
+    private long stalenessWindowMs = DEFAULT_STALENESS_WINDOW_MS;
+    private boolean liveFeeds = true;
+    private boolean active = false;
+
+    public HomeViewModel() {
+        this(FIRESTORE_SOURCE);
+    }
+
+    HomeViewModel(FeedSource source) {
+        this.source = source;
+        recent = new Feed(QuizCache.Feed.RECENT, null, source);
+        popular = new Feed(QuizCache.Feed.POPULAR, null, source);
+        yours = new Feed(QuizCache.Feed.AUTHOR, null, source);
+    }
+
+    public Feed getRecent() {
+        return recent;
+    }
+
+    public Feed getPopular() {
+        return popular;
+    }
+
+    /**
+     * Liste des quizzes de l'utilisateur, jamais chargée s'il n'est pas connecté
+     */
+    public Feed getYours() {
+        return yours;
+    }
+
+    /**
+     * Utilisateur courant (null si non connecté) : si l'utilisateur a changé, sa liste est recréée.
+     * À appeler avant d'observer getYours().
+     */
+    public void setUserId(String userId) {
+        if (userId == null ? this.userId == null : userId.equals(this.userId)) return;
+        this.userId = userId;
+        yours.stopListening();
+        yours = new Feed(QuizCache.Feed.AUTHOR, userId, source);
+        if (active) refreshStaleFeeds();
+    }
+
+    public void setStalenessWindowMs(long stalenessWindowMs) {
+        this.stalenessWindowMs = stalenessWindowMs;
+    }
+
+    /**
+     * Écouteurs temps réel sur les premières pages (par défaut), ou lectures ponctuelles
+     */
+    public void setLiveFeeds(boolean liveFeeds) {
+        this.liveFeeds = liveFeeds;
+    }
+
+    /**
+     * Accueil visible (onStart) : relit les listes trop anciennes (écouteur ou lecture ponctuelle), et programme
+     * la relecture des autres à l'expiration de leur fenêtre de fraîcheur. Les écouteurs gardés pendant
+     * une rotation ne sont pas rattachés.
+     */
+    public void onScreenStarted() {
+        active = true;
+        refreshStaleFeeds();
+    }
+
+    /**
+     * Accueil masqué (onStop) : plus de relecture programmée ; les listes restent en mémoire.
+     * Les écouteurs sont retirés, sauf pendant un changement de configuration (rotation, thème...)
+     * où l'accueil réapparaît aussitôt : ils sont gardés jusqu'à onCleared().
+     */
+    public void onScreenStopped(boolean changingConfigurations) {
+        active = false;
+        handler.removeCallbacks(staleRefresh);
+        if (changingConfigurations) return;
+        for (Feed feed : feeds()) {
+            feed.stopListening();
+        }
+    }
+
+    /**
+     * Relit toutes les listes, même récentes (ex. après une synchronisation des données)
+     */
+    public void refresh() {
+        for (Feed feed : feeds()) {
+            feed.stopListening();
+            feed.updatedAt = 0;
+        }
+        if (active) refreshStaleFeeds();
+    }
+
+    private void refreshStaleFeeds() {
+        handler.removeCallbacks(staleRefresh);
+        long now = SystemClock.elapsedRealtime();
+        long nextExpiry = Long.MAX_VALUE;
+        for (Feed feed : feeds()) {
+            if (feed.registration != null) continue; // Déjà à jour en temps réel
+            long age = now - feed.updatedAt;
+            if (feed.updatedAt == 0 || age >= stalenessWindowMs) {
+                load(feed);
+            } else {
+                nextExpiry = Math.min(nextExpiry, stalenessWindowMs - age);
+            }
+        }
+        if (nextExpiry != Long.MAX_VALUE) {
+            handler.postDelayed(staleRefresh, nextExpiry);
+        }
+    }
+
+    /**
+     * Affiche la première page en cache si la liste est vide, puis relit la liste (écouteur ou lecture ponctuelle)
+     */
+    private void load(Feed feed) {
+        QuizCache cache = QuizCache.getInstance();
+        if (cache != null && feed.updatedAt == 0) {
+            cache.readFeed(feed.type, feed.authorId, QuizPager.DEFAULT_PAGE_SIZE, cached -> {
+                // Ignoré si la première page réseau est déjà arrivée
+                if (cached.isEmpty() || feed.pager.getLoadedPageCount() > 0) return;
+                feed.pager.showPlaceholder(cached);
+            });
+        }
+
+        if (!liveFeeds) {
+            feed.pager.refresh();
+            return;
+        }
+        feed.registration = source.listen(feed.type, feed.authorId, QuizPager.DEFAULT_PAGE_SIZE,
+            new FirestoreUtils.OnQuizFeedChangesListener() {
+                @Override
+                public void onFirstSnapshot(List<QuizSummary> summaries, DocumentSnapshot lastDocument) {
+                    feed.pager.setFirstPage(summaries, lastDocument);
+                }
+
+                @Override
+                public void onChanges(List<QuizPager.LiveChange> changes, DocumentSnapshot lastDocument) {
+                    feed.pager.applyFirstPageChanges(changes, lastDocument);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    // Retomber sur une lecture ponctuelle
+                    feed.stopListening();
+                    feed.pager.refresh();
+                }
+            });
+    }
+
+    private List<Feed> feeds() {
+        List<Feed> feeds = new ArrayList<>(3);
+        feeds.add(recent);
+        feeds.add(popular);
+        if (userId != null) feeds.add(yours);
+        return feeds;
+    }
+
+    @Override
+    protected void onCleared() {
+        onScreenStopped(false);
+    }
+}
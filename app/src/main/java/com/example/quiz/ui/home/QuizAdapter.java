@@ -7,31 +7,37 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.quiz.R;
-import com.example.quiz.model.Quiz;
+import com.example.quiz.adapter.QuizSummaryDiffCallback;
+import com.example.quiz.model.QuizSummary;
+import com.example.quiz.util.MediaReference;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder> {
+public class QuizAdapter extends ListAdapter<QuizSummary, QuizAdapter.QuizViewHolder> {
 
-    private List<Quiz> quizzes;
     private final OnQuizClickListener listener;
 
     public interface OnQuizClickListener {
-        void onQuizClick(Quiz quiz);
+        void onQuizClick(QuizSummary quiz);
     }
 
-    public QuizAdapter(List<Quiz> quizzes, OnQuizClickListener listener) {
-        this.quizzes = quizzes;
+    public QuizAdapter(OnQuizClickListener listener) {
+        super(QuizSummaryDiffCallback.INSTANCE);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
-    public void updateQuizzes(List<Quiz> newQuizzes) {
-        this.quizzes = newQuizzes;
-        notifyDataSetChanged();
+    /**
+     * Compare la nouvelle liste à l'ancienne en arrière-plan : seules les cartes modifiées sont redessinées
+     */
+    public void updateQuizzes(List<QuizSummary> newQuizzes) {
+        submitList(new ArrayList<>(newQuizzes));
     }
 
     @NonNull
@@ -44,13 +50,19 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull QuizViewHolder holder, int position) {
-        Quiz quiz = quizzes.get(position);
+        QuizSummary quiz = getItem(position);
         holder.bind(quiz, listener);
     }
 
     @Override
-    public int getItemCount() {
-        return quizzes.size();
+    public long getItemId(int position) {
+        return QuizSummaryDiffCallback.stableId(getItem(position).getId());
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull QuizViewHolder holder) {
+        super.onViewRecycled(holder);
+        Glide.with(holder.imageQuiz).clear(holder.imageQuiz);
     }
 
     static class QuizViewHolder extends RecyclerView.ViewHolder {
@@ -69,19 +81,20 @@ public class QuizAdapter extends RecyclerView.Adapter<QuizAdapter.QuizViewHolder
             textDifficulty = itemView.findViewById(R.id.text_quiz_difficulty);
         }
 
-        public void bind(Quiz quiz, OnQuizClickListener listener) {
+        public void bind(QuizSummary quiz, OnQuizClickListener listener) {
             textTitle.setText(quiz.getTitle());
             textCategory.setText(quiz.getCategory());
             
-            int questionCount = quiz.getQuestions() != null ? quiz.getQuestions().size() : 0;
-            textQuestions.setText(questionCount + " questions");
+            textQuestions.setText(quiz.getQuestionCount() + " questions");
             
             textDifficulty.setText("Difficulté: " + quiz.getDifficulty() + "/5");
 
-            // Charger l'image du quiz si disponible (à implémenter)
-            // Pour l'instant on utilise une image par défaut
-            Glide.with(itemView.getContext())
-                .load(R.drawable.default_quiz_image)
+            // Vignette du quiz, image par défaut si elle manque ou est illisible
+            Glide.with(imageQuiz)
+                .load(MediaReference.glideModel(quiz.getThumbnailUrl()))
+                .placeholder(R.drawable.default_quiz_image)
+                .error(R.drawable.default_quiz_image)
+                .fallback(R.drawable.default_quiz_image)
                 .centerCrop()
                 .into(imageQuiz);
 
@@ -1,17 +1,37 @@
 package com.example.quiz.ui.quiz;
 
 import android.os.Bundle;
+import android.util.DisplayMetrics;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.ImageView;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.navigation.Navigation;
 
+import com.bumptech.glide.Glide;
 import com.example.quiz.R;
+import com.example.quiz.model.Question;
+import com.example.quiz.model.Quiz;
+import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.MediaReference;
+import com.example.quiz.util.MediaUtils;
+
+import java.util.List;
 
 public class QuizDetailsFragment extends Fragment {
+    private static final String TAG = "QuizDetailsFragment";
+    private static final int QUESTION_IMAGE_HEIGHT_DP = 200; // Comme l'image du quiz sur cet écran
+
+    private ImageView imageQuizDetails;
+    private TextView textQuizDetails;
+    private Button buttonPlayQuiz;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -22,6 +42,103 @@ public class QuizDetailsFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        // Placeholder pour le développement futur
+        imageQuizDetails = view.findViewById(R.id.imageQuizDetails);
+        textQuizDetails = view.findViewById(R.id.textQuizDetails);
+        buttonPlayQuiz = view.findViewById(R.id.buttonPlayQuiz);
+
+        String quizId = getArguments() != null ? getArguments().getString("quizId") : null;
+        if (quizId == null) {
+            textQuizDetails.setText("Quiz introuvable");
+            return;
+        }
+
+        buttonPlayQuiz.setOnClickListener(v -> playQuiz(quizId));
+
+        // Le quiz complet et ses questions ne sont chargés qu'à l'ouverture du détail
+        loadQuiz(quizId);
+    }
+
+    /**
+     * Une partie lancée compte comme une lecture du quiz (cumulée dans la file d'écritures différées)
+     */
+    private void playQuiz(String quizId) {
+        FirestoreUtils.incrementQuizPlayCount(quizId);
+        try {
+            Bundle args = new Bundle();
+            args.putString("quizId", quizId);
+            Navigation.findNavController(requireView()).navigate(R.id.gameSetupFragment, args);
+        } catch (Exception e) {
+            Log.e(TAG, "Erreur lors de la navigation: " + e.getMessage());
+        }
+    }
+
+    private void loadQuiz(String quizId) {
+        FirestoreUtils.loadQuiz(quizId, new FirestoreUtils.OnQuizLoadedListener() {
+            @Override
+            public void onQuizLoaded(Quiz quiz) {
+                if (getView() == null) return;
+                textQuizDetails.setText(quiz.getTitle());
+                loadImage(quiz);
+
+                FirestoreUtils.loadQuestionsForQuiz(quiz, new FirestoreUtils.OnQuestionsLoadedListener() {
+                    @Override
+                    public void onQuestionsLoaded(List<Question> questions) {
+                        if (getView() == null) return;
+                        textQuizDetails.setText(quiz.getTitle() + "\n" + questions.size() + " questions");
+                        buttonPlayQuiz.setEnabled(!questions.isEmpty());
+                        preloadMedia(quiz);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Erreur lors du chargement des questions du quiz " + quizId, e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Erreur lors du chargement du quiz " + quizId, e);
+                if (getView() == null) return;
+                textQuizDetails.setText("Impossible de charger le quiz");
+            }
+        });
+    }
+
+    /**
+     * Médias des questions préparés avant la partie (références en lots, images décodées)
+     */
+    private void preloadMedia(Quiz quiz) {
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        int height = (int) (QUESTION_IMAGE_HEIGHT_DP * metrics.density);
+        MediaUtils.preloadMediaForQuiz(requireContext(), quiz, metrics.widthPixels, height,
+            mediaCount -> Log.d(TAG, mediaCount + " média(s) préchargé(s) pour le quiz " + quiz.getId()));
+    }
+
+    /**
+     * L'image complète est lue à part ("quiz_images"), seulement sur cet écran
+     */
+    private void loadImage(Quiz quiz) {
+        FirestoreUtils.loadQuizImage(quiz.getId(), new FirestoreUtils.OnQuizImageLoadedListener() {
+            @Override
+            public void onImageLoaded(String imageUrl) {
+                if (getView() == null) return;
+                // Quiz pas encore migré : l'image est encore sur le document du quiz
+                String image = imageUrl != null ? imageUrl : quiz.getImageUrl();
+                if (image == null || image.isEmpty()) return;
+
+                imageQuizDetails.setVisibility(View.VISIBLE);
+                Glide.with(QuizDetailsFragment.this)
+                    .load(MediaReference.glideModel(image))
+                    .placeholder(R.drawable.ic_quiz_placeholder)
+                    .error(R.drawable.ic_quiz_placeholder)
+                    .into(imageQuizDetails);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Erreur lors du chargement de l'image du quiz " + quiz.getId(), e);
+            }
+        });
     }
-} 
\ No newline at end of file
+}
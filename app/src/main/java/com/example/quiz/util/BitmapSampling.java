@@ -0,0 +1,43 @@
+package com.example.quiz.util;
+
+/**
+ * Calcul du sous-échantillonnage (inSampleSize) pour décoder une image à la taille de la vue qui l'affiche
+ * plutôt qu'en pleine résolution
+ */
+public final class BitmapSampling {
+    public static final int BYTES_PER_PIXEL_ARGB_8888 = 4;
+    public static final int BYTES_PER_PIXEL_RGB_565 = 2;
+
+    private BitmapSampling() {
+    }
+
+    /**
+     * Plus grande puissance de 2 qui garde l'image décodée au moins aussi grande que la cible
+     * dans les deux dimensions (BitmapFactory arrondit inSampleSize à une puissance de 2).
+     * Une dimension cible nulle ou négative est ignorée.
+     */
+    public static int calculateInSampleSize(int sourceWidth, int sourceHeight, int targetWidth, int targetHeight) {
+        if (sourceWidth <= 0 || sourceHeight <= 0) return 1;
+        if (targetWidth <= 0 && targetHeight <= 0) return 1;
+
+        int sampleSize = 1;
+        while (fits(sourceWidth / (sampleSize * 2), targetWidth)
+                && fits(sourceHeight / (sampleSize * 2), targetHeight)) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Taille en octets du bitmap obtenu avec ce sous-échantillonnage
+     */
+    public static long decodedBytes(int sourceWidth, int sourceHeight, int sampleSize, int bytesPerPixel) {
+        long width = (sourceWidth + sampleSize - 1) / sampleSize;
+        long height = (sourceHeight + sampleSize - 1) / sampleSize;
+        return width * height * bytesPerPixel;
+    }
+
+    private static boolean fits(int sampled, int target) {
+        return sampled > 0 && (target <= 0 || sampled >= target);
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.quiz.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stockage d'un média de taille quelconque en blocs, au-delà de la limite de 1 Mo d'un document Firestore :
+ * un manifeste (taille, taille des blocs, somme de contrôle SHA-256 de chaque bloc, nombre de blocs validés)
+ * et un document par bloc. L'envoi est séquentiel et chaque bloc est validé avec le compteur du manifeste :
+ * un envoi interrompu reprend après le dernier bloc validé. La lecture télécharge plusieurs blocs en parallèle
+ * (nombre borné) et vérifie la somme de contrôle de chacun.
+ */
+public class ChunkedBlobStore {
+    public static final int DEFAULT_CHUNK_SIZE = 512 * 1024; // Un bloc par document, sous la limite de 1 Mio
+    public static final int DEFAULT_MAX_PARALLEL_DOWNLOADS = 4;
+    private static final int MAX_CHUNK_ATTEMPTS = 2;
+
+    /**
+     * Stockage des manifestes et des blocs (Firestore en production)
+     */
+    public interface Backend {
+        /** Renvoie null si le blob n'existe pas */
+        void readManifest(String blobId, ResultCallback<Manifest> callback);
+        void writeManifest(String blobId, Manifest manifest, OperationCallback callback);
+        /** Écrit le bloc et passe le nombre de blocs validés du manifeste à index + 1, en une seule opération */
+        void commitChunk(String blobId, int index, byte[] data, String checksum, OperationCallback callback);
+        void readChunk(String blobId, int index, ResultCallback<byte[]> callback);
+    }
+
+    /**
+     * Contenu à envoyer, lu bloc par bloc (le média n'est jamais entièrement en mémoire)
+     */
+    public interface Source {
+        long length();
+        byte[] read(long offset, int length) throws IOException;
+    }
+
+    /**
+     * Destination d'un téléchargement ; les blocs arrivent dans le désordre
+     */
+    public interface Sink {
+        void write(long offset, byte[] data) throws IOException;
+    }
+
+    public interface ResultCallback<T> {
+        void onResult(T result);
+        void onError(Exception e);
+    }
+
+    public interface OperationCallback {
+        void onSuccess();
+        void onError(Exception e);
+    }
+
+    public interface UploadListener {
+        void onProgress(int committedChunks, int chunkCount);
+        void onComplete(Manifest manifest);
+        void onError(Exception e);
+    }
+
+    public static class Manifest {
+        public final long totalSize;
+        public final int chunkSize;
+        public final List<String> checksums; // SHA-256 de chaque bloc
+        public final String contentType;
+        public final int committedChunks;
+
+        public Manifest(long totalSize, int chunkSize, List<String> checksums, String contentType, int committedChunks) {
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.checksums = checksums;
+            this.contentType = contentType;
+            this.committedChunks = committedChunks;
+        }
+
+        public int getChunkCount() {
+            return checksums.size();
+        }
+
+        public boolean isComplete() {
+            return committedChunks >= checksums.size();
+        }
+
+        Manifest withCommittedChunks(int committedChunks) {
+            return new Manifest(totalSize, chunkSize, checksums, contentType, committedChunks);
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("totalSize", totalSize);
+            map.put("chunkSize", chunkSize);
+            map.put("checksums", checksums);
+            map.put("contentType", contentType);
+            map.put("committedChunks", committedChunks);
+            return map;
+        }
+
+        @SuppressWarnings("unchecked")
+        public static Manifest fromMap(Map<String, Object> map) {
+            if (map == null || !(map.get("checksums") instanceof List)) return null;
+            return new Manifest(
+                map.get("totalSize") instanceof Number ? ((Number) map.get("totalSize")).longValue() : 0,
+                map.get("chunkSize") instanceof Number ? ((Number) map.get("chunkSize")).intValue() : DEFAULT_CHUNK_SIZE,
+                new ArrayList<>((List<String>) map.get("checksums")),
+                (String) map.get("contentType"),
+                map.get("committedChunks") instanceof Number ? ((Number) map.get("committedChunks")).intValue() : 0);
+        }
+    }
+
+    private final Backend backend;
+    private final int chunkSize;
+    private final int maxParallelDownloads;
+
+    public ChunkedBlobStore(Backend backend) {
+        this(backend, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_PARALLEL_DOWNLOADS);
+    }
+
+    public ChunkedBlobStore(Backend backend, int chunkSize, int maxParallelDownloads) {
+        if (chunkSize <= 0 || maxParallelDownloads <= 0) {
+            throw new IllegalArgumentException("Taille de bloc et parallélisme doivent être positifs");
+        }
+        this.backend = backend;
+        this.chunkSize = chunkSize;
+        this.maxParallelDownloads = maxParallelDownloads;
+    }
+
+    /**
+     * Envoie le contenu en blocs. Si un envoi du même contenu a été interrompu, il reprend
+     * après le dernier bloc validé ; sinon le manifeste est réécrit et l'envoi part du premier bloc.
+     */
+    public void upload(String blobId, Source source, String contentType, UploadListener listener) {
+        List<String> checksums;
+        try {
+            checksums = computeChecksums(source);
+        } catch (IOException e) {
+            listener.onError(e);
+            return;
+        }
+        Manifest manifest = new Manifest(source.length(), chunkSize, checksums, contentType, 0);
+
+        backend.readManifest(blobId, new ResultCallback<Manifest>() {
+            @Override
+            public void onResult(Manifest existing) {
+                if (existing != null && existing.totalSize == manifest.totalSize
+                        && existing.chunkSize == manifest.chunkSize && existing.checksums.equals(manifest.checksums)) {
+                    // Même contenu : reprendre après le dernier bloc validé
+                    uploadChunks(blobId, source, existing, existing.committedChunks, listener);
+                    return;
+                }
+                backend.writeManifest(blobId, manifest, new OperationCallback() {
+                    @Override
+                    public void onSuccess() {
+                        uploadChunks(blobId, source, manifest, 0, listener);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        listener.onError(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    private void uploadChunks(String blobId, Source source, Manifest manifest, int index, UploadListener listener) {
+        if (index >= manifest.getChunkCount()) {
+            listener.onComplete(manifest.withCommittedChunks(manifest.getChunkCount()));
+            return;
+        }
+
+        byte[] data;
+        try {
+            data = readChunk(source, index);
+        } catch (IOException e) {
+            listener.onError(e);
+            return;
+        }
+        backend.commitChunk(blobId, index, data, manifest.checksums.get(index), new OperationCallback() {
+            @Override
+            public void onSuccess() {
+                listener.onProgress(index + 1, manifest.getChunkCount());
+                uploadChunks(blobId, source, manifest, index + 1, listener);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Télécharge un blob complet dans la destination, avec au plus maxParallelDownloads blocs en cours.
+     * Un bloc dont la taille ou la somme de contrôle ne correspond pas au manifeste est relu une fois,
+     * puis le téléchargement échoue.
+     */
+    public void download(String blobId, Sink sink, ResultCallback<Manifest> callback) {
+        backend.readManifest(blobId, new ResultCallback<Manifest>() {
+            @Override
+            public void onResult(Manifest manifest) {
+                if (manifest == null) {
+                    callback.onError(new FileNotFoundException("Média introuvable: " + blobId));
+                } else if (!manifest.isComplete()) {
+                    callback.onError(new IOException("Envoi du média inachevé: " + blobId));
+                } else {
+                    new Download(blobId, manifest, sink, callback).pump();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    private class Download {
+        private final String blobId;
+        private final Manifest manifest;
+        private final Sink sink;
+        private final ResultCallback<Manifest> callback;
+        private int nextIndex = 0;
+        private int inFlight = 0;
+        private int completed = 0;
+        private boolean finished = false;
+
+        Download(String blobId, Manifest manifest, Sink sink, ResultCallback<Manifest> callback) {
+            this.blobId = blobId;
+            this.manifest = manifest;
+            this.sink = sink;
+            this.callback = callback;
+        }
+
+        void pump() {
+            List<Integer> toStart = new ArrayList<>();
+            boolean done;
+            synchronized (this) {
+                while (!finished && inFlight < maxParallelDownloads && nextIndex < manifest.getChunkCount()) {
+                    toStart.add(nextIndex++);
+                    inFlight++;
+                }
+                done = !finished && completed == manifest.getChunkCount();
+                if (done) finished = true;
+            }
+            if (done) {
+                callback.onResult(manifest);
+                return;
+            }
+            // Lancer les lectures hors du verrou : le stockage peut rappeler immédiatement
+            for (int index : toStart) {
+                fetch(index, 1);
+            }
+        }
+
+        private void fetch(int index, int attempt) {
+            backend.readChunk(blobId, index, new ResultCallback<byte[]>() {
+                @Override
+                public void onResult(byte[] data) {
+                    long offset = (long) index * manifest.chunkSize;
+                    long expectedLength = Math.min(manifest.chunkSize, manifest.totalSize - offset);
+                    if (data == null || data.length != expectedLength
+                            || !checksum(data).equals(manifest.checksums.get(index))) {
+                        retryOrFail(index, attempt, new IOException("Somme de contrôle invalide pour le bloc " + index));
+                        return;
+                    }
+                    try {
+                        sink.write(offset, data);
+                    } catch (IOException e) {
+                        fail(e);
+                        return;
+                    }
+                    synchronized (Download.this) {
+                        inFlight--;
+                        completed++;
+                    }
+                    pump();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    retryOrFail(index, attempt, e);
+                }
+            });
+        }
+
+        private void retryOrFail(int index, int attempt, Exception e) {
+            if (attempt < MAX_CHUNK_ATTEMPTS) {
+                fetch(index, attempt + 1);
+            } else {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            synchronized (this) {
+                if (finished) return;
+                finished = true;
+            }
+            callback.onError(e);
+        }
+    }
+
+    private List<String> computeChecksums(Source source) throws IOException {
+        int count = (int) ((source.length() + chunkSize - 1) / chunkSize);
+        List<String> checksums = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            checksums.add(checksum(readChunk(source, i)));
+        }
+        return checksums;
+    }
+
+    private byte[] readChunk(Source source, int index) throws IOException {
+        long offset = (long) index * chunkSize;
+        return source.read(offset, (int) Math.min(chunkSize, source.length() - offset));
+    }
+
+    static String checksum(byte[] data) {
+        try {
+            return ContentAddressedStore.toHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Source bytesSource(byte[] bytes) {
+        return new Source() {
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+
+            @Override
+            public byte[] read(long offset, int length) {
+                byte[] chunk = new byte[length];
+                System.arraycopy(bytes, (int) offset, chunk, 0, length);
+                return chunk;
+            }
+        };
+    }
+
+    /**
+     * Fichier lu par blocs ; à fermer par l'appelant
+     */
+    public static Source fileSource(RandomAccessFile file) throws IOException {
+        long length = file.length();
+        return new Source() {
+            @Override
+            public long length() {
+                return length;
+            }
+
+            @Override
+            public byte[] read(long offset, int length) throws IOException {
+                byte[] chunk = new byte[length];
+                synchronized (file) {
+                    file.seek(offset);
+                    file.readFully(chunk);
+                }
+                return chunk;
+            }
+        };
+    }
+
+    /**
+     * Fichier écrit bloc par bloc, à sa position ; à fermer par l'appelant
+     */
+    public static Sink fileSink(RandomAccessFile file) {
+        return (offset, data) -> {
+            synchronized (file) {
+                file.seek(offset);
+                file.write(data);
+            }
+        };
+    }
+
+    /**
+     * Fichier de destination d'un téléchargement
+     */
+    public static RandomAccessFile openForWrite(File file) throws IOException {
+        return new RandomAccessFile(file, "rw");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.quiz.util;
+
+/**
+ * Recherche des paramètres d'encodage (dimension maximale, qualité) qui donnent la meilleure image
+ * sous un budget d'octets. La qualité est cherchée par dichotomie ; si même la qualité minimale
+ * dépasse le budget, la dimension est réduite d'un quart et la recherche recommence.
+ * Si rien ne tient, même à 1 px, le plus petit encodage possible est renvoyé (hors budget).
+ */
+public final class CompressionSearch {
+    public static final int MIN_QUALITY = 40;
+    public static final int MAX_QUALITY = 90;
+    public static final int FALLBACK_QUALITY = 0; // Dernier recours, quand même 1 px à MIN_QUALITY dépasse le budget
+
+    /**
+     * Taille encodée (en octets) de l'image réduite à maxDimension et compressée à cette qualité
+     */
+    public interface Encoder {
+        long encodedSize(int maxDimension, int quality);
+    }
+
+    public static final class Result {
+        public final int maxDimension;
+        public final int quality;
+        public final long encodedSize;
+        public final boolean withinBudget;
+
+        Result(int maxDimension, int quality, long encodedSize, boolean withinBudget) {
+            this.maxDimension = maxDimension;
+            this.quality = quality;
+            this.encodedSize = encodedSize;
+            this.withinBudget = withinBudget;
+        }
+    }
+
+    private CompressionSearch() {
+    }
+
+    /**
+     * @return les meilleurs paramètres sous le budget ; si même une image de 1 px ne tient pas,
+     * l'image de 1 px à FALLBACK_QUALITY, avec withinBudget à false
+     */
+    public static Result search(Encoder encoder, int startDimension, long maxBytes) {
+        int dimension = Math.max(1, startDimension);
+        while (true) {
+            long smallest = encoder.encodedSize(dimension, MIN_QUALITY);
+            if (smallest <= maxBytes) {
+                return searchQuality(encoder, dimension, smallest, maxBytes);
+            }
+            if (dimension == 1) {
+                return new Result(1, FALLBACK_QUALITY, encoder.encodedSize(1, FALLBACK_QUALITY), false);
+            }
+            dimension = Math.max(1, dimension * 3 / 4);
+        }
+    }
+
+    // La taille croît avec la qualité : plus haute qualité qui tient dans le budget
+    private static Result searchQuality(Encoder encoder, int dimension, long minQualitySize, long maxBytes) {
+        int best = MIN_QUALITY;
+        long bestSize = minQualitySize;
+        int low = MIN_QUALITY + 1;
+        int high = MAX_QUALITY;
+        while (low <= high) {
+            int quality = (low + high) >>> 1;
+            long size = encoder.encodedSize(dimension, quality);
+            if (size <= maxBytes) {
+                best = quality;
+                bestSize = size;
+                low = quality + 1;
+            } else {
+                high = quality - 1;
+            }
+        }
+        return new Result(dimension, best, bestSize, true);
+    }
+}
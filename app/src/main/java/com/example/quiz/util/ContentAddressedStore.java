@@ -0,0 +1,245 @@
+package com.example.quiz.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Stockage de fichiers adressés par leur contenu : chaque fichier est nommé d'après l'empreinte SHA-256
+ * de ses octets (calculée pendant la copie), si bien qu'un même média importé plusieurs fois n'est
+ * stocké qu'une fois. Chaque fichier a un compteur de références, enregistré dans le dossier ;
+ * les fichiers qui ne sont plus référencés sont supprimés par {@link #collectGarbage()}.
+ * Les fichiers présents dans le dossier mais absents de l'index (antérieurs au stockage) ne sont jamais supprimés.
+ * Les fichiers dont une copie a été envoyée (voir {@link #markRemoteCopy}) sont notés dans un second index.
+ */
+public class ContentAddressedStore {
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+    private static final String INDEX_FILE = ".refcounts";
+    private static final String REMOTE_INDEX_FILE = ".remote";
+    private static final String TEMP_PREFIX = ".import-";
+
+    private final File directory;
+    private final File indexFile;
+    private final File remoteIndexFile;
+    private final Properties refCounts = new Properties();
+    private final Properties remoteCopies = new Properties(); // Nom du fichier -> "1"
+    private int activeImports = 0; // Copies en cours : leurs fichiers temporaires ne sont pas à supprimer
+
+    public ContentAddressedStore(File directory) throws IOException {
+        this.directory = directory;
+        this.indexFile = new File(directory, INDEX_FILE);
+        this.remoteIndexFile = new File(directory, REMOTE_INDEX_FILE);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Impossible de créer le dossier " + directory);
+        }
+        loadProperties(refCounts, indexFile);
+        loadProperties(remoteCopies, remoteIndexFile);
+    }
+
+    /**
+     * Copie le flux dans le stockage et ajoute une référence au fichier correspondant.
+     * Si un fichier de même contenu existe déjà, la copie est abandonnée et rien de plus n'est stocké.
+     *
+     * @param extension extension du nom de fichier (ex. ".jpg"), peut être vide
+     * @return le nom du fichier dans le dossier
+     */
+    public String put(InputStream in, String extension) throws IOException {
+        synchronized (this) {
+            activeImports++;
+        }
+        try {
+            return importStream(in, extension);
+        } finally {
+            synchronized (this) {
+                activeImports--;
+            }
+        }
+    }
+
+    private String importStream(InputStream in, String extension) throws IOException {
+        File temp = File.createTempFile(TEMP_PREFIX, null, directory);
+        String hash;
+        try {
+            MessageDigest digest = newDigest();
+            try (OutputStream out = new FileOutputStream(temp)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int length;
+                while ((length = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, length);
+                    out.write(buffer, 0, length);
+                }
+            }
+            hash = toHex(digest.digest());
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        String filename = hash + (extension != null ? extension : "");
+        synchronized (this) {
+            File target = new File(directory, filename);
+            if (target.exists()) {
+                temp.delete(); // Déjà stocké : aucun octet de plus sur le disque
+            } else if (!temp.renameTo(target)) {
+                temp.delete();
+                throw new IOException("Impossible d'enregistrer " + filename);
+            }
+            addReferences(filename, 1);
+        }
+        return filename;
+    }
+
+    /**
+     * Ajoute une référence à un fichier déjà stocké (ex. média réutilisé par une autre question)
+     */
+    public synchronized void retain(String filename) throws IOException {
+        if (!new File(directory, filename).exists()) {
+            throw new IOException("Fichier inconnu: " + filename);
+        }
+        addReferences(filename, 1);
+    }
+
+    /**
+     * Retire une référence ; le fichier est supprimé au prochain collectGarbage() s'il n'en a plus
+     */
+    public synchronized void release(String filename) throws IOException {
+        if (getRefCount(filename) > 0) {
+            addReferences(filename, -1);
+        }
+    }
+
+    /**
+     * Oublie un fichier supprimé par ailleurs (ex. par le quota de MediaDiskCache)
+     */
+    public synchronized void forget(String filename) throws IOException {
+        if (refCounts.remove(filename) != null) {
+            saveIndex();
+        }
+        forgetRemoteCopy(filename);
+    }
+
+    /**
+     * Note qu'une copie du fichier existe ailleurs (ex. envoyée dans Firestore) : le fichier local peut être perdu
+     */
+    public synchronized void markRemoteCopy(String filename) throws IOException {
+        if (remoteCopies.setProperty(filename, "1") == null) {
+            saveProperties(remoteCopies, remoteIndexFile);
+        }
+    }
+
+    public synchronized boolean hasRemoteCopy(String filename) {
+        return remoteCopies.containsKey(filename);
+    }
+
+    public synchronized int getRefCount(String filename) {
+        String count = refCounts.getProperty(filename);
+        return count != null ? Integer.parseInt(count) : 0;
+    }
+
+    public File getFile(String filename) {
+        return new File(directory, filename);
+    }
+
+    /**
+     * Supprime les fichiers de l'index qui n'ont plus de référence, ainsi que les copies interrompues
+     *
+     * @return le nombre de fichiers supprimés
+     */
+    public synchronized int collectGarbage() throws IOException {
+        return collectGarbage(null);
+    }
+
+    /**
+     * @param deletedFiles reçoit les noms des fichiers supprimés de l'index (peut être null)
+     */
+    public synchronized int collectGarbage(List<String> deletedFiles) throws IOException {
+        int deleted = 0;
+        List<String> unused = new ArrayList<>();
+        for (String filename : refCounts.stringPropertyNames()) {
+            if (getRefCount(filename) <= 0) {
+                unused.add(filename);
+            }
+        }
+        for (String filename : unused) {
+            File file = new File(directory, filename);
+            if (!file.exists() || file.delete()) {
+                refCounts.remove(filename);
+                forgetRemoteCopy(filename);
+                deleted++;
+                if (deletedFiles != null) deletedFiles.add(filename);
+            }
+        }
+
+        File[] temps = activeImports == 0
+            ? directory.listFiles((dir, name) -> name.startsWith(TEMP_PREFIX))
+            : null;
+        if (temps != null) {
+            for (File temp : temps) {
+                if (temp.delete()) deleted++;
+            }
+        }
+
+        if (!unused.isEmpty()) {
+            saveIndex();
+        }
+        return deleted;
+    }
+
+    private void addReferences(String filename, int delta) throws IOException {
+        refCounts.setProperty(filename, String.valueOf(getRefCount(filename) + delta));
+        saveIndex();
+    }
+
+    private void forgetRemoteCopy(String filename) throws IOException {
+        if (remoteCopies.remove(filename) != null) {
+            saveProperties(remoteCopies, remoteIndexFile);
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        saveProperties(refCounts, indexFile);
+    }
+
+    private static void loadProperties(Properties properties, File file) throws IOException {
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            }
+        }
+    }
+
+    // Écriture dans un fichier temporaire puis renommage : l'index n'est jamais à moitié écrit
+    private static void saveProperties(Properties properties, File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Impossible d'enregistrer l'index " + file.getName());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Toujours disponible sur Android et sur la JVM
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.quiz.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conversion des résultats Firestore (documents vers objets du modèle) hors du thread principal.
+ * Les requêtes enchaînent la conversion sur {@link #getExecutor()} (surcharges avec Executor des Task),
+ * et seul le résultat converti revient sur le thread principal.
+ * Une conversion lancée par erreur sur le thread principal est signalée (voir setMainThreadListener), puis
+ * échoue en mode strict (tests, builds de debug) ou est menée à bien (release, voir setStrict).
+ */
+public final class DocumentParsing {
+    private static final int PARSE_THREADS = 2;
+
+    public interface Mapper<D, T> {
+        /** Renvoie null pour ignorer un document */
+        T map(D document);
+    }
+
+    public interface ParseCallback<T> {
+        void onParsed(T result);
+        void onError(Exception e);
+    }
+
+    /**
+     * Prévenu quand une conversion s'exécute sur le thread principal (journalisé par QuizApplication)
+     */
+    public interface MainThreadListener {
+        void onMainThreadParsing(IllegalStateException trace);
+    }
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadFactory threadFactory = runnable -> {
+        Thread thread = new Thread(runnable, "document-parsing-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    // Nombre de threads borné ; les conversions en attente sont mises en file
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            PARSE_THREADS, PARSE_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Partagé par tous les écouteurs temps réel : au plus un thread de conversion leur est consacré
+    private static final Executor listenerExecutor = newSerialExecutor();
+
+    private static volatile Thread mainThread;
+    private static volatile MainThreadListener mainThreadListener;
+    private static volatile boolean strict = true;
+
+    private DocumentParsing() {
+    }
+
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Exécuteur des écouteurs temps réel : les tâches s'exécutent une à une, dans l'ordre, sur les threads
+     * de conversion, pour que les instantanés de chaque écouteur restent ordonnés
+     */
+    public static Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
+    /**
+     * Exécute parse sur les threads de conversion et transmet le résultat (ou l'erreur) sur resultExecutor
+     */
+    public static <T> void parseAsync(Callable<T> parse, Executor resultExecutor, ParseCallback<T> callback) {
+        executor.execute(() -> {
+            T result;
+            try {
+                result = parse.call();
+            } catch (Exception e) {
+                resultExecutor.execute(() -> callback.onError(e));
+                return;
+            }
+            resultExecutor.execute(() -> callback.onParsed(result));
+        });
+    }
+
+    private static Executor newSerialExecutor() {
+        return new Executor() {
+            private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+            private Runnable active;
+
+            @Override
+            public synchronized void execute(Runnable command) {
+                tasks.offer(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                });
+                if (active == null) {
+                    scheduleNext();
+                }
+            }
+
+            private synchronized void scheduleNext() {
+                active = tasks.poll();
+                if (active != null) {
+                    executor.execute(active);
+                }
+            }
+        };
+    }
+
+    /**
+     * Enregistre le thread principal (appelé depuis QuizApplication)
+     */
+    public static void setMainThread(Thread thread) {
+        mainThread = thread;
+    }
+
+    public static void setMainThreadListener(MainThreadListener listener) {
+        mainThreadListener = listener;
+    }
+
+    /**
+     * Mode strict (par défaut) : une conversion sur le thread principal lève une IllegalStateException.
+     * Désactivé par QuizApplication dans un build de release, où la conversion est seulement signalée.
+     */
+    public static void setStrict(boolean strict) {
+        DocumentParsing.strict = strict;
+    }
+
+    /**
+     * Signale une conversion sur le thread principal, et l'interrompt en mode strict
+     */
+    public static void reportIfMainThread() {
+        if (mainThread == null || Thread.currentThread() != mainThread) return;
+        IllegalStateException trace = new IllegalStateException("Conversion de documents sur le thread principal");
+        MainThreadListener listener = mainThreadListener;
+        if (listener != null) {
+            listener.onMainThreadParsing(trace);
+        }
+        if (strict) throw trace;
+    }
+
+    /**
+     * Convertit des documents en objets, dans l'ordre, en ignorant ceux que le mapper rejette
+     */
+    public static <D, T> List<T> mapAll(Iterable<D> documents, Mapper<D, T> mapper) {
+        reportIfMainThread();
+        List<T> results = new ArrayList<>();
+        for (D document : documents) {
+            T result = mapper.map(document);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.quiz.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal d'un brouillon : chaque ajout, modification ou suppression d'un élément est ajouté à la fin
+ * du journal au moment où il a lieu, et l'état est reconstruit en relisant le journal à l'ouverture.
+ * Quand le journal contient trop d'enregistrements périmés, il est réécrit avec le seul état actuel.
+ *
+ * Chaque écriture d'un élément reçoit une révision : un élément est à synchroniser tant que sa dernière
+ * révision n'a pas été marquée comme envoyée (markSynced).
+ *
+ * Format : un enregistrement par ligne, champs séparés par des tabulations (échappées dans les valeurs).
+ * Une ligne illisible (écriture interrompue) est ignorée.
+ */
+public class DraftJournal {
+    public static final int DEFAULT_COMPACTION_SLACK = 64;
+
+    private static final String PUT = "P";
+    private static final String REMOVE = "R";
+    private static final String SYNCED = "S";
+    private static final String META = "M";
+
+    /**
+     * Stockage des enregistrements (fichier en ajout seul)
+     */
+    public interface Storage {
+        /** Enregistrements complets, dans l'ordre d'écriture */
+        List<String> read();
+        void append(String record);
+        /** Remplace tout le journal (de façon atomique) */
+        void rewrite(List<String> records);
+    }
+
+    private static class Entry {
+        final String payload;
+        final long revision;
+
+        Entry(String payload, long revision) {
+            this.payload = payload;
+            this.revision = revision;
+        }
+    }
+
+    private final Storage storage;
+    private final int compactionSlack;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, Long> syncedRevisions = new LinkedHashMap<>();
+    private final Map<String, String> meta = new LinkedHashMap<>();
+    private long lastRevision = 0;
+    private int recordCount = 0;
+
+    public DraftJournal(Storage storage) {
+        this(storage, DEFAULT_COMPACTION_SLACK);
+    }
+
+    /**
+     * @param compactionSlack Nombre d'enregistrements périmés tolérés avant la réécriture du journal
+     */
+    public DraftJournal(Storage storage, int compactionSlack) {
+        this.storage = storage;
+        this.compactionSlack = compactionSlack;
+        for (String record : storage.read()) {
+            replay(record);
+            recordCount++;
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Ajoute ou remplace un élément ; un nouvel élément est placé à la fin
+     */
+    public synchronized void put(String id, String payload) {
+        Entry current = entries.get(id);
+        if (current != null && current.payload.equals(payload)) return;
+        long revision = ++lastRevision;
+        entries.put(id, new Entry(payload, revision));
+        append(PUT, id, Long.toString(revision), payload);
+    }
+
+    public synchronized void remove(String id) {
+        if (entries.remove(id) == null) return;
+        syncedRevisions.remove(id);
+        append(REMOVE, id);
+    }
+
+    public synchronized void putMeta(String key, String value) {
+        String stored = value != null ? value : "";
+        if (stored.equals(meta.get(key))) return;
+        meta.put(key, stored);
+        append(META, key, stored);
+    }
+
+    public synchronized String getMeta(String key) {
+        return meta.get(key);
+    }
+
+    public synchronized String get(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.payload : null;
+    }
+
+    /**
+     * IDs des éléments, dans l'ordre d'ajout
+     */
+    public synchronized List<String> getIds() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty() && meta.isEmpty();
+    }
+
+    /**
+     * Éléments modifiés depuis leur dernier envoi : ID -> révision à passer ensuite à markSynced()
+     */
+    public synchronized Map<String, Long> getDirtyRevisions() {
+        Map<String, Long> dirty = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Long synced = syncedRevisions.get(entry.getKey());
+            if (synced == null || synced < entry.getValue().revision) {
+                dirty.put(entry.getKey(), entry.getValue().revision);
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * Marque ces révisions comme envoyées. Un élément modifié pendant l'envoi reste à synchroniser.
+     */
+    public synchronized void markSynced(Map<String, Long> revisions) {
+        for (Map.Entry<String, Long> revision : revisions.entrySet()) {
+            String id = revision.getKey();
+            if (!entries.containsKey(id)) continue;
+            Long synced = syncedRevisions.get(id);
+            if (synced != null && synced >= revision.getValue()) continue;
+            syncedRevisions.put(id, revision.getValue());
+            append(SYNCED, id, Long.toString(revision.getValue()));
+        }
+    }
+
+    /**
+     * Vide le brouillon
+     */
+    public synchronized void clear() {
+        entries.clear();
+        syncedRevisions.clear();
+        meta.clear();
+        recordCount = 0;
+        storage.rewrite(Collections.emptyList());
+    }
+
+    /**
+     * Réécrit le journal avec le seul état actuel
+     */
+    public synchronized void compact() {
+        List<String> records = new ArrayList<>();
+        for (Map.Entry<String, String> entry : meta.entrySet()) {
+            records.add(encode(META, entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            records.add(encode(PUT, entry.getKey(), Long.toString(entry.getValue().revision), entry.getValue().payload));
+        }
+        for (Map.Entry<String, Long> entry : syncedRevisions.entrySet()) {
+            records.add(encode(SYNCED, entry.getKey(), Long.toString(entry.getValue())));
+        }
+        storage.rewrite(records);
+        recordCount = records.size();
+    }
+
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    private void append(String... fields) {
+        storage.append(encode(fields));
+        recordCount++;
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        int liveRecords = meta.size() + entries.size() + syncedRevisions.size();
+        if (recordCount > liveRecords + compactionSlack) {
+            compact();
+        }
+    }
+
+    private void replay(String record) {
+        List<String> fields = decode(record);
+        if (fields.isEmpty()) return;
+        try {
+            switch (fields.get(0)) {
+                case PUT: {
+                    long revision = Long.parseLong(fields.get(2));
+                    entries.put(fields.get(1), new Entry(fields.get(3), revision));
+                    lastRevision = Math.max(lastRevision, revision);
+                    break;
+                }
+                case REMOVE:
+                    entries.remove(fields.get(1));
+                    syncedRevisions.remove(fields.get(1));
+                    break;
+                case SYNCED:
+                    if (entries.containsKey(fields.get(1))) {
+                        syncedRevisions.put(fields.get(1), Long.parseLong(fields.get(2)));
+                    }
+                    break;
+                case META:
+                    meta.put(fields.get(1), fields.get(2));
+                    break;
+                default:
+                    break;
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            // Enregistrement incomplet : ignoré, le journal sera réécrit à la prochaine compaction
+        }
+    }
+
+    static String encode(String... fields) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) builder.append('\t');
+            String field = fields[i];
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\': builder.append("\\\\"); break;
+                    case '\t': builder.append("\\t"); break;
+                    case '\n': builder.append("\\n"); break;
+                    case '\r': builder.append("\\r"); break;
+                    default: builder.append(c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    static List<String> decode(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < record.length()) {
+                char next = record.charAt(++i);
+                field.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                field.append(c);
+            }
+        }
+        if (!record.isEmpty()) fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,21 +1,40 @@
 package com.example.quiz.util;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.example.quiz.data.PendingWritesStore;
+import com.example.quiz.data.QuizCache;
 import com.example.quiz.model.Question;
 import com.example.quiz.model.Quiz;
+import com.example.quiz.model.QuizSummary;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 /**
  * Classe utilitaire pour gérer les interactions avec Firestore
@@ -23,11 +42,107 @@ import java.util.Map;
 public class FirestoreUtils {
     private static final String TAG = "FirestoreUtils";
     
+    /**
+     * Nombre maximal d'opérations dans un WriteBatch Firestore
+     */
+    public static final int MAX_BATCH_OPERATIONS = 500;
+    
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    /**
+     * Nombre de shards par compteur de parties : chaque shard supporte environ une écriture par seconde
+     */
+    private static final int PLAY_COUNT_SHARDS = ShardedCounter.DEFAULT_SHARD_COUNT;
+    
+    private static final ShardedCounter playCounter = new ShardedCounter(new PlayCountShardStore(),
+        PLAY_COUNT_SHARDS, ShardedCounter.DEFAULT_ROLL_UP_INTERVAL_MS, new Random());
+    
+    private static final String COUNTERS_COLLECTION = "counters";
+    
+    /**
+     * Images complètes des quizzes, à part des documents "quizzes" et "quiz_summaries" lus par les listes
+     */
+    private static final String QUIZ_IMAGES_COLLECTION = "quiz_images";
+    private static final int IMAGE_MIGRATION_PAGE_SIZE = 10;
+    
+    /**
+     * Délai maximal avant l'envoi des incréments en attente (parties, points, victoires)
+     */
+    private static final long WRITE_BEHIND_INTERVAL_MS = 30 * 1000;
+    
+    private static volatile WriteBehindBuffer writeBehind; // null tant que initWriteBehind() n'a pas été appelé
+    private static boolean flushScheduled = false;
+    private static boolean rollUpScheduled = false;
+    
+    /**
+     * Durée de validité des quizzes et questions mémorisés
+     */
+    private static final long LOAD_MEMO_TTL_MS = 5 * 60 * 1000;
+    
+    /**
+     * Documents de quiz chargés récemment. Chaque appelant reçoit son propre objet Quiz, construit depuis le document partagé.
+     */
+    private static final RequestCoalescer<String, DocumentSnapshot> quizLoads =
+        new RequestCoalescer<>(50, LOAD_MEMO_TTL_MS, FirestoreUtils::fetchQuizDocument);
+    
+    /**
+     * Questions chargées récemment, indexées par ID : deux quizzes qui partagent des questions partagent aussi
+     * leur chargement. Les questions mémorisées ne sont jamais transmises telles quelles, chaque appelant
+     * en reçoit une copie. Une question d'un lot en échec n'est pas mémorisée.
+     * Le total est aussi borné en octets : une image Base64 en ligne pèse jusqu'à 2 Mo en mémoire.
+     */
+    private static final int MAX_MEMOIZED_QUESTIONS = 500;
+    private static final long MAX_MEMOIZED_QUESTION_BYTES = 8 * 1024 * 1024;
+    private static final RequestCoalescer<String, Question> questionLoads =
+        new RequestCoalescer<String, Question>(MAX_MEMOIZED_QUESTIONS, MAX_MEMOIZED_QUESTION_BYTES,
+                                               LOAD_MEMO_TTL_MS, FirestoreUtils::fetchQuestion) {
+            @Override
+            protected long weigh(Question question) {
+                return estimateQuestionBytes(question);
+            }
+        };
+    
+    /**
+     * Taille approximative d'une question en mémoire : ses chaînes (2 octets par caractère), médias en ligne compris
+     */
+    private static long estimateQuestionBytes(Question question) {
+        long chars = length(question.getText()) + length(question.getImageUrl()) + length(question.getVideoUrl())
+            + length(question.getExplanation()) + length(question.getCategory());
+        if (question.getOptions() != null) {
+            for (String option : question.getOptions()) {
+                chars += length(option);
+            }
+        }
+        return 2 * chars;
+    }
+    
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+    
     public interface OnQuestionsLoadedListener {
         void onQuestionsLoaded(List<Question> questions);
         void onError(Exception e);
     }
     
+    public interface OnQuestionsBatchLoadedListener {
+        void onQuestionsLoaded(List<Question> questions, List<Exception> chunkErrors);
+    }
+    
+    public interface OnQuizPageLoadedListener {
+        /** lastDocument : curseur à passer à startAfter pour la page suivante (null si la page est vide) */
+        void onPageLoaded(List<QuizSummary> summaries, DocumentSnapshot lastDocument);
+        void onError(Exception e);
+    }
+    
+    public interface OnQuizFeedChangesListener {
+        /** Premier instantané : la page complète, lastDocument étant le curseur de la page suivante */
+        void onFirstSnapshot(List<QuizSummary> summaries, DocumentSnapshot lastDocument);
+        /** Instantanés suivants : uniquement les changements, dans l'ordre où les appliquer */
+        void onChanges(List<QuizPager.LiveChange> changes, DocumentSnapshot lastDocument);
+        void onError(Exception e);
+    }
+    
     public interface OnQuizzesLoadedListener {
         void onQuizzesLoaded(List<Quiz> quizzes);
         void onError(Exception e);
@@ -50,18 +165,12 @@ public class FirestoreUtils {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         db.collection("questions")
             .get()
-            .addOnCompleteListener(new OnCompleteListener<QuerySnapshot>() {
+            .continueWith(DocumentParsing.getExecutor(), task -> parseQuestions(task.getResult()))
+            .addOnCompleteListener(new OnCompleteListener<List<Question>>() {
                 @Override
-                public void onComplete(@NonNull Task<QuerySnapshot> task) {
+                public void onComplete(@NonNull Task<List<Question>> task) {
                     if (task.isSuccessful()) {
-                        List<Question> questions = new ArrayList<>();
-                        for (QueryDocumentSnapshot document : task.getResult()) {
-                            String documentId = document.getId();
-                            Map<String, Object> data = document.getData();
-                            Question question = Question.fromMap(data, documentId);
-                            questions.add(question);
-                        }
-                        listener.onQuestionsLoaded(questions);
+                        listener.onQuestionsLoaded(task.getResult());
                     } else {
                         Log.e(TAG, "Erreur lors du chargement des questions", task.getException());
                         listener.onError(task.getException());
@@ -71,49 +180,338 @@ public class FirestoreUtils {
     }
     
     /**
-     * Charge toutes les questions pour un quiz spécifique
+     * Charge toutes les questions pour un quiz spécifique.
+     * Les lots en échec sont journalisés ; une erreur n'est remontée que si aucune question n'a pu être chargée.
      */
     public static void loadQuestionsForQuiz(Quiz quiz, OnQuestionsLoadedListener listener) {
+        loadQuestionsForQuiz(quiz, new OnQuestionsBatchLoadedListener() {
+            @Override
+            public void onQuestionsLoaded(List<Question> questions, List<Exception> chunkErrors) {
+                if (questions.isEmpty() && !chunkErrors.isEmpty()) {
+                    listener.onError(chunkErrors.get(0));
+                } else {
+                    listener.onQuestionsLoaded(questions);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Charge les questions d'un quiz par lots de {@link QuestionBatchLoader#MAX_IDS_PER_QUERY} IDs
+     * (whereIn sur l'ID du document), dans l'ordre de {@link Quiz#getQuestionIds()}.
+     * Si toutes les questions sont dans le cache local, elles sont livrées tout de suite ; les questions
+     * sont ensuite relues sur Firestore et livrées à nouveau seulement si l'une d'elles est nouvelle
+     * ou si son updatedAt a changé (le listener peut donc être appelé deux fois).
+     * Les lots sont lancés en parallèle et les erreurs de chaque lot sont remontées sans perdre les autres.
+     * Chaque question est mémorisée par ID : une question déjà chargée ou en cours de chargement
+     * (par exemple pour un autre quiz) n'est pas redemandée.
+     */
+    public static void loadQuestionsForQuiz(Quiz quiz, OnQuestionsBatchLoadedListener listener) {
         if (quiz == null || quiz.getQuestionIds() == null || quiz.getQuestionIds().isEmpty()) {
-            listener.onQuestionsLoaded(new ArrayList<>());
+            listener.onQuestionsLoaded(new ArrayList<>(), new ArrayList<>());
             return;
         }
         
-        List<String> questionIds = quiz.getQuestionIds();
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        List<Question> questions = new ArrayList<>();
-        final int[] completedQueries = {0};
-        final Exception[] error = {null};
+        List<String> questionIds = new ArrayList<>(quiz.getQuestionIds());
+        QuizCache cache = QuizCache.getInstance();
+        if (cache == null) {
+            revalidateQuestions(quiz, questionIds, new HashMap<>(), false, listener);
+            return;
+        }
         
-        for (String questionId : questionIds) {
-            db.collection("questions").document(questionId)
-                .get()
-                .addOnCompleteListener(task -> {
-                    completedQueries[0]++;
-                    
-                    if (task.isSuccessful() && task.getResult() != null && task.getResult().exists()) {
-                        Map<String, Object> data = task.getResult().getData();
-                        Question question = Question.fromMap(data, questionId);
-                        questions.add(question);
-                    } else if (task.getException() != null) {
-                        Log.e(TAG, "Erreur lors du chargement de la question " + questionId, task.getException());
-                        error[0] = task.getException();
+        cache.readQuestions(questionIds, cachedById -> {
+            boolean servedFromCache = cachedById.keySet().containsAll(questionIds);
+            if (servedFromCache) {
+                List<Question> questions = new ArrayList<>();
+                for (String id : questionIds) {
+                    questions.add(cachedById.get(id));
+                }
+                quiz.setQuestions(new ArrayList<>(questions));
+                listener.onQuestionsLoaded(questions, new ArrayList<>());
+            }
+            revalidateQuestions(quiz, questionIds, cachedById, servedFromCache, listener);
+        });
+    }
+    
+    private static void revalidateQuestions(Quiz quiz, List<String> questionIds, Map<String, Question> cachedById,
+                                            boolean servedFromCache, OnQuestionsBatchLoadedListener listener) {
+        questionLoads.getAll(questionIds, FirestoreUtils::fetchQuestions, (loadedById, errors) -> {
+            // Copies propres à l'appelant, dans l'ordre du quiz : les questions mémorisées ne doivent pas être modifiées
+            List<Question> questions = new ArrayList<>();
+            for (String id : questionIds) {
+                Question loaded = loadedById.get(id);
+                if (loaded != null) questions.add(new Question(loaded));
+            }
+            
+            List<Question> changed = new ArrayList<>();
+            for (Question question : questions) {
+                Question cached = cachedById.get(question.getId());
+                if (cached == null || cached.getUpdatedAt() != question.getUpdatedAt()) {
+                    changed.add(question);
+                }
+            }
+            QuizCache cache = QuizCache.getInstance();
+            if (cache != null && !changed.isEmpty()) {
+                cache.putQuestions(changed);
+            }
+            
+            if (servedFromCache) {
+                // Version du cache déjà livrée : ne renvoyer qu'une version complète et différente
+                if (!errors.isEmpty()) {
+                    Log.w(TAG, "Questions servies depuis le cache local", errors.get(0));
+                    return;
+                }
+                if (changed.isEmpty()) return;
+            }
+            
+            // Mettre à jour les questions du quiz avec ce qui a pu être chargé
+            if (!questions.isEmpty() || errors.isEmpty()) {
+                quiz.setQuestions(new ArrayList<>(questions));
+            }
+            listener.onQuestionsLoaded(questions, errors);
+        });
+    }
+    
+    private static void fetchQuestions(List<String> questionIds, RequestCoalescer.BulkCallback<String, Question> callback) {
+        QuestionBatchLoader.load(questionIds, FirestoreUtils::fetchQuestionChunk, (questions, chunkErrors) -> {
+            for (Exception e : chunkErrors) {
+                Log.e(TAG, "Erreur lors du chargement d'un lot de questions", e);
+            }
+            Map<String, Question> questionsById = new HashMap<>();
+            for (Question question : questions) {
+                questionsById.put(question.getId(), question);
+            }
+            callback.onResult(questionsById, chunkErrors);
+        });
+    }
+    
+    private static void fetchQuestion(String questionId, RequestCoalescer.Callback<Question> callback) {
+        fetchQuestions(Collections.singletonList(questionId), (questionsById, errors) -> {
+            if (errors.isEmpty()) {
+                callback.onResult(questionsById.get(questionId));
+            } else {
+                callback.onError(errors.get(0));
+            }
+        });
+    }
+    
+    /**
+     * Compteurs du regroupement des chargements de questions
+     */
+    public static RequestCoalescer.Stats getQuestionLoadStats() {
+        return questionLoads.getStats();
+    }
+    
+    /**
+     * Récupère un lot de questions en une seule requête Firestore ; hors ligne, le lot est servi depuis le cache local.
+     */
+    private static void fetchQuestionChunk(List<String> ids, QuestionBatchLoader.ChunkCallback callback) {
+        QuizCache cache = QuizCache.getInstance();
+        FirebaseFirestore.getInstance()
+            .collection("questions")
+            .whereIn(FieldPath.documentId(), ids)
+            .get()
+            .continueWith(DocumentParsing.getExecutor(), task -> {
+                Map<String, Question> questionsById = new HashMap<>();
+                for (Question question : parseQuestions(task.getResult())) {
+                    questionsById.put(question.getId(), question);
+                }
+                return questionsById;
+            })
+            .addOnCompleteListener(task -> {
+                if (task.isSuccessful() && task.getResult() != null) {
+                    callback.onChunkLoaded(task.getResult());
+                    return;
+                }
+                
+                Exception error = task.getException() != null
+                    ? task.getException()
+                    : new Exception("Lot de questions introuvable");
+                if (cache == null) {
+                    callback.onChunkFailed(error);
+                    return;
+                }
+                
+                cache.readQuestions(ids, cachedQuestions -> {
+                    if (cachedQuestions.isEmpty()) {
+                        callback.onChunkFailed(error);
+                    } else {
+                        Log.w(TAG, "Lot de questions servi depuis le cache local", error);
+                        callback.onChunkLoaded(cachedQuestions);
                     }
-                    
-                    // Vérifier si nous avons terminé le chargement de toutes les questions
-                    if (completedQueries[0] >= questionIds.size()) {
-                        if (error[0] != null) {
-                            listener.onError(error[0]);
-                        } else {
-                            // Mettre à jour les questions du quiz
-                            quiz.setQuestions(questions);
-                            listener.onQuestionsLoaded(questions);
+                });
+            });
+    }
+    
+    /**
+     * Charge une page d'une liste de l'accueil (collection "quiz_summaries"), après le curseur startAfter
+     * (null pour la première page). Les résumés reçus sont recopiés dans le cache disque.
+     */
+    public static void loadQuizFeedPage(QuizCache.Feed feed, String authorId, DocumentSnapshot startAfter,
+                                        int pageSize, OnQuizPageLoadedListener listener) {
+        Query query = buildFeedQuery(feed, authorId, pageSize);
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        
+        query.get()
+            .continueWith(DocumentParsing.getExecutor(), task -> new SummaryPage(task.getResult()))
+            .addOnCompleteListener(task -> {
+                if (!task.isSuccessful() || task.getResult() == null) {
+                    Log.w(TAG, "Erreur lors du chargement d'une page de la liste " + feed, task.getException());
+                    listener.onError(task.getException() != null ? task.getException() : new Exception("Liste indisponible"));
+                    return;
+                }
+                
+                List<QuizSummary> summaries = task.getResult().summaries;
+                DocumentSnapshot lastDocument = task.getResult().lastDocument;
+                
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null && !summaries.isEmpty()) {
+                    cache.mergeSummaries(summaries, changed -> { });
+                }
+                listener.onPageLoaded(summaries, lastDocument);
+            });
+    }
+    
+    /**
+     * Écoute en temps réel la première page d'une liste de l'accueil.
+     * L'écouteur renvoyé doit être retiré par l'appelant (voir onStop des fragments).
+     */
+    public static ListenerRegistration listenToQuizFeed(QuizCache.Feed feed, String authorId, int limit,
+                                                        OnQuizFeedChangesListener listener) {
+        final boolean[] firstSnapshot = {true};
+        // Conversion en arrière-plan, un instantané après l'autre pour conserver l'ordre des changements
+        return buildFeedQuery(feed, authorId, limit)
+            .addSnapshotListener(DocumentParsing.getListenerExecutor(), (snapshot, e) -> {
+                if (e != null) {
+                    Log.w(TAG, "Erreur de l'écoute de la liste " + feed, e);
+                    mainHandler.post(() -> listener.onError(e));
+                    return;
+                }
+                if (snapshot == null) return;
+                
+                List<DocumentSnapshot> documents = snapshot.getDocuments();
+                DocumentSnapshot lastDocument = documents.isEmpty() ? null : documents.get(documents.size() - 1);
+                List<QuizSummary> written = new ArrayList<>();
+                
+                if (firstSnapshot[0]) {
+                    firstSnapshot[0] = false;
+                    written.addAll(parseSummaries(documents));
+                    List<QuizSummary> summaries = new ArrayList<>(written);
+                    mainHandler.post(() -> listener.onFirstSnapshot(summaries, lastDocument));
+                } else {
+                    boolean[] unreadable = {false};
+                    List<QuizPager.LiveChange> changes = DocumentParsing.mapAll(snapshot.getDocumentChanges(), change -> {
+                        QuizSummary summary = parseSummary(change.getDocument());
+                        if (change.getType() == DocumentChange.Type.REMOVED) {
+                            // Seule la position compte pour une suppression
+                            if (summary == null) {
+                                summary = new QuizSummary();
+                                summary.setId(change.getDocument().getId());
+                            }
+                            return new QuizPager.LiveChange(QuizPager.LiveChange.Type.REMOVED, change.getOldIndex(), -1, summary);
+                        }
+                        if (summary == null) {
+                            unreadable[0] = true;
+                            return null;
+                        }
+                        written.add(summary);
+                        if (change.getType() == DocumentChange.Type.ADDED) {
+                            return new QuizPager.LiveChange(QuizPager.LiveChange.Type.ADDED, -1, change.getNewIndex(), summary);
                         }
+                        return new QuizPager.LiveChange(QuizPager.LiveChange.Type.MODIFIED, change.getOldIndex(), change.getNewIndex(), summary);
+                    });
+                    if (unreadable[0]) {
+                        // Un changement ignoré décalerait les positions des suivants : la page est remplacée en entier
+                        written.clear();
+                        written.addAll(parseSummaries(documents));
+                        List<QuizSummary> summaries = new ArrayList<>(written);
+                        mainHandler.post(() -> listener.onFirstSnapshot(summaries, lastDocument));
+                    } else if (!changes.isEmpty()) {
+                        mainHandler.post(() -> listener.onChanges(changes, lastDocument));
                     }
-                });
+                }
+                
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null && !written.isEmpty()) {
+                    cache.mergeSummaries(written, changed -> { });
+                }
+            });
+    }
+    
+    /**
+     * Page de résumés convertie en arrière-plan, avec le curseur de la page suivante
+     */
+    private static class SummaryPage {
+        final List<QuizSummary> summaries;
+        final DocumentSnapshot lastDocument;
+        
+        SummaryPage(QuerySnapshot snapshot) {
+            List<DocumentSnapshot> documents = snapshot.getDocuments();
+            summaries = parseSummaries(documents);
+            lastDocument = documents.isEmpty() ? null : documents.get(documents.size() - 1);
         }
     }
     
+    /**
+     * Convertit les documents d'une liste de l'accueil, en ignorant ceux qui sont illisibles (hors thread principal)
+     */
+    static List<QuizSummary> parseSummaries(List<DocumentSnapshot> documents) {
+        return DocumentParsing.mapAll(documents, FirestoreUtils::parseSummary);
+    }
+    
+    private static QuizSummary parseSummary(DocumentSnapshot document) {
+        try {
+            return QuizSummary.fromMap(document.getData(), document.getId());
+        } catch (Exception e) {
+            Log.e(TAG, "Erreur lors de la conversion du document " + document.getId(), e);
+            return null;
+        }
+    }
+    
+    private static List<Question> parseQuestions(QuerySnapshot snapshot) {
+        return DocumentParsing.mapAll(snapshot, document -> Question.fromMap(document.getData(), document.getId()));
+    }
+    
+    /**
+     * Source de pages Firestore pour un QuizPager
+     */
+    public static QuizPager.PageFetcher feedPageFetcher(QuizCache.Feed feed, String authorId) {
+        return (cursor, pageSize, callback) -> loadQuizFeedPage(feed, authorId, (DocumentSnapshot) cursor, pageSize,
+            new OnQuizPageLoadedListener() {
+                @Override
+                public void onPageLoaded(List<QuizSummary> summaries, DocumentSnapshot lastDocument) {
+                    callback.onPageLoaded(summaries, lastDocument);
+                }
+                
+                @Override
+                public void onError(Exception e) {
+                    callback.onPageFailed(e);
+                }
+            });
+    }
+    
+    private static Query buildFeedQuery(QuizCache.Feed feed, String authorId, int limit) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        Query query;
+        switch (feed) {
+            case POPULAR:
+                query = db.collection("quiz_summaries").orderBy("playCount", Query.Direction.DESCENDING);
+                break;
+            case AUTHOR:
+                query = db.collection("quiz_summaries")
+                    .whereEqualTo("authorId", authorId)
+                    .orderBy("createdAt", Query.Direction.DESCENDING);
+                break;
+            case RECENT:
+            default:
+                query = db.collection("quiz_summaries").orderBy("createdAt", Query.Direction.DESCENDING);
+                break;
+        }
+        return limit > 0 ? query.limit(limit) : query;
+    }
+    
     /**
      * Enregistre les questions de démonstration dans Firestore
      */
@@ -200,36 +598,18 @@ public class FirestoreUtils {
         }
         spaceQuiz.setQuestionIds(spaceQuestionIds);
         
-        // Sauvegarder les quizzes
-        final int[] savedCount = {0};
-        final int totalQuizzes = 2;
+        // Sauvegarder les quizzes et leurs résumés
+        WriteBatch batch = db.batch();
+        for (Quiz quiz : new Quiz[] {scienceQuiz, spaceQuiz}) {
+            batch.set(db.collection("quizzes").document(quiz.getId()), quiz.toMap());
+            batch.set(db.collection("quiz_summaries").document(quiz.getId()), QuizSummary.fromQuiz(quiz).toMap());
+        }
         
-        db.collection("quizzes").document(scienceQuiz.getId())
-            .set(scienceQuiz.toMap())
-            .addOnCompleteListener(task -> {
-                savedCount[0]++;
-                
-                if (!task.isSuccessful()) {
-                    Log.e(TAG, "Erreur lors de l'enregistrement du quiz Science", task.getException());
-                }
-                
-                if (savedCount[0] >= totalQuizzes) {
-                    listener.onSuccess();
-                }
-            });
-            
-        db.collection("quizzes").document(spaceQuiz.getId())
-            .set(spaceQuiz.toMap())
-            .addOnCompleteListener(task -> {
-                savedCount[0]++;
-                
-                if (!task.isSuccessful()) {
-                    Log.e(TAG, "Erreur lors de l'enregistrement du quiz Espace", task.getException());
-                }
-                
-                if (savedCount[0] >= totalQuizzes) {
-                    listener.onSuccess();
-                }
+        batch.commit()
+            .addOnSuccessListener(aVoid -> listener.onSuccess())
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Erreur lors de l'enregistrement des quizzes de démonstration", e);
+                listener.onError(e);
             });
     }
     
@@ -356,7 +736,14 @@ public class FirestoreUtils {
         db.collection("questions")
             .document(question.getId())
             .set(question.toMap())
-            .addOnSuccessListener(aVoid -> listener.onSuccess())
+            .addOnSuccessListener(aVoid -> {
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null) {
+                    cache.putQuestions(Collections.singletonList(question));
+                }
+                questionLoads.invalidate(question.getId());
+                listener.onSuccess();
+            })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Erreur lors de l'ajout de la question", e);
                 listener.onError(e);
@@ -379,16 +766,218 @@ public class FirestoreUtils {
             quiz.setCreatedAt(System.currentTimeMillis());
         }
         
-        db.collection("quizzes")
-            .document(quiz.getId())
-            .set(quiz.toMap())
-            .addOnSuccessListener(aVoid -> listener.onSuccess(quiz.getId()))
+        // Écrire le quiz, son résumé et son image ensemble
+        WriteBatch batch = db.batch();
+        batch.set(db.collection("quizzes").document(quiz.getId()), quiz.toMap());
+        batch.set(db.collection("quiz_summaries").document(quiz.getId()), QuizSummary.fromQuiz(quiz).toMap());
+        setQuizImage(db, batch, quiz);
+        batch.commit()
+            .addOnSuccessListener(aVoid -> {
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null) {
+                    cache.putQuizzes(Collections.singletonList(quiz));
+                }
+                quizLoads.invalidate(quiz.getId());
+                listener.onSuccess(quiz.getId());
+            })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Erreur lors de la création du quiz", e);
                 listener.onError(e);
             });
     }
     
+    /**
+     * Génère un nouvel ID de quiz sans écrire dans Firestore
+     */
+    public static String generateQuizId() {
+        return FirebaseFirestore.getInstance().collection("quizzes").document().getId();
+    }
+    
+    /**
+     * Génère un nouvel ID de question sans écrire dans Firestore
+     */
+    public static String generateQuestionId() {
+        return FirebaseFirestore.getInstance().collection("questions").document().getId();
+    }
+    
+    /**
+     * Publie un quiz et toutes ses questions en un minimum d'allers-retours.
+     * Les IDs manquants sont générés à l'avance, puis les écritures sont regroupées dans des
+     * WriteBatch d'au plus {@link #MAX_BATCH_OPERATIONS} opérations. Le quiz est écrit dans le
+     * dernier lot avec son résumé : il n'est visible qu'une fois toutes ses questions enregistrées.
+     * Toutes les écritures sont des set() sur des IDs fixes, un nouvel essai est donc idempotent.
+     */
+    public static void publishQuiz(Quiz quiz, List<Question> questions, OnQuizCreatedListener listener) {
+        publishQuiz(quiz, questions, null, listener);
+    }
+    
+    /**
+     * Publie un quiz en n'écrivant que les questions modifiées depuis la dernière publication
+     * (brouillon) : le quiz référence toujours toutes ses questions.
+     * @param changedQuestionIds Questions à écrire, ou null pour toutes
+     */
+    public static void publishQuiz(Quiz quiz, List<Question> questions, Set<String> changedQuestionIds,
+                                   OnQuizCreatedListener listener) {
+        publishQuiz(quiz, questions, changedQuestionIds, null, false, listener);
+    }
+    
+    /**
+     * Publie les modifications d'un quiz existant : seuls les champs de l'écran d'édition (titre, description,
+     * catégorie, questions, image si une nouvelle a été choisie) sont fusionnés dans le quiz et son résumé.
+     * Le nombre de parties, la note et la date de création restent ceux du document.
+     * @param changedQuestionIds Questions à écrire, ou null pour toutes
+     * @param removedQuestionIds Questions retirées du quiz, supprimées dans les mêmes lots (peut être null)
+     */
+    public static void publishQuizEdits(Quiz quiz, List<Question> questions, Set<String> changedQuestionIds,
+                                        Collection<String> removedQuestionIds, OnQuizCreatedListener listener) {
+        publishQuiz(quiz, questions, changedQuestionIds, removedQuestionIds, true, listener);
+    }
+    
+    private static void publishQuiz(Quiz quiz, List<Question> questions, Set<String> changedQuestionIds,
+                                    Collection<String> removedQuestionIds, boolean editsOnly,
+                                    OnQuizCreatedListener listener) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        
+        if (quiz.getId() == null || quiz.getId().isEmpty()) {
+            quiz.setId(generateQuizId());
+        }
+        if (quiz.getCreatedAt() == 0) {
+            quiz.setCreatedAt(System.currentTimeMillis());
+        }
+        quiz.setUpdatedAt(System.currentTimeMillis());
+        
+        List<String> questionIds = new ArrayList<>();
+        for (Question question : questions) {
+            if (question.getId() == null || question.getId().isEmpty()) {
+                question.setId(generateQuestionId());
+            }
+            questionIds.add(question.getId());
+        }
+        quiz.setQuestionIds(questionIds);
+        quiz.setQuestions(new ArrayList<>(questions));
+        
+        List<String> deletedQuestionIds = new ArrayList<>();
+        if (removedQuestionIds != null) {
+            for (String questionId : removedQuestionIds) {
+                if (questionId != null && !questionId.isEmpty() && !questionIds.contains(questionId)) {
+                    deletedQuestionIds.add(questionId);
+                }
+            }
+        }
+        
+        // Regrouper les écritures en lots, le quiz en dernier
+        List<WriteBatch> batches = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int operations = 0;
+        for (Question question : questions) {
+            if (changedQuestionIds != null && !changedQuestionIds.contains(question.getId())) continue;
+            if (operations == MAX_BATCH_OPERATIONS) {
+                batches.add(batch);
+                batch = db.batch();
+                operations = 0;
+            }
+            batch.set(db.collection("questions").document(question.getId()), question.toMap());
+            operations++;
+        }
+        for (String questionId : deletedQuestionIds) {
+            if (operations == MAX_BATCH_OPERATIONS) {
+                batches.add(batch);
+                batch = db.batch();
+                operations = 0;
+            }
+            batch.delete(db.collection("questions").document(questionId));
+            operations++;
+        }
+        if (operations > MAX_BATCH_OPERATIONS - 3) {
+            batches.add(batch);
+            batch = db.batch();
+        }
+        if (editsOnly) {
+            batch.set(db.collection("quizzes").document(quiz.getId()), editedQuizFields(quiz), SetOptions.merge());
+            batch.set(db.collection("quiz_summaries").document(quiz.getId()), editedSummaryFields(quiz), SetOptions.merge());
+            setQuizImage(db, batch, quiz);
+        } else {
+            batch.set(db.collection("quizzes").document(quiz.getId()), quiz.toMap());
+            batch.set(db.collection("quiz_summaries").document(quiz.getId()), QuizSummary.fromQuiz(quiz).toMap());
+            setQuizImage(db, batch, quiz);
+        }
+        batches.add(batch);
+        
+        commitBatches(batches, 0, new OnOperationCompleteListener() {
+            @Override
+            public void onSuccess() {
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null) {
+                    cache.putQuestions(questions);
+                    for (String questionId : deletedQuestionIds) {
+                        cache.deleteQuestion(questionId);
+                    }
+                    // Modifications fusionnées : la version complète sera relue par loadQuiz (updatedAt a changé)
+                    if (!editsOnly) {
+                        cache.putQuizzes(Collections.singletonList(quiz));
+                    }
+                }
+                quizLoads.invalidate(quiz.getId());
+                for (Question question : questions) {
+                    questionLoads.invalidate(question.getId());
+                }
+                for (String questionId : deletedQuestionIds) {
+                    questionLoads.invalidate(questionId);
+                }
+                listener.onSuccess(quiz.getId());
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Erreur lors de la publication du quiz " + quiz.getId(), e);
+                listener.onError(e);
+            }
+        });
+    }
+    
+    private static Map<String, Object> editedQuizFields(Quiz quiz) {
+        Map<String, Object> fields = editedSummaryFields(quiz);
+        fields.put("description", quiz.getDescription());
+        fields.put("questionIds", quiz.getQuestionIds());
+        return fields;
+    }
+    
+    private static Map<String, Object> editedSummaryFields(Quiz quiz) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("title", quiz.getTitle());
+        fields.put("category", quiz.getCategory());
+        fields.put("questionCount", quiz.getQuestionCount());
+        fields.put("updatedAt", quiz.getUpdatedAt());
+        if (quiz.getThumbnailUrl() != null) {
+            fields.put("thumbnailUrl", quiz.getThumbnailUrl());
+        }
+        return fields;
+    }
+    
+    /**
+     * Ajoute au lot l'écriture de l'image complète du quiz, s'il en a une
+     */
+    private static void setQuizImage(FirebaseFirestore db, WriteBatch batch, Quiz quiz) {
+        if (quiz.getImageUrl() == null || quiz.getImageUrl().isEmpty()) return;
+        batch.set(db.collection(QUIZ_IMAGES_COLLECTION).document(quiz.getId()),
+            Collections.singletonMap("imageUrl", quiz.getImageUrl()));
+    }
+    
+    /**
+     * Valide les lots l'un après l'autre et s'arrête au premier échec
+     */
+    private static void commitBatches(List<WriteBatch> batches, int index, OnOperationCompleteListener listener) {
+        if (index >= batches.size()) {
+            listener.onSuccess();
+            return;
+        }
+        
+        batches.get(index)
+            .commit()
+            .addOnSuccessListener(aVoid -> commitBatches(batches, index + 1, listener))
+            .addOnFailureListener(listener::onError);
+    }
+    
     /**
      * Met à jour un quiz existant avec ses questions dans Firestore
      */
@@ -403,18 +992,131 @@ public class FirestoreUtils {
             }
         }
         quiz.setQuestionIds(questionIds);
+        quiz.setUpdatedAt(System.currentTimeMillis());
         
-        // Mettre à jour le quiz dans Firestore
-        db.collection("quizzes")
-            .document(quiz.getId())
-            .set(quiz.toMap())
-            .addOnSuccessListener(aVoid -> listener.onSuccess())
+        // Mettre à jour le quiz et son résumé dans Firestore
+        WriteBatch batch = db.batch();
+        batch.set(db.collection("quizzes").document(quiz.getId()), quiz.toMap());
+        batch.set(db.collection("quiz_summaries").document(quiz.getId()), QuizSummary.fromQuiz(quiz).toMap());
+        setQuizImage(db, batch, quiz);
+        batch.commit()
+            .addOnSuccessListener(aVoid -> {
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null) {
+                    cache.putQuizzes(Collections.singletonList(quiz));
+                }
+                quizLoads.invalidate(quiz.getId());
+                listener.onSuccess();
+            })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Erreur lors de la mise à jour du quiz", e);
                 listener.onError(e);
             });
     }
     
+    /**
+     * Recrée les résumés de tous les quizzes existants (quizzes créés avant l'introduction de "quiz_summaries")
+     */
+    public static void rebuildQuizSummaries(OnOperationCompleteListener listener) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.collection("quizzes")
+            .get()
+            .addOnSuccessListener(DocumentParsing.getExecutor(), snapshot -> {
+                List<Quiz> quizzes = DocumentParsing.mapAll(snapshot, document -> Quiz.fromMap(document.getData(), document.getId()));
+                List<WriteBatch> batches = new ArrayList<>();
+                WriteBatch batch = db.batch();
+                int operations = 0;
+                for (Quiz quiz : quizzes) {
+                    if (operations == MAX_BATCH_OPERATIONS) {
+                        batches.add(batch);
+                        batch = db.batch();
+                        operations = 0;
+                    }
+                    batch.set(db.collection("quiz_summaries").document(quiz.getId()), QuizSummary.fromQuiz(quiz).toMap());
+                    operations++;
+                }
+                batches.add(batch);
+                commitBatches(batches, 0, listener);
+            })
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Erreur lors de la reconstruction des résumés de quizzes", e);
+                listener.onError(e);
+            });
+    }
+    
+    /**
+     * Déplace l'image complète des quizzes existants vers "quiz_images/{quizId}" et la remplace
+     * sur le quiz et son résumé par une vignette. Traite les quizzes par pages de
+     * {@link #IMAGE_MIGRATION_PAGE_SIZE} (chaque document peut peser jusqu'à 1 Mo) ; un quiz migré
+     * n'a plus de champ "imageUrl", la migration peut donc être relancée sans risque.
+     */
+    public static void migrateQuizImages(OnOperationCompleteListener listener) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.collection("quizzes")
+            .whereNotEqualTo("imageUrl", null)
+            .limit(IMAGE_MIGRATION_PAGE_SIZE)
+            .get()
+            .addOnSuccessListener(DocumentParsing.getExecutor(), snapshot -> {
+                if (snapshot.isEmpty()) {
+                    listener.onSuccess();
+                    return;
+                }
+                
+                WriteBatch batch = db.batch();
+                for (DocumentSnapshot document : snapshot.getDocuments()) {
+                    Quiz quiz = Quiz.fromMap(document.getData(), document.getId());
+                    String image = quiz.getImageUrl();
+                    // Les références courtes (URL, chemin local) servent telles quelles de vignette
+                    quiz.setThumbnailUrl(image.length() > 100 ? MediaUtils.createThumbnailFromBase64(image) : image);
+                    
+                    Map<String, Object> update = new HashMap<>();
+                    update.put("imageUrl", FieldValue.delete());
+                    update.put("thumbnailUrl", quiz.getThumbnailUrl());
+                    batch.update(document.getReference(), update);
+                    batch.set(db.collection("quiz_summaries").document(quiz.getId()), QuizSummary.fromQuiz(quiz).toMap());
+                    setQuizImage(db, batch, quiz);
+                }
+                
+                batch.commit()
+                    .addOnSuccessListener(aVoid -> {
+                        for (DocumentSnapshot document : snapshot.getDocuments()) {
+                            quizLoads.invalidate(document.getId());
+                        }
+                        migrateQuizImages(listener);
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Erreur lors de la migration des images de quiz", e);
+                        listener.onError(e);
+                    });
+            })
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Erreur lors de la recherche des images de quiz à migrer", e);
+                listener.onError(e);
+            });
+    }
+    
+    /**
+     * Charge l'image complète d'un quiz (écran de détail uniquement).
+     * Renvoie null si le quiz n'a pas d'image dans "quiz_images".
+     */
+    public static void loadQuizImage(String quizId, OnQuizImageLoadedListener listener) {
+        FirebaseFirestore.getInstance()
+            .collection(QUIZ_IMAGES_COLLECTION)
+            .document(quizId)
+            .get()
+            .addOnSuccessListener(documentSnapshot -> listener.onImageLoaded(
+                documentSnapshot.exists() ? documentSnapshot.getString("imageUrl") : null))
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Erreur lors du chargement de l'image du quiz " + quizId, e);
+                listener.onError(e);
+            });
+    }
+    
+    public interface OnQuizImageLoadedListener {
+        void onImageLoaded(String imageUrl);
+        void onError(Exception e);
+    }
+    
     /**
      * Supprime un quiz de Firestore
      */
@@ -425,10 +1127,19 @@ public class FirestoreUtils {
         }
         
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        db.collection("quizzes")
-            .document(quizId)
-            .delete()
-            .addOnSuccessListener(aVoid -> listener.onSuccess())
+        WriteBatch batch = db.batch();
+        batch.delete(db.collection("quizzes").document(quizId));
+        batch.delete(db.collection("quiz_summaries").document(quizId));
+        batch.delete(db.collection(QUIZ_IMAGES_COLLECTION).document(quizId));
+        batch.commit()
+            .addOnSuccessListener(aVoid -> {
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null) {
+                    cache.deleteQuiz(quizId);
+                }
+                quizLoads.invalidate(quizId);
+                listener.onSuccess();
+            })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Erreur lors de la suppression du quiz " + quizId, e);
                 listener.onError(e);
@@ -448,7 +1159,14 @@ public class FirestoreUtils {
         db.collection("questions")
             .document(questionId)
             .delete()
-            .addOnSuccessListener(aVoid -> listener.onSuccess())
+            .addOnSuccessListener(aVoid -> {
+                QuizCache cache = QuizCache.getInstance();
+                if (cache != null) {
+                    cache.deleteQuestion(questionId);
+                }
+                questionLoads.invalidate(questionId);
+                listener.onSuccess();
+            })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Erreur lors de la suppression de la question " + questionId, e);
                 listener.onError(e);
@@ -456,7 +1174,10 @@ public class FirestoreUtils {
     }
     
     /**
-     * Charge un quiz spécifique depuis Firestore
+     * Charge un quiz spécifique : la copie du cache local est livrée tout de suite, puis le document Firestore
+     * est relu et livré à nouveau seulement si le quiz n'était pas en cache ou si son updatedAt a changé
+     * (le listener peut donc être appelé deux fois). Une erreur n'est remontée que sans copie locale.
+     * Les demandes simultanées pour le même quiz partagent une seule lecture, et le document est mémorisé.
      */
     public static void loadQuiz(String quizId, OnQuizLoadedListener listener) {
         if (quizId == null || quizId.isEmpty()) {
@@ -464,67 +1185,374 @@ public class FirestoreUtils {
             return;
         }
         
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        db.collection("quizzes")
+        QuizCache cache = QuizCache.getInstance();
+        if (cache == null) {
+            revalidateQuiz(quizId, null, listener);
+            return;
+        }
+        
+        cache.readQuiz(quizId, cached -> {
+            if (cached != null) {
+                listener.onQuizLoaded(cached);
+            }
+            revalidateQuiz(quizId, cached, listener);
+        });
+    }
+    
+    private static void revalidateQuiz(String quizId, Quiz cached, OnQuizLoadedListener listener) {
+        quizLoads.get(quizId, new RequestCoalescer.Callback<DocumentSnapshot>() {
+            @Override
+            public void onResult(DocumentSnapshot documentSnapshot) {
+                DocumentParsing.parseAsync(() -> documentToQuiz(documentSnapshot), mainHandler::post,
+                    new DocumentParsing.ParseCallback<Quiz>() {
+                        @Override
+                        public void onParsed(Quiz quiz) {
+                            if (cached != null && cached.getUpdatedAt() == quiz.getUpdatedAt()) return;
+                            
+                            QuizCache cache = QuizCache.getInstance();
+                            if (cache != null) {
+                                cache.putQuizzes(Collections.singletonList(quiz));
+                            }
+                            listener.onQuizLoaded(quiz);
+                        }
+                        
+                        @Override
+                        public void onError(Exception e) {
+                            Log.e(TAG, "Erreur lors de la conversion du document en quiz", e);
+                            if (cached == null) listener.onError(e);
+                        }
+                    });
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                if (cached != null) {
+                    Log.w(TAG, "Quiz servi depuis le cache local: " + quizId, e);
+                    return;
+                }
+                listener.onError(e);
+            }
+        });
+    }
+    
+    private static void fetchQuizDocument(String quizId, RequestCoalescer.Callback<DocumentSnapshot> callback) {
+        FirebaseFirestore.getInstance()
+            .collection("quizzes")
             .document(quizId)
             .get()
             .addOnSuccessListener(documentSnapshot -> {
                 if (documentSnapshot.exists()) {
-                    try {
-                        String id = documentSnapshot.getId();
-                        String title = documentSnapshot.getString("title");
-                        String description = documentSnapshot.getString("description");
-                        String imageUrl = documentSnapshot.getString("imageUrl");
-                        String authorId = documentSnapshot.getString("authorId");
-                        String authorName = documentSnapshot.getString("authorName");
-                        long playCount = documentSnapshot.getLong("playCount") != null ? documentSnapshot.getLong("playCount") : 0;
-                        double rating = documentSnapshot.getDouble("rating") != null ? documentSnapshot.getDouble("rating") : 0.0;
-                        long createdAt = documentSnapshot.getLong("createdAt") != null ? documentSnapshot.getLong("createdAt") : System.currentTimeMillis();
-                        
-                        Quiz quiz = new Quiz(id, title, description, imageUrl, authorId, authorName);
-                        quiz.setPlayCount((int) playCount);
-                        quiz.setRating(rating);
-                        quiz.setCreatedAt(createdAt);
-                        
-                        // Récupérer la liste des IDs de questions
-                        List<String> questionIds = (List<String>) documentSnapshot.get("questionIds");
-                        if (questionIds != null) {
-                            quiz.setQuestionIds(questionIds);
-                        }
-                        
-                        listener.onQuizLoaded(quiz);
-                    } catch (Exception e) {
-                        Log.e(TAG, "Erreur lors de la conversion du document en quiz", e);
-                        listener.onError(e);
-                    }
+                    callback.onResult(documentSnapshot);
                 } else {
-                    listener.onError(new Exception("Quiz non trouvé"));
+                    callback.onError(new Exception("Quiz non trouvé"));
                 }
             })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Erreur lors du chargement du quiz " + quizId, e);
-                listener.onError(e);
+                callback.onError(e);
             });
     }
     
+    private static Quiz documentToQuiz(DocumentSnapshot documentSnapshot) {
+        DocumentParsing.reportIfMainThread();
+        // getData() renvoie une nouvelle map : le document reste intact pour les autres appelants
+        Map<String, Object> data = documentSnapshot.getData();
+        if (data == null) data = new HashMap<>();
+        Quiz quiz = Quiz.fromMap(data, documentSnapshot.getId());
+        if (data.get("updatedAt") == null) {
+            quiz.setUpdatedAt(quiz.getCreatedAt());
+        }
+        return quiz;
+    }
+    
+    /**
+     * Compteurs du regroupement des chargements de quiz
+     */
+    public static RequestCoalescer.Stats getQuizLoadStats() {
+        return quizLoads.getStats();
+    }
+    
     public interface OnQuizLoadedListener {
         void onQuizLoaded(Quiz quiz);
         void onError(Exception e);
     }
     
     /**
-     * Incrémente le compteur de lectures d'un quiz
+     * Incrémente le compteur de lectures d'un quiz. L'incrément est cumulé dans la file d'écritures différées,
+     * puis envoyé sur un shard de "counters/{quizId}/shards" ; Quiz.playCount (utilisé pour le tri)
+     * n'est mis à jour que lors du report périodique.
      */
     public static void incrementQuizPlayCount(String quizId) {
         if (quizId == null || quizId.isEmpty()) {
             return;
         }
         
+        enqueueIncrement(COUNTERS_COLLECTION + "/" + quizId, "count", 1);
+    }
+    
+    /**
+     * Initialise la file d'écritures différées (appelé depuis QuizApplication).
+     * Les incréments restés en attente lors du dernier arrêt du processus sont renvoyés.
+     */
+    public static void initWriteBehind(Context context) {
+        synchronized (FirestoreUtils.class) {
+            if (writeBehind != null) return;
+            writeBehind = new WriteBehindBuffer(new PendingWritesStore(context), FirestoreUtils::writeIncrements);
+        }
+        if (!writeBehind.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+    
+    /**
+     * Envoie immédiatement les incréments en attente (ex. quand l'application passe en arrière-plan)
+     */
+    public static void flushPendingWrites() {
+        WriteBehindBuffer buffer = writeBehind;
+        if (buffer == null) return;
+        
+        buffer.flush(new WriteBehindBuffer.OnFlushListener() {
+            @Override
+            public void onSuccess() {
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Envoi des incréments en attente échoué, nouvel essai plus tard", e);
+                scheduleFlush();
+            }
+        });
+    }
+    
+    private static void enqueueIncrement(String documentPath, String field, long delta) {
+        WriteBehindBuffer buffer = writeBehind;
+        if (buffer == null) {
+            // File non initialisée : écriture directe
+            Map<String, Map<String, Long>> deltas = new HashMap<>();
+            deltas.put(documentPath, Collections.singletonMap(field, delta));
+            writeIncrements(deltas, new WriteBehindBuffer.OnFlushListener() {
+                @Override
+                public void onSuccess() {
+                }
+                
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Erreur lors de l'incrémentation de " + documentPath + "." + field, e);
+                }
+            });
+            return;
+        }
+        
+        buffer.add(documentPath, field, delta);
+        scheduleFlush();
+    }
+    
+    private static synchronized void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        mainHandler.postDelayed(() -> {
+            synchronized (FirestoreUtils.class) {
+                flushScheduled = false;
+            }
+            flushPendingWrites();
+        }, WRITE_BEHIND_INTERVAL_MS);
+    }
+    
+    /**
+     * Programme le report des compteurs incrémentés depuis leur dernier report, jusqu'à ce qu'il n'en reste plus
+     */
+    private static synchronized void scheduleRollUp() {
+        if (rollUpScheduled || !playCounter.hasPendingRollUps()) return;
+        rollUpScheduled = true;
+        mainHandler.postDelayed(() -> {
+            synchronized (FirestoreUtils.class) {
+                rollUpScheduled = false;
+            }
+            playCounter.rollUpPending();
+            scheduleRollUp();
+        }, playCounter.getRollUpIntervalMs());
+    }
+    
+    /**
+     * Envoie des incréments cumulés en WriteBatch de FieldValue.increment.
+     * Les documents de "counters" sont des compteurs répartis : l'incrément va sur un de leurs shards.
+     */
+    private static void writeIncrements(Map<String, Map<String, Long>> deltas, WriteBehindBuffer.OnFlushListener listener) {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        db.collection("quizzes").document(quizId)
-            .update("playCount", com.google.firebase.firestore.FieldValue.increment(1))
-            .addOnFailureListener(e -> 
-                Log.e(TAG, "Erreur lors de l'incrémentation du compteur de lecture pour " + quizId, e)
-            );
+        List<String> counterIds = new ArrayList<>();
+        List<WriteBatch> batches = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int operations = 0;
+        
+        for (Map.Entry<String, Map<String, Long>> document : deltas.entrySet()) {
+            if (operations == MAX_BATCH_OPERATIONS) {
+                batches.add(batch);
+                batch = db.batch();
+                operations = 0;
+            }
+            
+            String path = document.getKey();
+            DocumentReference reference;
+            if (path.startsWith(COUNTERS_COLLECTION + "/")) {
+                counterIds.add(path.substring(COUNTERS_COLLECTION.length() + 1));
+                reference = db.document(path).collection("shards").document(String.valueOf(playCounter.pickShard()));
+            } else {
+                reference = db.document(path);
+            }
+            
+            // set + merge crée le document s'il n'existe pas ; les champs "a.b" deviennent des maps imbriquées,
+            // dont les clés sont prises telles quelles (un "." échappé reste dans le nom du champ)
+            batch.set(reference, toIncrementMap(document.getValue()), SetOptions.merge());
+            operations++;
+        }
+        batches.add(batch);
+        
+        commitBatches(batches, 0, new OnOperationCompleteListener() {
+            @Override
+            public void onSuccess() {
+                for (String counterId : counterIds) {
+                    playCounter.rollUpIfDue(counterId);
+                }
+                scheduleRollUp();
+                listener.onSuccess();
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toIncrementMap(Map<String, Long> fields) {
+        Map<String, Object> update = new HashMap<>();
+        for (Map.Entry<String, Long> field : fields.entrySet()) {
+            List<String> parts = splitFieldPath(field.getKey());
+            Map<String, Object> target = update;
+            for (int i = 0; i < parts.size() - 1; i++) {
+                Object child = target.get(parts.get(i));
+                if (!(child instanceof Map)) {
+                    child = new HashMap<String, Object>();
+                    target.put(parts.get(i), child);
+                }
+                target = (Map<String, Object>) child;
+            }
+            target.put(parts.get(parts.size() - 1), FieldValue.increment(field.getValue()));
+        }
+        return update;
+    }
+    
+    /**
+     * Découpe un champ de la file sur les ".", sauf ceux échappés par "\"
+     */
+    private static List<String> splitFieldPath(String path) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\' && i + 1 < path.length()) {
+                part.append(path.charAt(++i));
+            } else if (c == '.') {
+                parts.add(part.toString());
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(part.toString());
+        return parts;
+    }
+    
+    /**
+     * Recopie immédiatement le total des shards dans le playCount du quiz et de son résumé
+     */
+    public static void rollUpQuizPlayCount(String quizId, OnOperationCompleteListener listener) {
+        playCounter.rollUp(quizId, new ShardedCounter.OnCounterOperationListener() {
+            @Override
+            public void onSuccess() {
+                quizLoads.invalidate(quizId);
+                listener.onSuccess();
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+    
+    /**
+     * Shards des compteurs de parties dans Firestore.
+     * Le document "counters/{quizId}" garde la valeur de playCount au moment de la création du compteur
+     * ("base"), pour que les parties comptées avant l'introduction des shards ne soient pas perdues.
+     */
+    private static class PlayCountShardStore implements ShardedCounter.ShardStore {
+        
+        @Override
+        public void incrementShard(String counterId, int shard, long delta, ShardedCounter.OnCounterOperationListener listener) {
+            // set + merge crée le shard s'il n'existe pas encore
+            Map<String, Object> update = new HashMap<>();
+            update.put("count", FieldValue.increment(delta));
+            FirebaseFirestore.getInstance()
+                .collection(COUNTERS_COLLECTION).document(counterId)
+                .collection("shards").document(String.valueOf(shard))
+                .set(update, SetOptions.merge())
+                .addOnSuccessListener(aVoid -> listener.onSuccess())
+                .addOnFailureListener(listener::onError);
+        }
+        
+        @Override
+        public void readTotal(String counterId, ShardedCounter.OnTotalListener listener) {
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            DocumentReference counterRef = db.collection(COUNTERS_COLLECTION).document(counterId);
+            DocumentReference quizRef = db.collection("quizzes").document(counterId);
+            
+            // La base n'est fixée qu'une fois, en transaction pour qu'aucun report concurrent ne la double
+            Task<Long> baseTask = db.runTransaction(transaction -> {
+                DocumentSnapshot counter = transaction.get(counterRef);
+                if (counter.exists()) {
+                    Long base = counter.getLong("base");
+                    return base != null ? base : 0L;
+                }
+                
+                DocumentSnapshot quiz = transaction.get(quizRef);
+                Long playCount = quiz.exists() ? quiz.getLong("playCount") : null;
+                long base = playCount != null ? playCount : 0L;
+                Map<String, Object> data = new HashMap<>();
+                data.put("base", base);
+                data.put("createdAt", System.currentTimeMillis());
+                transaction.set(counterRef, data);
+                return base;
+            });
+            Task<QuerySnapshot> shardsTask = counterRef.collection("shards").get();
+            
+            Tasks.whenAllSuccess(baseTask, shardsTask)
+                .addOnSuccessListener(results -> {
+                    long total = (Long) results.get(0);
+                    for (DocumentSnapshot shard : ((QuerySnapshot) results.get(1)).getDocuments()) {
+                        Long count = shard.getLong("count");
+                        total += count != null ? count : 0L;
+                    }
+                    listener.onTotal(total);
+                })
+                .addOnFailureListener(listener::onError);
+        }
+        
+        @Override
+        public void writeTotal(String counterId, long total, ShardedCounter.OnCounterOperationListener listener) {
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            db.collection("quizzes").document(counterId)
+                .update("playCount", total)
+                .addOnSuccessListener(aVoid -> listener.onSuccess())
+                .addOnFailureListener(listener::onError);
+            
+            // Mise à jour séparée : un quiz sans résumé ne doit pas faire échouer le report principal
+            db.collection("quiz_summaries").document(counterId)
+                .update("playCount", total)
+                .addOnFailureListener(e -> 
+                    Log.w(TAG, "Résumé introuvable pour le quiz " + counterId, e)
+                );
+        }
     }
-} 
\ No newline at end of file
+}
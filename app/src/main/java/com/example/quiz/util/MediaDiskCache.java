@@ -0,0 +1,294 @@
+package com.example.quiz.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Quota disque du dossier des médias : quand la taille totale dépasse le quota, les fichiers les moins
+ * récemment utilisés sont supprimés, sauf les fichiers épinglés (médias des brouillons non publiés)
+ * et ceux que l'EvictionGuard refuse de supprimer (ex. seule copie d'un média créé sur l'appareil).
+ * L'index (taille, dernier accès, épinglage) est enregistré dans le dossier : au démarrage, il est relu
+ * sans parcourir les fichiers. Les accès ne marquent l'index que comme modifié ; il est écrit
+ * lors des ajouts, suppressions et épinglages, ou par {@link #flush()}.
+ */
+public class MediaDiskCache {
+    public static final long DEFAULT_QUOTA_BYTES = 200L * 1024 * 1024;
+
+    private static final String INDEX_FILE = ".lru-index";
+
+    /**
+     * Prévenu de chaque fichier supprimé par le quota (ex. pour l'oublier dans ContentAddressedStore)
+     */
+    public interface OnEvictedListener {
+        void onEvicted(String filename);
+    }
+
+    /**
+     * Indique si un fichier peut être supprimé par le quota
+     */
+    public interface EvictionGuard {
+        boolean canEvict(String filename);
+    }
+
+    public static class Stats {
+        public final long bytesUsed;
+        public final long quotaBytes;
+        public final long hits;       // Fichier demandé présent sur le disque
+        public final long misses;     // Fichier demandé absent (jamais stocké ou supprimé)
+        public final long evictions;  // Fichiers supprimés pour respecter le quota
+
+        Stats(long bytesUsed, long quotaBytes, long hits, long misses, long evictions) {
+            this.bytesUsed = bytesUsed;
+            this.quotaBytes = quotaBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "bytesUsed=" + bytesUsed + "/" + quotaBytes + ", hits=" + hits + ", misses=" + misses
+                + ", hitRate=" + String.format(Locale.ROOT, "%.2f", getHitRate()) + ", evictions=" + evictions;
+        }
+    }
+
+    private static class Entry {
+        long size;
+        long lastAccess;
+        boolean pinned;
+
+        Entry(long size, long lastAccess, boolean pinned) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+            this.pinned = pinned;
+        }
+    }
+
+    private final File directory;
+    private final File indexFile;
+    private final OnEvictedListener evictedListener;
+    private final EvictionGuard evictionGuard;
+    private long quotaBytes;
+
+    // Du moins au plus récemment utilisé (voir touch)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private long bytesUsed = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private boolean dirty = false;
+
+    public MediaDiskCache(File directory, long quotaBytes, OnEvictedListener evictedListener) throws IOException {
+        this(directory, quotaBytes, evictedListener, null);
+    }
+
+    /**
+     * @param evictionGuard consulté avant chaque suppression par le quota (peut être null)
+     */
+    public MediaDiskCache(File directory, long quotaBytes, OnEvictedListener evictedListener,
+                          EvictionGuard evictionGuard) throws IOException {
+        this.directory = directory;
+        this.indexFile = new File(directory, INDEX_FILE);
+        this.quotaBytes = quotaBytes;
+        this.evictedListener = evictedListener;
+        this.evictionGuard = evictionGuard;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Impossible de créer le dossier " + directory);
+        }
+        loadIndex();
+    }
+
+    /**
+     * Enregistre un fichier ajouté au dossier (ou remplacé), puis applique le quota
+     */
+    public synchronized void recordAdded(String filename) throws IOException {
+        long size = new File(directory, filename).length();
+        Entry entry = entries.get(filename);
+        if (entry != null) {
+            bytesUsed += size - entry.size;
+            entry.size = size;
+            touch(filename, entry);
+        } else {
+            entries.put(filename, new Entry(size, now(), false));
+            bytesUsed += size;
+        }
+        trimToQuota();
+        saveIndex();
+    }
+
+    /**
+     * Renvoie le fichier demandé et le marque comme récemment utilisé ; null s'il n'est pas sur le disque
+     */
+    public synchronized File get(String filename) {
+        File file = new File(directory, filename);
+        Entry entry = entries.get(filename);
+        if (entry != null) {
+            if (file.exists()) {
+                hits++;
+                touch(filename, entry);
+                dirty = true;
+                return file;
+            }
+            // Supprimé hors du cache : oublier l'entrée
+            entries.remove(filename);
+            bytesUsed -= entry.size;
+            dirty = true;
+        } else if (file.exists()) {
+            hits++; // Fichier non suivi (antérieur à l'index), jamais supprimé par le quota
+            return file;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Épingle un fichier : il n'est jamais supprimé par le quota tant qu'il n'est pas désépinglé
+     */
+    public synchronized void pin(String filename) throws IOException {
+        setPinned(filename, true);
+    }
+
+    public synchronized void unpin(String filename) throws IOException {
+        setPinned(filename, false);
+        trimToQuota();
+        saveIndex();
+    }
+
+    public synchronized boolean isPinned(String filename) {
+        Entry entry = entries.get(filename);
+        return entry != null && entry.pinned;
+    }
+
+    /**
+     * Oublie un fichier supprimé par ailleurs (ex. média plus référencé)
+     */
+    public synchronized void recordRemoved(String filename) throws IOException {
+        Entry entry = entries.remove(filename);
+        if (entry != null) {
+            bytesUsed -= entry.size;
+            saveIndex();
+        }
+    }
+
+    public synchronized void setQuotaBytes(long quotaBytes) throws IOException {
+        this.quotaBytes = quotaBytes;
+        trimToQuota();
+        saveIndex();
+    }
+
+    /**
+     * Écrit l'index si des accès l'ont modifié depuis la dernière écriture
+     */
+    public synchronized void flush() throws IOException {
+        if (dirty) {
+            saveIndex();
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(bytesUsed, quotaBytes, hits, misses, evictions);
+    }
+
+    // Place le fichier en fin d'ordre (le plus récemment utilisé)
+    private void touch(String filename, Entry entry) {
+        entry.lastAccess = now();
+        entries.remove(filename);
+        entries.put(filename, entry);
+    }
+
+    private void setPinned(String filename, boolean pinned) throws IOException {
+        Entry entry = entries.get(filename);
+        if (entry == null) {
+            File file = new File(directory, filename);
+            if (!file.exists()) {
+                throw new IOException("Fichier inconnu: " + filename);
+            }
+            entry = new Entry(file.length(), now(), pinned);
+            entries.put(filename, entry);
+            bytesUsed += entry.size;
+        }
+        entry.pinned = pinned;
+        saveIndex();
+    }
+
+    // Supprime les fichiers non épinglés les moins récemment utilisés jusqu'à repasser sous le quota
+    private void trimToQuota() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (bytesUsed > quotaBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (eldest.getValue().pinned) continue;
+            if (evictionGuard != null && !evictionGuard.canEvict(eldest.getKey())) continue;
+
+            File file = new File(directory, eldest.getKey());
+            if (file.exists() && !file.delete()) continue;
+
+            iterator.remove();
+            bytesUsed -= eldest.getValue().size;
+            evictions++;
+            if (evictedListener != null) {
+                evictedListener.onEvicted(eldest.getKey());
+            }
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        if (!indexFile.exists()) return;
+
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] row = line.split("\t");
+                if (row.length == 4) rows.add(row);
+            }
+        }
+        // Réinsérer par dernier accès croissant pour retrouver l'ordre LRU
+        Collections.sort(rows, (a, b) -> Long.compare(Long.parseLong(a[2]), Long.parseLong(b[2])));
+        for (String[] row : rows) {
+            Entry entry = new Entry(Long.parseLong(row[1]), Long.parseLong(row[2]), "1".equals(row[3]));
+            entries.put(row[0], entry);
+            bytesUsed += entry.size;
+        }
+    }
+
+    // Écriture dans un fichier temporaire puis renommage : l'index n'est jamais à moitié écrit
+    private void saveIndex() throws IOException {
+        File temp = new File(directory, INDEX_FILE + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue().size + "\t"
+                    + entry.getValue().lastAccess + "\t" + (entry.getValue().pinned ? "1" : "0"));
+                writer.newLine();
+            }
+        }
+        if (!temp.renameTo(indexFile)) {
+            throw new IOException("Impossible d'enregistrer l'index du cache de médias");
+        }
+        dirty = false;
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+}
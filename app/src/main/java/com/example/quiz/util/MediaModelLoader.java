@@ -0,0 +1,179 @@
+package com.example.quiz.util;
+
+import android.content.Context;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ModelLoader Glide pour les MediaReference : Glide s'occupe ensuite du décodage à la taille de la vue,
+ * des caches mémoire et disque, du recyclage des bitmaps et de l'annulation liée au cycle de vie.
+ * Enregistré par QuizGlideModule.
+ */
+public class MediaModelLoader implements ModelLoader<MediaReference, InputStream> {
+    private final Context context;
+
+    MediaModelLoader(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull MediaReference model, int width, int height, @NonNull Options options) {
+        return new LoadData<>(model, new MediaDataFetcher(context, model));
+    }
+
+    @Override
+    public boolean handles(@NonNull MediaReference model) {
+        return true;
+    }
+
+    public static class Factory implements ModelLoaderFactory<MediaReference, InputStream> {
+        private final Context context;
+
+        public Factory(Context context) {
+            this.context = context;
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<MediaReference, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new MediaModelLoader(context);
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+
+    /**
+     * Lit les octets du média ; appelé par Glide sur ses threads d'arrière-plan
+     */
+    static class MediaDataFetcher implements DataFetcher<InputStream> {
+        private final Context context;
+        private final MediaReference reference;
+        private volatile boolean cancelled;
+        private InputStream stream;
+
+        MediaDataFetcher(Context context, MediaReference reference) {
+            this.context = context;
+            this.reference = reference;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            try {
+                stream = open();
+                if (cancelled) {
+                    cleanup();
+                    return;
+                }
+                callback.onDataReady(stream);
+            } catch (Exception e) {
+                callback.onLoadFailed(e);
+            }
+        }
+
+        private InputStream open() throws Exception {
+            switch (reference.getType()) {
+                case BASE64:
+                    return decodeBase64(reference.getValue());
+                case LOCAL_FILE:
+                    return openFile(reference.getValue());
+                case QUESTION:
+                default:
+                    return openQuestionMedia();
+            }
+        }
+
+        /**
+         * Fichier référencé dans "question_media" (son affiche pour une vidéo), sinon image Base64 de la question
+         */
+        private InputStream openQuestionMedia() throws Exception {
+            // Référence résolue par lots (MediaUtils.preloadMediaForQuiz), sinon lue ici
+            MediaUtils.MediaRef ref = MediaUtils.getCachedMediaRef(reference.getQuestionId());
+            if (ref == null) {
+                ref = MediaUtils.MediaRef.fromSnapshot(Tasks.await(FirebaseFirestore.getInstance()
+                    .collection("question_media")
+                    .document(reference.getQuestionId())
+                    .get()));
+            }
+            String filename = ref.filename;
+            if (filename != null && ref.isVideo()) {
+                // Jamais la vidéo elle-même : elle n'est chargée qu'à la lecture
+                String poster = ref.posterBase64;
+                MediaUtils.VideoInfo info = poster == null ? MediaUtils.getVideoInfo(context, filename) : null;
+                if (info != null) poster = info.posterBase64;
+                if (poster == null) {
+                    throw new FileNotFoundException("Aucune affiche pour la vidéo " + filename);
+                }
+                return decodeBase64(poster);
+            }
+            if (filename != null) {
+                return openFile(filename);
+            }
+            if (reference.getValue() != null && !reference.getValue().isEmpty()) {
+                return decodeBase64(reference.getValue());
+            }
+            throw new FileNotFoundException("Aucun média pour la question " + reference.getQuestionId());
+        }
+
+        private InputStream openFile(String filename) throws FileNotFoundException {
+            File file = MediaUtils.getMediaFile(context, filename);
+            if (file == null || !file.exists()) {
+                throw new FileNotFoundException("Fichier média non trouvé: " + filename);
+            }
+            return new FileInputStream(file);
+        }
+
+        private static InputStream decodeBase64(String base64) {
+            return new ByteArrayInputStream(Base64.decode(base64, Base64.DEFAULT));
+        }
+
+        @Override
+        public void cleanup() {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                    // Rien à faire
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.LOCAL;
+        }
+    }
+}
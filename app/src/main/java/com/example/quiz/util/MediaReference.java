@@ -0,0 +1,109 @@
+package com.example.quiz.util;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Key;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+
+/**
+ * Référence vers un média de quiz, à passer à Glide.load() (voir MediaModelLoader) :
+ * une image Base64, un fichier de "quiz_media" (MediaUtils.getMediaFile) ou le média d'une question,
+ * résolu via "question_media". Sert aussi de clé de cache Glide, calculée sans parcourir le Base64.
+ */
+public final class MediaReference implements Key {
+    // En deçà, une référence est un nom de fichier ; au-delà, du Base64 (même règle que les adaptateurs)
+    private static final int MAX_FILENAME_LENGTH = 100;
+
+    public enum Type {
+        BASE64,
+        LOCAL_FILE,
+        QUESTION
+    }
+
+    private final Type type;
+    private final String value;
+    private final String questionId;
+    private final String cacheKey;
+
+    private MediaReference(Type type, String value, String questionId, String cacheKey) {
+        this.type = type;
+        this.value = value;
+        this.questionId = questionId;
+        this.cacheKey = cacheKey;
+    }
+
+    /**
+     * Référence stockée sur un quiz ou une question : Base64 ou nom de fichier dans "quiz_media".
+     * Renvoie null si la référence est vide ; les URL http sont à passer directement à Glide.
+     */
+    public static MediaReference of(String reference) {
+        if (reference == null || reference.isEmpty()) return null;
+        if (reference.length() > MAX_FILENAME_LENGTH) {
+            return new MediaReference(Type.BASE64, reference, null, base64Key(reference));
+        }
+        return new MediaReference(Type.LOCAL_FILE, reference, null, "file:" + reference);
+    }
+
+    /**
+     * Média d'une question : la référence de "question_media/{questionId}" si elle existe,
+     * sinon l'image Base64 stockée sur la question (inlineBase64, peut être null)
+     */
+    public static MediaReference forQuestion(@NonNull String questionId, String inlineBase64) {
+        String key = "question:" + questionId + (inlineBase64 != null ? ":" + base64Key(inlineBase64) : "");
+        return new MediaReference(Type.QUESTION, inlineBase64, questionId, key);
+    }
+
+    /**
+     * Modèle à passer à Glide.load() pour une référence stockée : l'URL elle-même pour http(s),
+     * une MediaReference sinon, ou null (image de repli de Glide) si la référence est vide
+     */
+    public static Object glideModel(String reference) {
+        if (reference != null && reference.startsWith("http")) {
+            return reference;
+        }
+        return of(reference);
+    }
+
+    // Longueur + hashCode (mémorisé par String) : pas de hachage d'un Mo de texte à chaque chargement
+    private static String base64Key(String base64) {
+        return "base64:" + base64.length() + ":" + Integer.toHexString(base64.hashCode());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Base64 ou nom de fichier ; pour une question, le Base64 de repli
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public String getQuestionId() {
+        return questionId;
+    }
+
+    @Override
+    public void updateDiskCacheKey(@NonNull MessageDigest messageDigest) {
+        messageDigest.update(cacheKey.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MediaReference && cacheKey.equals(((MediaReference) o).cacheKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return cacheKey.hashCode();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return cacheKey;
+    }
+}
@@ -3,23 +3,48 @@ package com.example.quiz.util;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
 import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Base64;
+import android.util.Base64OutputStream;
 import android.util.Log;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
 
+import com.bumptech.glide.Glide;
 import com.example.quiz.model.Question;
+import com.example.quiz.model.Quiz;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Classe utilitaire pour gérer les médias (images, vidéos, sons)
@@ -28,30 +53,222 @@ import java.util.UUID;
 public class MediaUtils {
     private static final String TAG = "MediaUtils";
     private static final int MAX_IMAGE_DIMENSION = 800; // Taille max pour une image
-    private static final int MAX_BASE64_SIZE = 1024 * 1024; // 1MB max pour stocker en base64 dans Firestore
+    private static final int MAX_BASE64_SIZE = 1024 * 1024; // 1MB max de texte base64 dans un document Firestore
+    private static final int THUMBNAIL_DIMENSION = 320; // Vignette des cartes (250 x 120 dp)
+    private static final int THUMBNAIL_BASE64_SIZE = 12 * 1024; // Quelques Ko sur le résumé du quiz
     private static final String MEDIA_DIR = "quiz_media";
+    private static final String QUESTION_MEDIA_COLLECTION = "question_media";
+    private static final String CHUNKS_COLLECTION = "chunks"; // Blocs d'un média, sous "question_media/{id}"
+    private static final String BLOB_FIELD = "blob"; // Manifeste ChunkedBlobStore du média
+    private static final String DOWNLOAD_PREFIX = ".download-";
+    private static final String VIDEO_INFO_DIR = "video_info"; // Affiche et durée de chaque vidéo de MEDIA_DIR
+    private static final long POSTER_FRAME_TIME_US = 1_000_000; // Après les fondus d'ouverture
+
+    // Lecture des fichiers et vérification des blocs, hors du thread principal
+    private static final ExecutorService blobExecutor = Executors.newSingleThreadExecutor(
+        runnable -> new Thread(runnable, "media-blob"));
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static ChunkedBlobStore blobStore; // Créé au premier envoi ou téléchargement
+    private static final LruCache<String, VideoInfo> videoInfoCache = new LruCache<>(32);
+    private static final Map<String, MediaRef> mediaRefs = new ConcurrentHashMap<>(); // Par ID de question
+    
+    private static ContentAddressedStore mediaStore; // Fichiers de MEDIA_DIR, créé au premier accès
+    private static MediaDiskCache mediaCache; // Quota disque de MEDIA_DIR, créé au premier accès
 
     /**
-     * Convertit une image en chaîne Base64 pour stockage dans Firestore
-     * (uniquement pour les petites images)
+     * Convertit une image en chaîne Base64 (JPEG) pour stockage dans Firestore
      */
     public static String imageToBase64(Bitmap bitmap) {
+        return imageToBase64(bitmap, MAX_BASE64_SIZE, false);
+    }
+    
+    /**
+     * Convertit une image en chaîne Base64 d'au plus maxBase64Length caractères, avec la meilleure qualité
+     * qui tient (voir CompressionSearch) : la qualité puis, si besoin, la dimension sont réduites.
+     * Une image valide donne toujours un résultat : si rien ne tient, c'est le plus petit encodage possible.
+     * Les essais ne font que compter les octets ; seul l'encodage final est conservé, écrit directement
+     * en Base64 dans un tampon de la taille exacte du résultat.
+     *
+     * @param webp WebP avec perte au lieu de JPEG (plus compact, lisible par BitmapFactory)
+     */
+    public static String imageToBase64(Bitmap bitmap, int maxBase64Length, boolean webp) {
+        return encodeBase64(bitmap, MAX_IMAGE_DIMENSION, maxBase64Length, webp);
+    }
+    
+    /**
+     * Images d'un quiz : la vignette, stockée sur le quiz et son résumé pour les listes,
+     * et l'image complète, stockée à part dans "quiz_images/{quizId}" et lue seulement sur l'écran de détail
+     */
+    public static class QuizImages {
+        public final String thumbnail;
+        public final String fullImage;
+        
+        QuizImages(String thumbnail, String fullImage) {
+            this.thumbnail = thumbnail;
+            this.fullImage = fullImage;
+        }
+    }
+    
+    /**
+     * Génère la vignette et l'image complète d'un quiz (à appeler hors du thread principal)
+     */
+    public static QuizImages createQuizImages(Bitmap bitmap) {
+        if (bitmap == null) return null;
+        return new QuizImages(createThumbnail(bitmap), imageToBase64(bitmap));
+    }
+    
+    /**
+     * Lit l'image choisie pour un quiz, sous-échantillonnée à MAX_IMAGE_DIMENSION, et génère ses deux versions
+     * hors du thread principal. Le résultat (null si l'image est illisible) est rendu sur le thread principal.
+     */
+    public static void createQuizImages(@NonNull Context context, @NonNull Uri imageUri,
+                                        @NonNull OnQuizImagesCreatedListener listener) {
+        Context appContext = context.getApplicationContext();
+        blobExecutor.execute(() -> {
+            QuizImages images = null;
+            try {
+                images = createQuizImages(decodeSampledImage(appContext, imageUri, MAX_IMAGE_DIMENSION));
+            } catch (IOException | SecurityException e) {
+                Log.e(TAG, "Erreur lors de la lecture de l'image du quiz: " + imageUri, e);
+            }
+            QuizImages result = images;
+            mainHandler.post(() -> listener.onQuizImagesCreated(result));
+        });
+    }
+    
+    /**
+     * Décode une image d'un content:// au plus près de maxDimension : les dimensions sont lues d'abord
+     */
+    private static Bitmap decodeSampledImage(Context context, Uri imageUri, int maxDimension) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream is = context.getContentResolver().openInputStream(imageUri)) {
+            if (is == null) return null;
+            BitmapFactory.decodeStream(is, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null; // Pas une image lisible
+        }
+        
+        options.inSampleSize = BitmapSampling.calculateInSampleSize(
+            options.outWidth, options.outHeight, maxDimension, maxDimension);
+        options.inJustDecodeBounds = false;
+        try (InputStream is = context.getContentResolver().openInputStream(imageUri)) {
+            return is != null ? BitmapFactory.decodeStream(is, null, options) : null;
+        }
+    }
+    
+    /**
+     * Vignette Base64 de quelques Ko
+     */
+    public static String createThumbnail(Bitmap bitmap) {
+        return encodeBase64(bitmap, THUMBNAIL_DIMENSION, THUMBNAIL_BASE64_SIZE, false);
+    }
+    
+    /**
+     * Vignette Base64 d'une image déjà encodée (migration des quiz existants), ou null si l'image est illisible
+     */
+    public static String createThumbnailFromBase64(String base64) {
+        Bitmap bitmap;
+        try {
+            bitmap = base64ToImage(base64, THUMBNAIL_DIMENSION, THUMBNAIL_DIMENSION, false);
+        } catch (IllegalArgumentException e) {
+            return null; // Pas du Base64
+        }
         if (bitmap == null) return null;
         
-        // Réduire la taille de l'image si nécessaire
-        Bitmap resizedBitmap = resizeImageIfNeeded(bitmap);
+        try {
+            return createThumbnail(bitmap);
+        } finally {
+            bitmap.recycle();
+        }
+    }
+    
+    private static String encodeBase64(Bitmap bitmap, int maxImageDimension, int maxBase64Length, boolean webp) {
+        if (bitmap == null) return null;
         
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        resizedBitmap.compress(Bitmap.CompressFormat.JPEG, 70, outputStream);
-        byte[] imageBytes = outputStream.toByteArray();
+        Bitmap.CompressFormat format = webp ? webpFormat() : Bitmap.CompressFormat.JPEG;
+        ScaledBitmaps scaled = new ScaledBitmaps(bitmap);
+        int startDimension = Math.min(maxImageDimension, Math.max(bitmap.getWidth(), bitmap.getHeight()));
         
-        // Vérifier la taille
-        if (imageBytes.length > MAX_BASE64_SIZE) {
-            Log.w(TAG, "Image trop grande pour être stockée en Base64 dans Firestore: " + imageBytes.length + " bytes");
+        CompressionSearch.Result result;
+        try {
+            result = CompressionSearch.search((maxDimension, quality) -> {
+                CountingOutputStream counter = new CountingOutputStream();
+                scaled.get(maxDimension).compress(format, quality, counter);
+                return counter.count;
+            }, startDimension, maxBase64Length / 4 * 3); // Base64 sans retour à la ligne : 4 caractères pour 3 octets
+            
+            if (!result.withinBudget) {
+                Log.w(TAG, "Image impossible à encoder en " + maxBase64Length + " caractères, plus petit encodage conservé");
+            }
+            
+            ByteArrayOutputStream base64 = new ByteArrayOutputStream((int) ((result.encodedSize + 2) / 3 * 4));
+            try (Base64OutputStream out = new Base64OutputStream(base64, Base64.NO_WRAP)) {
+                scaled.get(result.maxDimension).compress(format, result.quality, out);
+            }
+            // toString() réutilise le tampon, sans copie intermédiaire en byte[]
+            return base64.toString("US-ASCII");
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors de l'encodage de l'image", e);
             return null;
+        } finally {
+            scaled.recycle();
+        }
+    }
+    
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+            ? Bitmap.CompressFormat.WEBP_LOSSY
+            : Bitmap.CompressFormat.WEBP;
+    }
+    
+    /**
+     * Garde la dernière version réduite de l'image, réutilisée par les essais de qualité successifs
+     */
+    private static class ScaledBitmaps {
+        private final Bitmap source;
+        private Bitmap current;
+        private int currentDimension;
+        
+        ScaledBitmaps(Bitmap source) {
+            this.source = source;
+        }
+        
+        Bitmap get(int maxDimension) {
+            if (current != null && currentDimension == maxDimension) {
+                return current;
+            }
+            recycle();
+            current = resizeImageIfNeeded(source, maxDimension);
+            currentDimension = maxDimension;
+            return current;
+        }
+        
+        void recycle() {
+            if (current != null && current != source) {
+                current.recycle();
+            }
+            current = null;
+        }
+    }
+    
+    /**
+     * Flux qui ne garde que le nombre d'octets écrits (mesure de la taille encodée)
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
         }
         
-        return Base64.encodeToString(imageBytes, Base64.DEFAULT);
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
     }
     
     /**
@@ -64,14 +281,38 @@ public class MediaUtils {
         return BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
     }
     
+    /**
+     * Convertit une chaîne Base64 en bitmap à la taille de la vue cible : les dimensions sont lues d'abord,
+     * puis l'image est sous-échantillonnée (inSampleSize) au plus près de la cible.
+     * Les images opaques (JPEG) peuvent être décodées en RGB_565, deux fois plus léger que ARGB_8888.
+     */
+    public static Bitmap base64ToImage(String base64, int targetWidth, int targetHeight, boolean opaque) {
+        if (base64 == null || base64.isEmpty()) return null;
+        
+        byte[] imageBytes = Base64.decode(base64, Base64.DEFAULT);
+        
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null; // Pas une image lisible
+        }
+        
+        options.inSampleSize = BitmapSampling.calculateInSampleSize(
+            options.outWidth, options.outHeight, targetWidth, targetHeight);
+        options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length, options);
+    }
+    
     /**
      * Redimensionne une image si elle dépasse les dimensions maximales
      */
-    private static Bitmap resizeImageIfNeeded(Bitmap bitmap) {
+    private static Bitmap resizeImageIfNeeded(Bitmap bitmap, int maxDimension) {
         int width = bitmap.getWidth();
         int height = bitmap.getHeight();
         
-        if (width <= MAX_IMAGE_DIMENSION && height <= MAX_IMAGE_DIMENSION) {
+        if (width <= maxDimension && height <= maxDimension) {
             return bitmap;
         }
         
@@ -79,50 +320,37 @@ public class MediaUtils {
         int newWidth, newHeight;
         
         if (width > height) {
-            newWidth = MAX_IMAGE_DIMENSION;
-            newHeight = (int) (newWidth / ratio);
+            newWidth = maxDimension;
+            newHeight = Math.max(1, (int) (newWidth / ratio));
         } else {
-            newHeight = MAX_IMAGE_DIMENSION;
-            newWidth = (int) (newHeight * ratio);
+            newHeight = maxDimension;
+            newWidth = Math.max(1, (int) (newHeight * ratio));
         }
         
         return Bitmap.createScaledBitmap(bitmap, newWidth, newHeight, true);
     }
     
     /**
-     * Sauvegarde un média dans le stockage local de l'application
+     * Sauvegarde un média dans le stockage local de l'application.
+     * Le nom du fichier est l'empreinte SHA-256 de son contenu, plus l'extension.
      */
     public static String saveMediaToInternalStorage(Context context, Uri mediaUri) {
-        try {
-            // Créer un dossier pour les médias s'il n'existe pas
-            File mediaDir = new File(context.getFilesDir(), MEDIA_DIR);
-            if (!mediaDir.exists()) {
-                mediaDir.mkdirs();
+        // Déterminer l'extension
+        String mimeType = context.getContentResolver().getType(mediaUri);
+        String extension = getExtensionFromMimeType(mimeType);
+        
+        // Le fichier est nommé d'après son contenu : un média déjà importé n'est pas recopié
+        try (InputStream is = context.getContentResolver().openInputStream(mediaUri)) {
+            if (is == null) {
+                Log.e(TAG, "Média illisible: " + mediaUri);
+                return null;
             }
-            
-            // Générer un nom de fichier unique
-            String filename = UUID.randomUUID().toString();
-            
-            // Déterminer l'extension
-            String mimeType = context.getContentResolver().getType(mediaUri);
-            String extension = getExtensionFromMimeType(mimeType);
-            String fullFilename = filename + extension;
-            
-            // Créer le fichier
-            File outputFile = new File(mediaDir, fullFilename);
-            
-            // Copier les données
-            try (InputStream is = context.getContentResolver().openInputStream(mediaUri);
-                 FileOutputStream fos = new FileOutputStream(outputFile)) {
-                
-                byte[] buffer = new byte[1024];
-                int length;
-                while ((length = is.read(buffer)) > 0) {
-                    fos.write(buffer, 0, length);
-                }
+            String filename = getMediaStore(context).put(is, extension);
+            getMediaCache(context).recordAdded(filename);
+            if (mimeType != null && mimeType.startsWith("video/")) {
+                cacheVideoInfo(context, filename);
             }
-            
-            return fullFilename;
+            return filename;
         } catch (IOException e) {
             Log.e(TAG, "Erreur lors de la sauvegarde du média: " + e.getMessage());
             return null;
@@ -130,11 +358,138 @@ public class MediaUtils {
     }
     
     /**
-     * Obtient le chemin complet d'un média stocké localement
+     * Ajoute une référence à un média déjà stocké (même fichier utilisé par une autre question)
+     */
+    public static void retainMedia(Context context, String filename) {
+        try {
+            getMediaStore(context).retain(filename);
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors de l'ajout d'une référence au média " + filename, e);
+        }
+    }
+    
+    /**
+     * Retire une référence à un média ; il sera supprimé par collectUnusedMedia s'il n'est plus utilisé
+     */
+    public static void releaseMedia(Context context, String filename) {
+        try {
+            getMediaStore(context).release(filename);
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors du retrait d'une référence au média " + filename, e);
+        }
+    }
+    
+    /**
+     * Supprime les médias qui ne sont plus référencés (à appeler hors du thread principal)
+     */
+    public static void collectUnusedMedia(Context context) {
+        try {
+            List<String> deletedFiles = new ArrayList<>();
+            int deleted = getMediaStore(context).collectGarbage(deletedFiles);
+            MediaDiskCache cache = getMediaCache(context);
+            for (String filename : deletedFiles) {
+                cache.recordRemoved(filename);
+                videoInfoCache.remove(filename);
+                getVideoInfoFile(context, filename).delete();
+            }
+            if (deleted > 0) {
+                Log.d(TAG, deleted + " média(s) inutilisé(s) supprimé(s)");
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors du nettoyage des médias", e);
+        }
+    }
+    
+    /**
+     * Épingle un média : le quota disque ne le supprime pas. Les médias référencés et jamais envoyés
+     * sont déjà protégés sans épinglage.
+     */
+    public static void pinMedia(Context context, String filename) {
+        try {
+            getMediaCache(context).pin(filename);
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors de l'épinglage du média " + filename, e);
+        }
+    }
+    
+    public static void unpinMedia(Context context, String filename) {
+        try {
+            getMediaCache(context).unpin(filename);
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors du désépinglage du média " + filename, e);
+        }
+    }
+    
+    /**
+     * Change le quota disque des médias ; les moins récemment utilisés sont supprimés si besoin
+     */
+    public static void setMediaQuota(Context context, long quotaBytes) {
+        try {
+            getMediaCache(context).setQuotaBytes(quotaBytes);
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors du changement de quota des médias", e);
+        }
+    }
+    
+    /**
+     * Octets utilisés, taux de succès et suppressions du cache disque des médias
+     */
+    public static MediaDiskCache.Stats getMediaCacheStats(Context context) {
+        try {
+            return getMediaCache(context).getStats();
+        } catch (IOException e) {
+            Log.e(TAG, "Cache des médias indisponible", e);
+            return null;
+        }
+    }
+    
+    /**
+     * Enregistre les derniers accès aux médias (ex. quand l'application passe en arrière-plan)
+     */
+    public static void flushMediaIndex(Context context) {
+        try {
+            getMediaCache(context).flush();
+        } catch (IOException e) {
+            Log.e(TAG, "Erreur lors de l'enregistrement de l'index des médias", e);
+        }
+    }
+    
+    private static synchronized ContentAddressedStore getMediaStore(Context context) throws IOException {
+        if (mediaStore == null) {
+            mediaStore = new ContentAddressedStore(new File(context.getFilesDir(), MEDIA_DIR));
+        }
+        return mediaStore;
+    }
+    
+    private static synchronized MediaDiskCache getMediaCache(Context context) throws IOException {
+        if (mediaCache == null) {
+            ContentAddressedStore store = getMediaStore(context);
+            // Un média référencé par une question et jamais envoyé n'existe que sur l'appareil : le quota le garde
+            mediaCache = new MediaDiskCache(new File(context.getFilesDir(), MEDIA_DIR),
+                MediaDiskCache.DEFAULT_QUOTA_BYTES, filename -> {
+                    try {
+                        store.forget(filename);
+                    } catch (IOException e) {
+                        Log.e(TAG, "Erreur lors de l'oubli du média " + filename, e);
+                    }
+                }, filename -> store.getRefCount(filename) == 0 || store.hasRemoteCopy(filename));
+        }
+        return mediaCache;
+    }
+    
+    /**
+     * Obtient le chemin complet d'un média stocké localement, et le marque comme récemment utilisé.
+     * Le fichier peut ne pas exister (jamais téléchargé, ou supprimé par le quota disque).
      */
     public static File getMediaFile(Context context, String filename) {
         if (filename == null || filename.isEmpty()) return null;
         
+        try {
+            File file = getMediaCache(context).get(filename);
+            if (file != null) return file;
+        } catch (IOException e) {
+            Log.e(TAG, "Cache des médias indisponible", e);
+        }
         File mediaDir = new File(context.getFilesDir(), MEDIA_DIR);
         return new File(mediaDir, filename);
     }
@@ -161,25 +516,506 @@ public class MediaUtils {
         }
     }
     
+    /**
+     * Affiche (image de la vidéo en vignette Base64) et durée d'une vidéo, extraites à son enregistrement :
+     * les écrans de question affichent l'affiche tout de suite et ne chargent la vidéo qu'à la lecture
+     */
+    public static class VideoInfo {
+        public final String posterBase64; // null si aucune image n'a pu être extraite
+        public final long durationMs;
+        
+        VideoInfo(String posterBase64, long durationMs) {
+            this.posterBase64 = posterBase64;
+            this.durationMs = durationMs;
+        }
+    }
+    
+    /**
+     * Affiche et durée d'une vidéo de "quiz_media", lues depuis le cache ou extraites (à appeler hors du thread principal)
+     */
+    public static VideoInfo getVideoInfo(Context context, String filename) {
+        VideoInfo info = videoInfoCache.get(filename);
+        if (info != null) return info;
+        
+        File infoFile = getVideoInfoFile(context, filename);
+        if (infoFile.exists()) {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(infoFile)) {
+                properties.load(in);
+                info = new VideoInfo(properties.getProperty("poster"),
+                    Long.parseLong(properties.getProperty("durationMs", "0")));
+                videoInfoCache.put(filename, info);
+                return info;
+            } catch (IOException | NumberFormatException e) {
+                Log.w(TAG, "Informations vidéo illisibles pour " + filename, e);
+            }
+        }
+        return cacheVideoInfo(context, filename);
+    }
+    
+    // Extrait l'affiche et la durée de la vidéo et les enregistre à côté du dossier des médias
+    private static VideoInfo cacheVideoInfo(Context context, String filename) {
+        File videoFile = new File(new File(context.getFilesDir(), MEDIA_DIR), filename);
+        VideoInfo info = extractVideoInfo(videoFile);
+        if (info == null) return null;
+        
+        videoInfoCache.put(filename, info);
+        Properties properties = new Properties();
+        properties.setProperty("durationMs", String.valueOf(info.durationMs));
+        if (info.posterBase64 != null) {
+            properties.setProperty("poster", info.posterBase64);
+        }
+        File infoFile = getVideoInfoFile(context, filename);
+        File infoDir = infoFile.getParentFile();
+        if (infoDir != null && !infoDir.exists() && !infoDir.mkdirs()) {
+            Log.w(TAG, "Impossible de créer le dossier " + infoDir);
+            return info;
+        }
+        try (OutputStream out = new FileOutputStream(infoFile)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            Log.w(TAG, "Erreur lors de l'enregistrement des informations vidéo de " + filename, e);
+        }
+        return info;
+    }
+    
+    private static VideoInfo extractVideoInfo(File videoFile) {
+        if (!videoFile.exists()) return null;
+        
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(videoFile.getAbsolutePath());
+            String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+            long durationMs = duration != null ? Long.parseLong(duration) : 0;
+            
+            // Image clé la plus proche : pas de décodage des images intermédiaires
+            long frameTimeUs = durationMs * 1000 > POSTER_FRAME_TIME_US ? POSTER_FRAME_TIME_US : 0;
+            Bitmap frame;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+                frame = retriever.getScaledFrameAtTime(frameTimeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                    THUMBNAIL_DIMENSION, THUMBNAIL_DIMENSION);
+            } else {
+                frame = retriever.getFrameAtTime(frameTimeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+            }
+            
+            String poster = null;
+            if (frame != null) {
+                poster = createThumbnail(frame);
+                frame.recycle();
+            }
+            return new VideoInfo(poster, durationMs);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Vidéo illisible: " + videoFile.getName(), e);
+            return null;
+        } finally {
+            try {
+                retriever.release();
+            } catch (IOException e) {
+                Log.w(TAG, "Erreur lors de la libération du lecteur de métadonnées", e);
+            }
+        }
+    }
+    
+    private static File getVideoInfoFile(Context context, String filename) {
+        return new File(new File(context.getFilesDir(), VIDEO_INFO_DIR), filename + ".properties");
+    }
+    
     /**
      * Met à jour les métadonnées d'un média dans Firestore
      * Cela permet de stocker uniquement des références aux médias, pas les médias eux-mêmes
      */
     public static void storeMediaReference(String questionId, String mediaFilename, String mediaType) {
+        writeMediaReference(questionId, mediaFilename, mediaType, null);
+    }
+    
+    /**
+     * Comme {@link #storeMediaReference(String, String, String)}, avec l'affiche et la durée pour une vidéo :
+     * les autres appareils affichent l'affiche sans télécharger la vidéo (à appeler hors du thread principal)
+     */
+    public static void storeMediaReference(Context context, String questionId, String mediaFilename, String mediaType) {
+        VideoInfo info = "video".equals(mediaType) ? getVideoInfo(context, mediaFilename) : null;
+        writeMediaReference(questionId, mediaFilename, mediaType, info);
+    }
+    
+    /**
+     * Écrit la référence d'un média, avec l'affiche et la durée si videoInfo n'est pas null
+     */
+    private static void writeMediaReference(String questionId, String mediaFilename, String mediaType, VideoInfo videoInfo) {
         Map<String, Object> mediaData = new HashMap<>();
         mediaData.put("mediaFilename", mediaFilename);
         mediaData.put("mediaType", mediaType);
+        if (videoInfo != null) {
+            mediaData.put("posterBase64", videoInfo.posterBase64);
+            mediaData.put("durationMs", videoInfo.durationMs);
+        }
         
+        // Fusion : le manifeste du média envoyé en blocs (champ "blob") est conservé
         FirebaseFirestore.getInstance()
-            .collection("question_media")
+            .collection(QUESTION_MEDIA_COLLECTION)
             .document(questionId)
-            .set(mediaData)
-            .addOnSuccessListener(aVoid -> Log.d(TAG, "Référence média enregistrée"))
+            .set(mediaData, SetOptions.merge())
+            .addOnSuccessListener(aVoid -> {
+                mediaRefs.remove(questionId); // Relue au prochain chargement
+                Log.d(TAG, "Référence média enregistrée");
+            })
             .addOnFailureListener(e -> Log.e(TAG, "Erreur lors de l'enregistrement de la référence média", e));
     }
     
     /**
-     * Récupère un média pour une question depuis Firestore et le stockage local
+     * Envoie un média de "quiz_media" en blocs sous "question_media/{questionId}/chunks" (vidéos de plus de 1 Mo),
+     * puis enregistre sa référence. Un envoi interrompu reprend au dernier bloc validé en rappelant cette méthode.
+     * Les callbacks sont appelés sur le thread principal.
+     */
+    public static void uploadQuestionMedia(@NonNull Context context, @NonNull String questionId, @NonNull String filename,
+                                           String mediaType, @NonNull ChunkedBlobStore.UploadListener listener) {
+        File file = getMediaFile(context, filename);
+        blobExecutor.execute(() -> {
+            RandomAccessFile input;
+            ChunkedBlobStore.Source source;
+            try {
+                input = new RandomAccessFile(file, "r");
+                source = ChunkedBlobStore.fileSource(input);
+            } catch (IOException e) {
+                mainHandler.post(() -> listener.onError(e));
+                return;
+            }
+            getBlobStore().upload(questionId, source, mediaType, new ChunkedBlobStore.UploadListener() {
+                @Override
+                public void onProgress(int committedChunks, int chunkCount) {
+                    mainHandler.post(() -> listener.onProgress(committedChunks, chunkCount));
+                }
+
+                @Override
+                public void onComplete(ChunkedBlobStore.Manifest manifest) {
+                    closeQuietly(input);
+                    try {
+                        getMediaStore(context).markRemoteCopy(filename);
+                    } catch (IOException e) {
+                        Log.e(TAG, "Erreur lors de l'enregistrement de l'envoi du média " + filename, e);
+                    }
+                    storeMediaReference(context, questionId, filename, mediaType);
+                    mainHandler.post(() -> listener.onComplete(manifest));
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    closeQuietly(input);
+                    mainHandler.post(() -> listener.onError(e));
+                }
+            });
+        });
+    }
+    
+    /**
+     * Télécharge un média envoyé en blocs dans "quiz_media" ; le fichier n'apparaît qu'une fois complet et vérifié
+     */
+    private static void downloadQuestionMedia(Context context, String questionId, String filename,
+                                              ChunkedBlobStore.ResultCallback<File> callback) {
+        blobExecutor.execute(() -> {
+            File target = new File(new File(context.getFilesDir(), MEDIA_DIR), filename);
+            File temp = new File(target.getParentFile(), DOWNLOAD_PREFIX + filename);
+            RandomAccessFile output;
+            try {
+                output = ChunkedBlobStore.openForWrite(temp);
+            } catch (IOException e) {
+                callback.onError(e);
+                return;
+            }
+            getBlobStore().download(questionId, ChunkedBlobStore.fileSink(output),
+                new ChunkedBlobStore.ResultCallback<ChunkedBlobStore.Manifest>() {
+                    @Override
+                    public void onResult(ChunkedBlobStore.Manifest manifest) {
+                        try {
+                            output.setLength(manifest.totalSize);
+                            output.close();
+                            if (!temp.renameTo(target)) {
+                                throw new IOException("Impossible d'enregistrer " + filename);
+                            }
+                            getMediaCache(context).recordAdded(filename);
+                            callback.onResult(target);
+                        } catch (IOException e) {
+                            temp.delete();
+                            callback.onError(e);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        closeQuietly(output);
+                        temp.delete();
+                        callback.onError(e);
+                    }
+                });
+        });
+    }
+    
+    private static synchronized ChunkedBlobStore getBlobStore() {
+        if (blobStore == null) {
+            blobStore = new ChunkedBlobStore(new QuestionMediaBlobBackend(FirebaseFirestore.getInstance()));
+        }
+        return blobStore;
+    }
+    
+    private static void closeQuietly(RandomAccessFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Erreur lors de la fermeture d'un média", e);
+        }
+    }
+    
+    /**
+     * Médias en blocs de "question_media" : manifeste dans le champ "blob" du document de la question,
+     * un document par bloc dans la sous-collection "chunks" (octets bruts dans un Blob, sans Base64)
+     */
+    private static class QuestionMediaBlobBackend implements ChunkedBlobStore.Backend {
+        private final FirebaseFirestore db;
+
+        QuestionMediaBlobBackend(FirebaseFirestore db) {
+            this.db = db;
+        }
+
+        private DocumentReference mediaDocument(String questionId) {
+            return db.collection(QUESTION_MEDIA_COLLECTION).document(questionId);
+        }
+
+        // Identifiants complétés par des zéros : les blocs sont listés dans l'ordre
+        private DocumentReference chunkDocument(String questionId, int index) {
+            return mediaDocument(questionId).collection(CHUNKS_COLLECTION)
+                .document(String.format(Locale.ROOT, "%05d", index));
+        }
+
+        @Override
+        public void readManifest(String blobId, ChunkedBlobStore.ResultCallback<ChunkedBlobStore.Manifest> callback) {
+            mediaDocument(blobId).get()
+                .addOnSuccessListener(blobExecutor, snapshot -> callback.onResult(manifestOf(snapshot)))
+                .addOnFailureListener(blobExecutor, callback::onError);
+        }
+
+        @Override
+        public void writeManifest(String blobId, ChunkedBlobStore.Manifest manifest, ChunkedBlobStore.OperationCallback callback) {
+            mediaDocument(blobId).set(Collections.singletonMap(BLOB_FIELD, manifest.toMap()), SetOptions.merge())
+                .addOnSuccessListener(blobExecutor, aVoid -> callback.onSuccess())
+                .addOnFailureListener(blobExecutor, callback::onError);
+        }
+
+        @Override
+        public void commitChunk(String blobId, int index, byte[] data, String checksum, ChunkedBlobStore.OperationCallback callback) {
+            Map<String, Object> chunk = new HashMap<>();
+            chunk.put("index", index);
+            chunk.put("sha256", checksum);
+            chunk.put("data", Blob.fromBytes(data));
+
+            // Bloc et compteur du manifeste dans le même lot : le compteur ne dépasse jamais les blocs écrits
+            WriteBatch batch = db.batch();
+            batch.set(chunkDocument(blobId, index), chunk);
+            batch.update(mediaDocument(blobId), BLOB_FIELD + ".committedChunks", index + 1);
+            batch.commit()
+                .addOnSuccessListener(blobExecutor, aVoid -> callback.onSuccess())
+                .addOnFailureListener(blobExecutor, callback::onError);
+        }
+
+        @Override
+        public void readChunk(String blobId, int index, ChunkedBlobStore.ResultCallback<byte[]> callback) {
+            chunkDocument(blobId, index).get()
+                .addOnSuccessListener(blobExecutor, snapshot -> {
+                    Blob data = snapshot.getBlob("data");
+                    callback.onResult(data != null ? data.toBytes() : null);
+                })
+                .addOnFailureListener(blobExecutor, callback::onError);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ChunkedBlobStore.Manifest manifestOf(DocumentSnapshot snapshot) {
+        Object blob = snapshot.exists() ? snapshot.get(BLOB_FIELD) : null;
+        return blob instanceof Map ? ChunkedBlobStore.Manifest.fromMap((Map<String, Object>) blob) : null;
+    }
+    
+    /**
+     * Référence de "question_media/{questionId}", gardée en mémoire : un jeu ne relit pas Firestore pour chaque question
+     */
+    public static class MediaRef {
+        static final MediaRef NONE = new MediaRef(null, null, null, 0, false); // Pas de document : média sur la question
+        
+        public final String filename;
+        public final String mediaType;
+        public final String posterBase64; // Vidéo uniquement
+        public final long durationMs;
+        public final boolean chunked; // Envoyé en blocs, téléchargeable s'il n'est pas sur l'appareil
+        
+        MediaRef(String filename, String mediaType, String posterBase64, long durationMs, boolean chunked) {
+            this.filename = filename;
+            this.mediaType = mediaType;
+            this.posterBase64 = posterBase64;
+            this.durationMs = durationMs;
+            this.chunked = chunked;
+        }
+        
+        static MediaRef fromSnapshot(DocumentSnapshot snapshot) {
+            if (!snapshot.exists()) return NONE;
+            Long durationMs = snapshot.getLong("durationMs");
+            return new MediaRef(snapshot.getString("mediaFilename"), snapshot.getString("mediaType"),
+                snapshot.getString("posterBase64"), durationMs != null ? durationMs : 0, manifestOf(snapshot) != null);
+        }
+        
+        public boolean isVideo() {
+            return "video".equals(mediaType);
+        }
+    }
+    
+    public interface OnMediaRefsResolvedListener {
+        void onMediaRefsResolved(Map<String, MediaRef> refsByQuestionId);
+    }
+    
+    /**
+     * Référence déjà résolue pour une question, ou null s'il faut interroger Firestore
+     */
+    public static MediaRef getCachedMediaRef(String questionId) {
+        return questionId != null ? mediaRefs.get(questionId) : null;
+    }
+    
+    /**
+     * Résout les références de plusieurs questions en lots de {@link QuestionBatchLoader#MAX_IDS_PER_QUERY}
+     * (whereIn sur l'ID du document) ; seules les questions pas encore en mémoire sont demandées.
+     * Un lot en échec est ignoré : ses questions seront redemandées au prochain appel.
+     */
+    public static void resolveMediaRefs(List<String> questionIds, @NonNull OnMediaRefsResolvedListener listener) {
+        Map<String, MediaRef> resolved = new ConcurrentHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : questionIds) {
+            if (id == null || id.isEmpty()) continue;
+            MediaRef ref = mediaRefs.get(id);
+            if (ref != null) {
+                resolved.put(id, ref);
+            } else {
+                missing.add(id);
+            }
+        }
+        
+        List<List<String>> chunks = QuestionBatchLoader.chunk(missing, QuestionBatchLoader.MAX_IDS_PER_QUERY);
+        if (chunks.isEmpty()) {
+            listener.onMediaRefsResolved(resolved);
+            return;
+        }
+        
+        AtomicInteger remaining = new AtomicInteger(chunks.size());
+        for (List<String> chunk : chunks) {
+            FirebaseFirestore.getInstance()
+                .collection(QUESTION_MEDIA_COLLECTION)
+                .whereIn(FieldPath.documentId(), chunk)
+                .get()
+                .addOnCompleteListener(task -> {
+                    if (task.isSuccessful() && task.getResult() != null) {
+                        for (String id : chunk) {
+                            resolved.put(id, MediaRef.NONE); // Pas de document pour cette question
+                        }
+                        for (DocumentSnapshot snapshot : task.getResult().getDocuments()) {
+                            resolved.put(snapshot.getId(), MediaRef.fromSnapshot(snapshot));
+                        }
+                        for (String id : chunk) {
+                            mediaRefs.put(id, resolved.get(id));
+                        }
+                    } else {
+                        Log.w(TAG, "Erreur lors de la résolution d'un lot de médias", task.getException());
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        listener.onMediaRefsResolved(resolved);
+                    }
+                });
+        }
+    }
+    
+    /**
+     * Prépare les médias d'un quiz avant une partie : références résolues en lots, médias envoyés en blocs
+     * téléchargés, images et affiches des vidéos décodées dans le cache mémoire de Glide
+     * à la taille d'affichage. Les vidéos elles-mêmes restent chargées à la lecture.
+     */
+    public static void preloadMediaForQuiz(@NonNull Context context, @NonNull Quiz quiz, int width, int height,
+                                           OnMediaPreloadedListener listener) {
+        List<String> questionIds = quiz.getQuestionIds();
+        if (questionIds == null || questionIds.isEmpty()) {
+            if (listener != null) listener.onMediaPreloaded(0);
+            return;
+        }
+        
+        Context appContext = context.getApplicationContext();
+        Map<String, Question> questionsById = new HashMap<>();
+        if (quiz.getQuestions() != null) {
+            for (Question question : quiz.getQuestions()) {
+                questionsById.put(question.getId(), question);
+            }
+        }
+        
+        resolveMediaRefs(questionIds, refs -> {
+            // Même modèle que l'affichage d'une question : même clé dans le cache de Glide
+            List<Object> models = new ArrayList<>();
+            List<String> downloadIds = new ArrayList<>();
+            for (String questionId : questionIds) {
+                MediaRef ref = refs.get(questionId);
+                if (ref == null) continue; // Lot en échec : chargé à l'affichage de la question
+                
+                String inlineImage = inlineImageOf(questionsById, questionId);
+                if (ref.filename == null && (inlineImage == null || inlineImage.isEmpty())) continue;
+                
+                if (ref.filename != null && !ref.isVideo() && ref.chunked
+                        && !getMediaFile(appContext, ref.filename).exists()) {
+                    downloadIds.add(questionId);
+                } else {
+                    models.add(MediaReference.forQuestion(questionId, inlineImage));
+                }
+            }
+            
+            int mediaCount = models.size() + downloadIds.size();
+            AtomicInteger remaining = new AtomicInteger(downloadIds.size() + 1);
+            Runnable done = () -> {
+                if (remaining.decrementAndGet() == 0 && listener != null) {
+                    mainHandler.post(() -> listener.onMediaPreloaded(mediaCount));
+                }
+            };
+            
+            preloadImages(appContext, models, width, height);
+            for (String questionId : downloadIds) {
+                String filename = refs.get(questionId).filename;
+                Object model = MediaReference.forQuestion(questionId, inlineImageOf(questionsById, questionId));
+                downloadQuestionMedia(appContext, questionId, filename, new ChunkedBlobStore.ResultCallback<File>() {
+                    @Override
+                    public void onResult(File file) {
+                        preloadImages(appContext, Collections.singletonList(model), width, height);
+                        done.run();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "Média non préchargé: " + filename, e);
+                        done.run();
+                    }
+                });
+            }
+            done.run();
+        });
+    }
+    
+    private static String inlineImageOf(Map<String, Question> questionsById, String questionId) {
+        Question question = questionsById.get(questionId);
+        return question != null ? question.getImageUrl() : null;
+    }
+    
+    // Décodage dans le cache mémoire de Glide, sans vue cible
+    private static void preloadImages(Context context, List<Object> models, int width, int height) {
+        if (models.isEmpty()) return;
+        mainHandler.post(() -> {
+            for (Object model : models) {
+                Glide.with(context).load(model).preload(width, height);
+            }
+        });
+    }
+    
+    /**
+     * Récupère un média pour une question, depuis la référence en mémoire (voir preloadMediaForQuiz)
+     * ou Firestore, puis le stockage local.
+     * Pour une vidéo, seuls l'affiche et la durée sont chargées (onVideoPosterLoaded) :
+     * la vidéo elle-même est chargée à la lecture par {@link #loadQuestionVideo}.
      */
     public static void loadQuestionMedia(@NonNull Context context, @NonNull Question question, @NonNull OnMediaLoadedListener listener) {
         String questionId = question.getId();
@@ -188,58 +1024,129 @@ public class MediaUtils {
             return;
         }
         
-        // D'abord essayer de lire depuis Firestore
+        resolveMediaRef(questionId, listener, ref -> {
+            if (ref.filename != null) {
+                if (ref.isVideo()) {
+                    loadVideoPoster(context, ref, listener);
+                } else {
+                    resolveMediaFile(context, questionId, ref, listener);
+                }
+                return;
+            }
+            if (ref != MediaRef.NONE) {
+                listener.onMediaLoadError("Nom de fichier média manquant");
+                return;
+            }
+            
+            // Vérifier si les données média sont stockées directement dans la question
+            String imageUrl = question.getImageUrl();
+            String videoUrl = question.getVideoUrl();
+            String mediaType = null;
+            String base64Media = null;
+            
+            if (imageUrl != null && !imageUrl.isEmpty()) {
+                mediaType = "image";
+                base64Media = imageUrl;
+            } else if (videoUrl != null && !videoUrl.isEmpty()) {
+                mediaType = "video";
+                base64Media = videoUrl;
+            }
+            
+            if (base64Media != null && !base64Media.isEmpty()) {
+                listener.onBase64MediaLoaded(base64Media, mediaType);
+            } else {
+                listener.onMediaLoadError("Aucun média trouvé pour cette question");
+            }
+        });
+    }
+    
+    /**
+     * Charge la vidéo d'une question au moment de la lire : fichier local, téléchargé en blocs si besoin
+     */
+    public static void loadQuestionVideo(@NonNull Context context, @NonNull String questionId, @NonNull OnMediaLoadedListener listener) {
+        resolveMediaRef(questionId, listener, ref -> {
+            if (ref.filename == null) {
+                listener.onMediaLoadError("Aucune vidéo pour cette question");
+            } else {
+                resolveMediaFile(context, questionId, ref, listener);
+            }
+        });
+    }
+    
+    private interface MediaRefCallback {
+        void onMediaRef(MediaRef ref);
+    }
+    
+    // Référence en mémoire, sinon un seul document lu et mémorisé
+    private static void resolveMediaRef(String questionId, OnMediaLoadedListener listener, MediaRefCallback callback) {
+        MediaRef cached = mediaRefs.get(questionId);
+        if (cached != null) {
+            callback.onMediaRef(cached);
+            return;
+        }
         FirebaseFirestore.getInstance()
-            .collection("question_media")
+            .collection(QUESTION_MEDIA_COLLECTION)
             .document(questionId)
             .get()
             .addOnSuccessListener(documentSnapshot -> {
-                if (documentSnapshot.exists()) {
-                    String mediaFilename = documentSnapshot.getString("mediaFilename");
-                    String mediaType = documentSnapshot.getString("mediaType");
-                    
-                    if (mediaFilename != null) {
-                        // Charger depuis le stockage local
-                        File mediaFile = getMediaFile(context, mediaFilename);
-                        if (mediaFile != null && mediaFile.exists()) {
-                            listener.onMediaLoaded(mediaFile.getAbsolutePath(), mediaType);
-                        } else {
-                            listener.onMediaLoadError("Fichier média non trouvé");
-                        }
-                    } else {
-                        listener.onMediaLoadError("Nom de fichier média manquant");
-                    }
-                } else {
-                    // Vérifier si les données média sont stockées directement dans la question
-                    String imageUrl = question.getImageUrl();
-                    String videoUrl = question.getVideoUrl();
-                    String mediaType = null;
-                    String base64Media = null;
-                    
-                    if (imageUrl != null && !imageUrl.isEmpty()) {
-                        mediaType = "image";
-                        base64Media = imageUrl;
-                    } else if (videoUrl != null && !videoUrl.isEmpty()) {
-                        mediaType = "video";
-                        base64Media = videoUrl;
-                    }
-                    
-                    if (base64Media != null && !base64Media.isEmpty()) {
-                        listener.onBase64MediaLoaded(base64Media, mediaType);
-                    } else {
-                        listener.onMediaLoadError("Aucun média trouvé pour cette question");
-                    }
-                }
+                MediaRef ref = MediaRef.fromSnapshot(documentSnapshot);
+                mediaRefs.put(questionId, ref);
+                callback.onMediaRef(ref);
             })
             .addOnFailureListener(e -> listener.onMediaLoadError("Erreur: " + e.getMessage()));
     }
     
+    // Affiche publiée avec la référence, sinon extraite de la vidéo locale
+    private static void loadVideoPoster(Context context, MediaRef ref, OnMediaLoadedListener listener) {
+        if (ref.posterBase64 != null || ref.durationMs > 0) {
+            listener.onVideoPosterLoaded(new VideoInfo(ref.posterBase64, ref.durationMs));
+            return;
+        }
+        blobExecutor.execute(() -> {
+            VideoInfo info = getVideoInfo(context, ref.filename);
+            mainHandler.post(() -> listener.onVideoPosterLoaded(info != null ? info : new VideoInfo(null, 0)));
+        });
+    }
+    
+    // Fichier local du média, téléchargé d'abord s'il a été envoyé en blocs et n'est pas sur l'appareil
+    private static void resolveMediaFile(Context context, String questionId, MediaRef ref, OnMediaLoadedListener listener) {
+        File mediaFile = getMediaFile(context, ref.filename);
+        if (mediaFile != null && mediaFile.exists()) {
+            listener.onMediaLoaded(mediaFile.getAbsolutePath(), ref.mediaType);
+        } else if (ref.chunked) {
+            downloadQuestionMedia(context, questionId, ref.filename, new ChunkedBlobStore.ResultCallback<File>() {
+                @Override
+                public void onResult(File file) {
+                    mainHandler.post(() -> listener.onMediaLoaded(file.getAbsolutePath(), ref.mediaType));
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Erreur lors du téléchargement du média " + questionId, e);
+                    mainHandler.post(() -> listener.onMediaLoadError("Erreur: " + e.getMessage()));
+                }
+            });
+        } else {
+            listener.onMediaLoadError("Fichier média non trouvé");
+        }
+    }
+    
     /**
      * Interface de callback pour le chargement des médias
      */
     public interface OnMediaLoadedListener {
         void onMediaLoaded(String mediaPath, String mediaType);
+        /** Vidéo : affiche (à passer à Glide via MediaReference.of) et durée, avant tout chargement de la vidéo */
+        void onVideoPosterLoaded(VideoInfo videoInfo);
         void onBase64MediaLoaded(String base64Media, String mediaType);
         void onMediaLoadError(String errorMessage);
     }
-} 
\ No newline at end of file
+    
+    public interface OnMediaPreloadedListener {
+        void onMediaPreloaded(int mediaCount);
+    }
+    
+    public interface OnQuizImagesCreatedListener {
+        void onQuizImagesCreated(QuizImages images);
+    }
+}
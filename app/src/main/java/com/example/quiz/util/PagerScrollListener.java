@@ -0,0 +1,29 @@
+package com.example.quiz.util;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Transmet la plage visible d'une RecyclerView à un QuizPager pour qu'il précharge les pages voisines
+ */
+public class PagerScrollListener extends RecyclerView.OnScrollListener {
+    private final QuizPager pager;
+
+    public PagerScrollListener(QuizPager pager) {
+        this.pager = pager;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        int firstVisible = linearLayoutManager.findFirstVisibleItemPosition();
+        int lastVisible = linearLayoutManager.findLastVisibleItemPosition();
+        if (firstVisible == RecyclerView.NO_POSITION) return;
+
+        pager.onVisibleRangeChanged(firstVisible, lastVisible);
+    }
+}
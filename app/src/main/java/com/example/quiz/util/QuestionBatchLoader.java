@@ -0,0 +1,146 @@
+package com.example.quiz.util;
+
+import com.example.quiz.model.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Charge un ensemble de questions par lots d'IDs plutôt qu'une requête par question.
+ * Le transport (Firestore, émulateur, stockage en mémoire) est fourni par un {@link ChunkFetcher},
+ * ce qui permet de tester et de mesurer le découpage sans dépendre d'Android.
+ */
+public class QuestionBatchLoader {
+
+    /**
+     * Nombre maximal de valeurs acceptées par Firestore dans une clause whereIn
+     */
+    public static final int MAX_IDS_PER_QUERY = 30;
+
+    /**
+     * Récupère un lot de questions à partir de leurs IDs (un aller-retour réseau par appel)
+     */
+    public interface ChunkFetcher {
+        void fetch(List<String> ids, ChunkCallback callback);
+    }
+
+    /**
+     * Résultat d'un lot : soit les questions trouvées indexées par ID, soit une erreur
+     */
+    public interface ChunkCallback {
+        void onChunkLoaded(Map<String, Question> questionsById);
+        void onChunkFailed(Exception e);
+    }
+
+    /**
+     * Résultat global : les questions dans l'ordre des IDs demandés et les erreurs éventuelles des lots
+     */
+    public interface OnBatchLoadedListener {
+        void onBatchLoaded(List<Question> questions, List<Exception> chunkErrors);
+    }
+
+    /**
+     * Découpe une liste d'IDs en lots de taille maximale chunkSize, en ignorant les doublons et les IDs vides
+     */
+    public static List<List<String>> chunk(List<String> ids, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("La taille des lots doit être positive");
+        }
+
+        Set<String> uniqueIdSet = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) {
+                uniqueIdSet.add(id);
+            }
+        }
+        List<String> uniqueIds = new ArrayList<>(uniqueIdSet);
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < uniqueIds.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, uniqueIds.size());
+            chunks.add(new ArrayList<>(uniqueIds.subList(start, end)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Charge les questions avec des lots de {@link #MAX_IDS_PER_QUERY} IDs
+     */
+    public static void load(List<String> ids, ChunkFetcher fetcher, OnBatchLoadedListener listener) {
+        load(ids, MAX_IDS_PER_QUERY, fetcher, listener);
+    }
+
+    /**
+     * Lance tous les lots en parallèle puis renvoie les questions dans l'ordre de la liste d'IDs.
+     * Un lot en échec n'annule pas les autres : son erreur est simplement ajoutée à la liste des erreurs.
+     */
+    public static void load(List<String> ids, int chunkSize, ChunkFetcher fetcher, OnBatchLoadedListener listener) {
+        if (ids == null || ids.isEmpty()) {
+            listener.onBatchLoaded(new ArrayList<>(), new ArrayList<>());
+            return;
+        }
+
+        List<List<String>> chunks = chunk(ids, chunkSize);
+        if (chunks.isEmpty()) {
+            listener.onBatchLoaded(new ArrayList<>(), new ArrayList<>());
+            return;
+        }
+
+        final Map<String, Question> loaded = new HashMap<>();
+        final List<Exception> errors = new ArrayList<>();
+        final int[] remaining = {chunks.size()};
+        final Object lock = new Object();
+
+        for (List<String> chunkIds : chunks) {
+            fetcher.fetch(chunkIds, new ChunkCallback() {
+                @Override
+                public void onChunkLoaded(Map<String, Question> questionsById) {
+                    synchronized (lock) {
+                        loaded.putAll(questionsById);
+                    }
+                    onChunkDone();
+                }
+
+                @Override
+                public void onChunkFailed(Exception e) {
+                    synchronized (lock) {
+                        errors.add(e);
+                    }
+                    onChunkDone();
+                }
+
+                private void onChunkDone() {
+                    boolean finished;
+                    synchronized (lock) {
+                        remaining[0]--;
+                        finished = remaining[0] == 0;
+                    }
+                    if (finished) {
+                        listener.onBatchLoaded(orderByIds(ids, loaded), Collections.unmodifiableList(errors));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Remet les questions chargées dans l'ordre des IDs demandés (les IDs introuvables sont ignorés)
+     */
+    public static List<Question> orderByIds(List<String> ids, Map<String, Question> questionsById) {
+        List<Question> ordered = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String id : ids) {
+            Question question = questionsById.get(id);
+            if (question != null && seen.add(id)) {
+                ordered.add(question);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,460 @@
+package com.example.quiz.util;
+
+import com.example.quiz.model.QuizSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pagination par curseur d'une liste de quizzes, avec préchargement et fenêtre bornée.
+ * Seules maxPages pages restent en mémoire : une page sortie de la fenêtre ne garde que son curseur
+ * de fin, ce qui permet de recharger la suivante (ou de la recharger elle-même) si l'utilisateur revient.
+ * Après une erreur, le chargement est relancé au défilement une fois un délai écoulé (doublé à chaque échec),
+ * ou tout de suite par retry().
+ * Toutes les méthodes doivent être appelées depuis le thread principal.
+ */
+public class QuizPager {
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int DEFAULT_MAX_PAGES = 5;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 3;
+    public static final long RETRY_DELAY_MS = 2000;
+    public static final long MAX_RETRY_DELAY_MS = 60000;
+
+    /**
+     * Source des pages (Firestore en production)
+     */
+    public interface PageFetcher {
+        /** Charge pageSize éléments après cursor (null = début de la liste) */
+        void fetchPage(Object cursor, int pageSize, PageCallback callback);
+    }
+
+    public interface PageCallback {
+        /** nextCursor : curseur du dernier élément de la page, à passer pour charger la suivante */
+        void onPageLoaded(List<QuizSummary> items, Object nextCursor);
+        void onPageFailed(Exception e);
+    }
+
+    /**
+     * Notifications positionnelles, calquées sur celles de RecyclerView.Adapter
+     */
+    public interface Listener {
+        void onItemRangeInserted(int position, int count);
+        void onItemRangeRemoved(int position, int count);
+        void onItemRangeChanged(int position, int count);
+        void onItemMoved(int fromPosition, int toPosition);
+        void onDataSetChanged();
+        void onError(Exception e);
+    }
+
+    /**
+     * Changement d'un élément de la première page, reçu d'un écouteur temps réel.
+     * Les changements d'une même liste s'appliquent dans l'ordre : oldIndex avant l'application, newIndex après.
+     */
+    public static class LiveChange {
+        public enum Type { ADDED, MODIFIED, REMOVED }
+
+        public final Type type;
+        public final int oldIndex; // -1 pour ADDED
+        public final int newIndex; // -1 pour REMOVED
+        public final QuizSummary summary;
+
+        public LiveChange(Type type, int oldIndex, int newIndex, QuizSummary summary) {
+            this.type = type;
+            this.oldIndex = oldIndex;
+            this.newIndex = newIndex;
+            this.summary = summary;
+        }
+    }
+
+    private static class Page {
+        List<QuizSummary> items; // null si la page est sortie de la fenêtre
+        Object endCursor;
+    }
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+    private final int maxPages;
+    private final int prefetchDistance;
+    private Listener listener;
+
+    private final List<Page> pages = new ArrayList<>(); // Toutes les pages connues, chargées ou non
+    private final List<QuizSummary> items = new ArrayList<>(); // Contenu des pages [firstPage, lastPage]
+    private int firstPage = 0;
+    private int lastPage = -1;
+    private boolean endReached = false;
+    private boolean loadingNext = false;
+    private boolean loadingPrevious = false;
+    private boolean failed = false;
+    private long failedAt = 0;
+    private int consecutiveFailures = 0;
+    private boolean replaceOnNextLoad = false; // Contenu provisoire (cache, démo) à remplacer par la première page
+    private int generation = 0; // Invalide les réponses arrivées après un refresh()
+
+    public QuizPager(PageFetcher fetcher) {
+        this(fetcher, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    public QuizPager(PageFetcher fetcher, int pageSize, int maxPages, int prefetchDistance) {
+        if (pageSize <= 0 || maxPages < 2) {
+            throw new IllegalArgumentException("pageSize > 0 et maxPages >= 2 requis");
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Éléments actuellement en mémoire (vue non modifiable, mise à jour en place)
+     */
+    public List<QuizSummary> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public boolean isEndReached() {
+        return endReached && lastPage == pages.size() - 1;
+    }
+
+    public int getLoadedPageCount() {
+        return lastPage - firstPage + 1;
+    }
+
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * Affiche un contenu provisoire (cache disque, données de démo) jusqu'à l'arrivée de la première page.
+     * Sans effet si des pages réelles sont déjà affichées.
+     */
+    public void showPlaceholder(List<QuizSummary> placeholder) {
+        if (!pages.isEmpty() && !replaceOnNextLoad && !items.isEmpty()) return;
+        items.clear();
+        items.addAll(placeholder);
+        replaceOnNextLoad = true;
+        if (listener != null) listener.onDataSetChanged();
+    }
+
+    /**
+     * Recharge la liste depuis le début. Le contenu actuel reste affiché jusqu'à l'arrivée de la première page.
+     */
+    public void refresh() {
+        generation++;
+        pages.clear();
+        firstPage = 0;
+        lastPage = -1;
+        endReached = false;
+        loadingNext = false;
+        loadingPrevious = false;
+        failed = false;
+        replaceOnNextLoad = true;
+        loadNext();
+    }
+
+    /**
+     * Remplace la première page par un contenu fourni par l'appelant (premier instantané d'un écouteur temps réel).
+     * Si la première page est déjà affichée, elle est remplacée sur place et les pages suivantes sont conservées.
+     */
+    public void setFirstPage(List<QuizSummary> pageItems, Object nextCursor) {
+        if (pages.isEmpty() || replaceOnNextLoad || firstPage != 0) {
+            generation++;
+            pages.clear();
+            firstPage = 0;
+            lastPage = -1;
+            endReached = false;
+            loadingNext = false;
+            loadingPrevious = false;
+            failed = false;
+            replaceOnNextLoad = true;
+            appendPage(0, pageItems, nextCursor);
+            return;
+        }
+
+        Page page = pages.get(0);
+        List<QuizSummary> previous = page.items;
+        page.items = new ArrayList<>(pageItems);
+        page.endCursor = nextCursor;
+        if (lastPage == 0) {
+            endReached = pageItems.size() < pageSize;
+        }
+
+        if (sameIds(previous, pageItems)) {
+            for (int i = 0; i < pageItems.size(); i++) {
+                items.set(i, pageItems.get(i));
+            }
+            if (listener != null && !pageItems.isEmpty()) listener.onItemRangeChanged(0, pageItems.size());
+        } else {
+            items.subList(0, previous.size()).clear();
+            items.addAll(0, pageItems);
+            if (listener != null) {
+                listener.onItemRangeRemoved(0, previous.size());
+                listener.onItemRangeInserted(0, pageItems.size());
+            }
+        }
+    }
+
+    /**
+     * Applique à la première page les changements d'un écouteur temps réel, avec une notification par élément.
+     * Sans effet si la première page n'est pas dans la fenêtre : elle sera relue si l'utilisateur y revient.
+     * Un quiz qui sort de la première page n'est pas reporté dans la suivante avant le prochain refresh() ;
+     * un quiz qui y entre est retiré des pages suivantes, pour n'apparaître qu'une fois.
+     */
+    public void applyFirstPageChanges(List<LiveChange> changes, Object nextCursor) {
+        if (!pages.isEmpty() && replaceOnNextLoad && firstPage == 0 && pages.get(0).items.isEmpty()) {
+            // La liste était vide (contenu provisoire affiché) : seuls des ajouts sont possibles
+            List<QuizSummary> added = new ArrayList<>();
+            for (LiveChange change : changes) {
+                if (change.type == LiveChange.Type.ADDED) {
+                    added.add(change.newIndex, change.summary);
+                }
+            }
+            setFirstPage(added, nextCursor);
+            return;
+        }
+        if (pages.isEmpty() || replaceOnNextLoad || firstPage != 0) return;
+
+        Page page = pages.get(0);
+        for (LiveChange change : changes) {
+            switch (change.type) {
+                case ADDED:
+                    removeFromLaterPages(change.summary.getId());
+                    page.items.add(change.newIndex, change.summary);
+                    items.add(change.newIndex, change.summary);
+                    if (listener != null) listener.onItemRangeInserted(change.newIndex, 1);
+                    break;
+                case REMOVED:
+                    page.items.remove(change.oldIndex);
+                    items.remove(change.oldIndex);
+                    if (listener != null) listener.onItemRangeRemoved(change.oldIndex, 1);
+                    break;
+                case MODIFIED:
+                    if (change.oldIndex != change.newIndex) {
+                        page.items.remove(change.oldIndex);
+                        page.items.add(change.newIndex, change.summary);
+                        items.remove(change.oldIndex);
+                        items.add(change.newIndex, change.summary);
+                        if (listener != null) listener.onItemMoved(change.oldIndex, change.newIndex);
+                    } else {
+                        page.items.set(change.newIndex, change.summary);
+                        items.set(change.newIndex, change.summary);
+                    }
+                    if (listener != null) listener.onItemRangeChanged(change.newIndex, 1);
+                    break;
+            }
+        }
+
+        page.endCursor = nextCursor;
+        if (lastPage == 0) {
+            endReached = page.items.size() < pageSize;
+        }
+    }
+
+    private void removeFromLaterPages(String id) {
+        if (id == null) return;
+        int position = pages.get(0).items.size();
+        for (int index = 1; index <= lastPage; index++) {
+            List<QuizSummary> pageItems = pages.get(index).items;
+            for (int i = 0; i < pageItems.size(); i++) {
+                if (id.equals(pageItems.get(i).getId())) {
+                    pageItems.remove(i);
+                    items.remove(position + i);
+                    if (listener != null) listener.onItemRangeRemoved(position + i, 1);
+                    return;
+                }
+            }
+            position += pageItems.size();
+        }
+    }
+
+    /**
+     * À appeler lors du défilement : précharge la page suivante ou précédente à l'approche d'un bord
+     */
+    public void onVisibleRangeChanged(int firstVisible, int lastVisible) {
+        if (replaceOnNextLoad || items.isEmpty()) return;
+        if (failed) {
+            if (now() - failedAt < getRetryDelay()) return;
+            failed = false;
+        }
+        if (lastVisible >= items.size() - 1 - prefetchDistance) {
+            loadNext();
+        }
+        if (firstVisible <= prefetchDistance && firstPage > 0) {
+            loadPrevious();
+        }
+    }
+
+    /**
+     * Relance le chargement après une erreur, sans attendre le délai
+     */
+    public void retry() {
+        failed = false;
+        loadNext();
+    }
+
+    /**
+     * Délai avant un nouvel essai au défilement : RETRY_DELAY_MS, doublé à chaque échec consécutif
+     */
+    long getRetryDelay() {
+        int doublings = Math.min(Math.max(consecutiveFailures - 1, 0), 16);
+        return Math.min(RETRY_DELAY_MS << doublings, MAX_RETRY_DELAY_MS);
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    private void onLoadFailed(Exception e) {
+        failed = true;
+        failedAt = now();
+        consecutiveFailures++;
+        if (listener != null) listener.onError(e);
+    }
+
+    private void loadNext() {
+        if (loadingNext || isEndReached()) return;
+        final int index = lastPage + 1;
+        final int requestGeneration = generation;
+        Object cursor = index == 0 ? null : pages.get(index - 1).endCursor;
+
+        loadingNext = true;
+        fetcher.fetchPage(cursor, pageSize, new PageCallback() {
+            @Override
+            public void onPageLoaded(List<QuizSummary> pageItems, Object nextCursor) {
+                if (requestGeneration != generation) return;
+                loadingNext = false;
+                consecutiveFailures = 0;
+                // La fenêtre a pu reculer entre-temps : la page n'est plus contiguë
+                if (index != lastPage + 1) return;
+                appendPage(index, pageItems, nextCursor);
+            }
+
+            @Override
+            public void onPageFailed(Exception e) {
+                if (requestGeneration != generation) return;
+                loadingNext = false;
+                onLoadFailed(e);
+            }
+        });
+    }
+
+    private void loadPrevious() {
+        if (loadingPrevious || firstPage == 0) return;
+        final int index = firstPage - 1;
+        final int requestGeneration = generation;
+        Object cursor = index == 0 ? null : pages.get(index - 1).endCursor;
+
+        loadingPrevious = true;
+        fetcher.fetchPage(cursor, pageSize, new PageCallback() {
+            @Override
+            public void onPageLoaded(List<QuizSummary> pageItems, Object nextCursor) {
+                if (requestGeneration != generation) return;
+                loadingPrevious = false;
+                consecutiveFailures = 0;
+                if (index != firstPage - 1) return;
+                prependPage(index, pageItems);
+            }
+
+            @Override
+            public void onPageFailed(Exception e) {
+                if (requestGeneration != generation) return;
+                loadingPrevious = false;
+                onLoadFailed(e);
+            }
+        });
+    }
+
+    private void appendPage(int index, List<QuizSummary> pageItems, Object nextCursor) {
+        boolean lastOfList = pageItems.size() < pageSize;
+
+        if (replaceOnNextLoad) {
+            replaceOnNextLoad = false;
+            boolean sameIds = !pageItems.isEmpty() && sameIds(items, pageItems);
+            items.clear();
+            items.addAll(pageItems);
+            storePage(index, pageItems, nextCursor, lastOfList);
+            lastPage = index;
+            if (listener != null) {
+                if (sameIds) {
+                    listener.onItemRangeChanged(0, items.size());
+                } else {
+                    listener.onDataSetChanged();
+                }
+            }
+            return;
+        }
+
+        if (pageItems.isEmpty() && index > 0) {
+            // La page précédente était pile la dernière
+            endReached = true;
+            pages.subList(index, pages.size()).clear();
+            return;
+        }
+
+        storePage(index, pageItems, nextCursor, lastOfList);
+        lastPage = index;
+        int position = items.size();
+        items.addAll(pageItems);
+        if (listener != null) listener.onItemRangeInserted(position, pageItems.size());
+
+        // Libérer les pages les plus anciennes
+        while (getLoadedPageCount() > maxPages) {
+            Page evicted = pages.get(firstPage);
+            int count = evicted.items.size();
+            items.subList(0, count).clear();
+            evicted.items = null;
+            firstPage++;
+            if (listener != null) listener.onItemRangeRemoved(0, count);
+        }
+    }
+
+    private void prependPage(int index, List<QuizSummary> pageItems) {
+        // Le curseur de fin est conservé pour que la page suivante reste contiguë
+        Page page = pages.get(index);
+        page.items = new ArrayList<>(pageItems);
+        firstPage = index;
+        items.addAll(0, pageItems);
+        if (listener != null) listener.onItemRangeInserted(0, pageItems.size());
+
+        while (getLoadedPageCount() > maxPages) {
+            Page evicted = pages.get(lastPage);
+            int count = evicted.items.size();
+            int position = items.size() - count;
+            items.subList(position, items.size()).clear();
+            evicted.items = null;
+            lastPage--;
+            if (listener != null) listener.onItemRangeRemoved(position, count);
+        }
+    }
+
+    private void storePage(int index, List<QuizSummary> pageItems, Object nextCursor, boolean lastOfList) {
+        Page page;
+        if (index < pages.size()) {
+            page = pages.get(index);
+        } else {
+            page = new Page();
+            pages.add(page);
+        }
+        page.items = new ArrayList<>(pageItems);
+        page.endCursor = nextCursor;
+
+        if (lastOfList) {
+            // La liste s'est peut-être raccourcie : oublier les pages au-delà
+            endReached = true;
+            pages.subList(index + 1, pages.size()).clear();
+        }
+    }
+
+    private static boolean sameIds(List<QuizSummary> current, List<QuizSummary> fresh) {
+        if (current.size() != fresh.size()) return false;
+        for (int i = 0; i < current.size(); i++) {
+            String id = current.get(i).getId();
+            if (id == null || !id.equals(fresh.get(i).getId())) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.quiz.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regroupe les chargements identiques et mémorise leurs résultats.
+ * Les demandes simultanées pour une même clé partagent un seul chargement en cours,
+ * et les résultats obtenus sont conservés dans un LRU borné en nombre d'entrées et en poids (voir weigh()),
+ * chacun pendant ttlMillis. Les erreurs ne sont jamais mémorisées.
+ * getAll() mémorise clé par clé des valeurs chargées en une seule fois.
+ */
+public class RequestCoalescer<K, V> {
+
+    public interface Loader<K, V> {
+        void load(K key, Callback<V> callback);
+    }
+
+    public interface Callback<V> {
+        void onResult(V value);
+        void onError(Exception e);
+    }
+
+    /**
+     * Chargement de plusieurs clés en une fois
+     */
+    public interface BulkLoader<K, V> {
+        void loadAll(List<K> keys, BulkCallback<K, V> callback);
+    }
+
+    public interface BulkCallback<K, V> {
+        /**
+         * values : valeurs des clés trouvées. Une clé absente de values est introuvable si errors est vide,
+         * sinon elle n'a pas pu être chargée.
+         */
+        void onResult(Map<K, V> values, List<Exception> errors);
+    }
+
+    /**
+     * Compteurs à un instant donné
+     */
+    public static class Stats {
+        public final long hits;       // Servis depuis la mémoire
+        public final long misses;     // Ayant déclenché un chargement
+        public final long coalesced;  // Rattachés à un chargement déjà en cours
+
+        Stats(long hits, long misses, long coalesced) {
+            this.hits = hits;
+            this.misses = misses;
+            this.coalesced = coalesced;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", coalesced=" + coalesced;
+        }
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAt;
+        final long weight;
+
+        Entry(V value, long expiresAt, long weight) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+    }
+
+    private static class Pending<V> {
+        final List<Callback<V>> callbacks = new ArrayList<>();
+    }
+
+    private final Loader<K, V> loader;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlMillis;
+
+    private final Map<K, Pending<V>> inFlight = new HashMap<>();
+    // Ordre d'accès : l'entrée la moins récemment utilisée est la première évincée
+    private final LinkedHashMap<K, Entry<V>> memo = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long coalesced = 0;
+
+    public RequestCoalescer(int maxEntries, long ttlMillis, Loader<K, V> loader) {
+        this(maxEntries, Long.MAX_VALUE, ttlMillis, loader);
+    }
+
+    /**
+     * @param maxWeight Poids total des valeurs mémorisées (voir weigh()) ; une valeur plus lourde n'est pas mémorisée
+     */
+    public RequestCoalescer(int maxEntries, long maxWeight, long ttlMillis, Loader<K, V> loader) {
+        this.loader = loader;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Renvoie la valeur mémorisée si elle est encore valide, sinon rejoint ou lance le chargement
+     */
+    public void get(K key, Callback<V> callback) {
+        V cached = null;
+        boolean startLoad = false;
+        Pending<V> pending;
+
+        synchronized (this) {
+            Entry<V> entry = memo.get(key);
+            if (entry != null && entry.expiresAt > now()) {
+                hits++;
+                cached = entry.value;
+                pending = null;
+            } else {
+                if (entry != null) {
+                    removeEntry(key);
+                }
+                pending = inFlight.get(key);
+                if (pending != null) {
+                    coalesced++;
+                } else {
+                    misses++;
+                    pending = new Pending<>();
+                    inFlight.put(key, pending);
+                    startLoad = true;
+                }
+                pending.callbacks.add(callback);
+            }
+        }
+
+        if (pending == null) {
+            callback.onResult(cached);
+            return;
+        }
+        if (startLoad) {
+            load(key, pending);
+        }
+    }
+
+    /**
+     * Comme get(), clé par clé : les valeurs mémorisées sont servies, les clés déjà en cours de chargement
+     * rejoignent ce chargement, et toutes les autres sont chargées ensemble par bulkLoader.
+     * Les clés introuvables ne sont ni mémorisées ni présentes dans le résultat.
+     */
+    public void getAll(Collection<K> keys, BulkLoader<K, V> bulkLoader, BulkCallback<K, V> callback) {
+        Map<K, V> cachedValues = new HashMap<>();
+        Map<K, Pending<V>> started = new LinkedHashMap<>();
+        Aggregate<K, V> aggregate = new Aggregate<>(new LinkedHashSet<>(keys).size(), callback);
+
+        synchronized (this) {
+            for (K key : new LinkedHashSet<>(keys)) {
+                Entry<V> entry = memo.get(key);
+                if (entry != null && entry.expiresAt > now()) {
+                    hits++;
+                    cachedValues.put(key, entry.value);
+                    continue;
+                }
+                if (entry != null) {
+                    removeEntry(key);
+                }
+                Pending<V> pending = inFlight.get(key);
+                if (pending != null) {
+                    coalesced++;
+                } else {
+                    misses++;
+                    pending = new Pending<>();
+                    inFlight.put(key, pending);
+                    started.put(key, pending);
+                }
+                pending.callbacks.add(aggregate.callbackFor(key));
+            }
+        }
+
+        aggregate.start();
+        for (Map.Entry<K, V> cached : cachedValues.entrySet()) {
+            aggregate.done(cached.getKey(), cached.getValue(), null);
+        }
+        if (started.isEmpty()) return;
+
+        bulkLoader.loadAll(new ArrayList<>(started.keySet()), (values, errors) -> {
+            Exception error = errors.isEmpty() ? null : errors.get(0);
+            for (Map.Entry<K, Pending<V>> entry : started.entrySet()) {
+                V value = values.get(entry.getKey());
+                if (value == null && error != null) {
+                    fail(entry.getKey(), entry.getValue(), error);
+                } else {
+                    complete(entry.getKey(), entry.getValue(), value);
+                }
+            }
+        });
+    }
+
+    private void load(K key, Pending<V> pending) {
+        loader.load(key, new Callback<V>() {
+            @Override
+            public void onResult(V value) {
+                complete(key, pending, value);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail(key, pending, e);
+            }
+        });
+    }
+
+    private void complete(K key, Pending<V> pending, V value) {
+        List<Callback<V>> callbacks;
+        synchronized (this) {
+            // Après un invalidate(), le résultat est transmis mais pas mémorisé
+            if (inFlight.get(key) == pending) {
+                inFlight.remove(key);
+                if (value != null && isCacheable(value)) {
+                    putEntry(key, value);
+                }
+            }
+            callbacks = new ArrayList<>(pending.callbacks);
+        }
+        for (Callback<V> callback : callbacks) {
+            callback.onResult(value);
+        }
+    }
+
+    private void fail(K key, Pending<V> pending, Exception e) {
+        List<Callback<V>> callbacks;
+        synchronized (this) {
+            if (inFlight.get(key) == pending) {
+                inFlight.remove(key);
+            }
+            callbacks = new ArrayList<>(pending.callbacks);
+        }
+        for (Callback<V> callback : callbacks) {
+            callback.onError(e);
+        }
+    }
+
+    /**
+     * Oublie la valeur d'une clé (après une écriture). Un chargement en cours ne sera pas mémorisé.
+     */
+    public synchronized void invalidate(K key) {
+        removeEntry(key);
+        inFlight.remove(key);
+    }
+
+    public synchronized void clear() {
+        memo.clear();
+        totalWeight = 0;
+        inFlight.clear();
+    }
+
+    /**
+     * Poids total des valeurs mémorisées
+     */
+    public synchronized long getTotalWeight() {
+        return totalWeight;
+    }
+
+    // Appelé sous le verrou : mémorise la valeur puis évince les plus anciennes jusqu'à respecter les deux bornes
+    private void putEntry(K key, V value) {
+        long weight = weigh(value);
+        removeEntry(key);
+        if (weight > maxWeight) return;
+        memo.put(key, new Entry<>(value, now() + ttlMillis, weight));
+        totalWeight += weight;
+
+        Iterator<Entry<V>> eldest = memo.values().iterator();
+        while ((memo.size() > maxEntries || totalWeight > maxWeight) && eldest.hasNext()) {
+            totalWeight -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    private void removeEntry(K key) {
+        Entry<V> removed = memo.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, coalesced);
+    }
+
+    /**
+     * Indique si un résultat peut être mémorisé (par défaut, toujours)
+     */
+    protected boolean isCacheable(V value) {
+        return true;
+    }
+
+    /**
+     * Poids d'une valeur mémorisée, compté dans maxWeight (par défaut 1)
+     */
+    protected long weigh(V value) {
+        return 1;
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Résultat d'un getAll(), rendu une fois toutes ses clés résolues (chaque erreur n'y figure qu'une fois)
+     */
+    private static class Aggregate<K, V> {
+        private final Map<K, V> values = new HashMap<>();
+        private final List<Exception> errors = new ArrayList<>();
+        private final BulkCallback<K, V> callback;
+        private int remaining;
+        private boolean started = false;
+
+        Aggregate(int keyCount, BulkCallback<K, V> callback) {
+            this.remaining = keyCount;
+            this.callback = callback;
+        }
+
+        Callback<V> callbackFor(K key) {
+            return new Callback<V>() {
+                @Override
+                public void onResult(V value) {
+                    done(key, value, null);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    done(key, null, e);
+                }
+            };
+        }
+
+        // Un chargement rejoint peut se terminer avant la fin de getAll() : le résultat attend start()
+        void start() {
+            synchronized (this) {
+                started = true;
+                if (remaining > 0) return;
+            }
+            callback.onResult(values, errors);
+        }
+
+        void done(K key, V value, Exception error) {
+            synchronized (this) {
+                if (value != null) values.put(key, value);
+                if (error != null && !containsSame(errors, error)) errors.add(error);
+                remaining--;
+                if (remaining > 0 || !started) return;
+            }
+            callback.onResult(values, errors);
+        }
+
+        private static boolean containsSame(List<Exception> errors, Exception error) {
+            for (Exception e : errors) {
+                if (e == error) return true;
+            }
+            return false;
+        }
+    }
+}
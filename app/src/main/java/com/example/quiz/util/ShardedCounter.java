@@ -0,0 +1,212 @@
+package com.example.quiz.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compteur réparti sur plusieurs documents ("shards") pour dépasser la limite d'environ une écriture
+ * par seconde et par document de Firestore. Chaque incrément vise un shard tiré au hasard ; le total
+ * (somme des shards) est recopié périodiquement dans un champ lisible et triable : au plus une fois par intervalle
+ * après un incrément, et les incréments arrivés entre-temps sont reportés par {@link #rollUpPending()}.
+ * Le nombre de shards peut changer : le total est toujours la somme de tous les shards existants.
+ */
+public class ShardedCounter {
+    public static final int DEFAULT_SHARD_COUNT = 10;
+    public static final long DEFAULT_ROLL_UP_INTERVAL_MS = 60 * 1000;
+    private static final int MAX_TRACKED_COUNTERS = 256; // Compteurs dont le dernier report est retenu
+
+    /**
+     * Stockage des shards (Firestore en production)
+     */
+    public interface ShardStore {
+        void incrementShard(String counterId, int shard, long delta, OnCounterOperationListener listener);
+        /** Somme de tous les shards du compteur */
+        void readTotal(String counterId, OnTotalListener listener);
+        /** Recopie le total dans le champ agrégé (ex. Quiz.playCount) */
+        void writeTotal(String counterId, long total, OnCounterOperationListener listener);
+    }
+
+    public interface OnCounterOperationListener {
+        void onSuccess();
+        void onError(Exception e);
+    }
+
+    public interface OnTotalListener {
+        void onTotal(long total);
+        void onError(Exception e);
+    }
+
+    private final ShardStore store;
+    private final int shardCount;
+    private final long rollUpIntervalMs;
+    private final Random random;
+    // Ordre d'accès : les compteurs les moins récemment reportés sont oubliés en premier
+    private final Map<String, Long> lastRollUps = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_TRACKED_COUNTERS;
+        }
+    };
+    // Compteurs incrémentés depuis leur dernier report, dans l'ordre d'arrivée
+    private final Set<String> pendingRollUps = new LinkedHashSet<>();
+
+    public ShardedCounter(ShardStore store) {
+        this(store, DEFAULT_SHARD_COUNT, DEFAULT_ROLL_UP_INTERVAL_MS, new Random());
+    }
+
+    public ShardedCounter(ShardStore store, int shardCount, long rollUpIntervalMs, Random random) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de shards doit être positif");
+        }
+        this.store = store;
+        this.shardCount = shardCount;
+        this.rollUpIntervalMs = rollUpIntervalMs;
+        this.random = random;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public long getRollUpIntervalMs() {
+        return rollUpIntervalMs;
+    }
+
+    /**
+     * Incrémente un shard tiré au hasard, puis recopie le total si le dernier report est assez ancien
+     */
+    public void increment(String counterId, long delta, OnCounterOperationListener listener) {
+        store.incrementShard(counterId, pickShard(), delta, new OnCounterOperationListener() {
+            @Override
+            public void onSuccess() {
+                rollUpIfDue(counterId);
+                if (listener != null) listener.onSuccess();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (listener != null) listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Tire le shard d'un incrément (pour les appelants qui écrivent eux-mêmes les shards, en lot)
+     */
+    public int pickShard() {
+        return random.nextInt(shardCount);
+    }
+
+    /**
+     * Recopie le total si le dernier report de ce compteur est plus ancien que l'intervalle,
+     * sinon le garde pour le prochain rollUpPending()
+     */
+    public void rollUpIfDue(String counterId) {
+        if (isRollUpDue(counterId)) {
+            rollUp(counterId, null);
+        }
+    }
+
+    /**
+     * Reporte les compteurs incrémentés depuis leur dernier report dont l'intervalle est écoulé
+     * (à appeler périodiquement, ex. toutes les getRollUpIntervalMs())
+     */
+    public void rollUpPending() {
+        List<String> due = new ArrayList<>();
+        synchronized (this) {
+            long now = now();
+            Iterator<String> iterator = pendingRollUps.iterator();
+            while (iterator.hasNext()) {
+                String counterId = iterator.next();
+                Long last = lastRollUps.get(counterId);
+                if (last == null || now - last >= rollUpIntervalMs) {
+                    iterator.remove();
+                    lastRollUps.put(counterId, now);
+                    due.add(counterId);
+                }
+            }
+        }
+        for (String counterId : due) {
+            rollUp(counterId, null);
+        }
+    }
+
+    public synchronized boolean hasPendingRollUps() {
+        return !pendingRollUps.isEmpty();
+    }
+
+    /**
+     * Recopie immédiatement la somme des shards dans le champ agrégé
+     */
+    public void rollUp(String counterId, OnCounterOperationListener listener) {
+        store.readTotal(counterId, new OnTotalListener() {
+            @Override
+            public void onTotal(long total) {
+                store.writeTotal(counterId, total, new OnCounterOperationListener() {
+                    @Override
+                    public void onSuccess() {
+                        if (listener != null) listener.onSuccess();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        // Retenté au prochain rollUpPending()
+                        forgetRollUp(counterId);
+                        if (listener != null) listener.onError(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                forgetRollUp(counterId);
+                if (listener != null) listener.onError(e);
+            }
+        });
+    }
+
+    public void readTotal(String counterId, OnTotalListener listener) {
+        store.readTotal(counterId, listener);
+    }
+
+    /**
+     * Réserve le prochain report du compteur s'il est dû (un seul report par intervalle),
+     * sinon le met en attente
+     */
+    private synchronized boolean isRollUpDue(String counterId) {
+        long now = now();
+        Long last = lastRollUps.get(counterId);
+        if (last != null && now - last < rollUpIntervalMs) {
+            addPending(counterId);
+            return false;
+        }
+        lastRollUps.put(counterId, now);
+        pendingRollUps.remove(counterId);
+        return true;
+    }
+
+    // Report échoué : à retenter dès le prochain rollUpPending()
+    private synchronized void forgetRollUp(String counterId) {
+        lastRollUps.remove(counterId);
+        addPending(counterId);
+    }
+
+    private void addPending(String counterId) {
+        pendingRollUps.add(counterId);
+        if (pendingRollUps.size() > MAX_TRACKED_COUNTERS) {
+            Iterator<String> eldest = pendingRollUps.iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+}
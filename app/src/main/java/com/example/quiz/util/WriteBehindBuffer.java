@@ -0,0 +1,151 @@
+package com.example.quiz.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * File d'écritures différées pour les compteurs (parties jouées, points, victoires...).
+ * Les incréments sont cumulés par document et par champ, enregistrés localement à chaque ajout
+ * pour survivre à l'arrêt du processus, puis envoyés ensemble lors d'un flush().
+ * Un seul envoi est en cours à la fois ; en cas d'échec, ses incréments sont remis dans la file.
+ * Si le processus s'arrête pendant un envoi réussi mais non confirmé, ces incréments seront renvoyés
+ * au redémarrage (au moins une fois, jamais perdus).
+ */
+public class WriteBehindBuffer {
+
+    /**
+     * Stockage local des incréments en attente
+     */
+    public interface Storage {
+        Map<String, Map<String, Long>> load();
+        void save(Map<String, Map<String, Long>> pending);
+    }
+
+    /**
+     * Envoi des incréments cumulés : chemin du document -> (champ -> incrément)
+     */
+    public interface Flusher {
+        void write(Map<String, Map<String, Long>> deltas, OnFlushListener listener);
+    }
+
+    public interface OnFlushListener {
+        void onSuccess();
+        void onError(Exception e);
+    }
+
+    private final Storage storage;
+    private final Flusher flusher;
+
+    private Map<String, Map<String, Long>> pending = new LinkedHashMap<>();
+    private Map<String, Map<String, Long>> inFlight = null;
+
+    public WriteBehindBuffer(Storage storage, Flusher flusher) {
+        this.storage = storage;
+        this.flusher = flusher;
+        Map<String, Map<String, Long>> restored = storage.load();
+        if (restored != null) {
+            merge(pending, restored);
+        }
+    }
+
+    /**
+     * Ajoute un incrément, cumulé avec ceux déjà en attente pour le même document et le même champ
+     */
+    public synchronized void add(String documentPath, String field, long delta) {
+        if (delta == 0) return;
+        Map<String, Long> fields = pending.get(documentPath);
+        if (fields == null) {
+            fields = new LinkedHashMap<>();
+            pending.put(documentPath, fields);
+        }
+        Long current = fields.get(field);
+        fields.put(field, current != null ? current + delta : delta);
+        persist();
+    }
+
+    /**
+     * Envoie tous les incréments en attente. Sans effet si la file est vide ou si un envoi est déjà en cours.
+     */
+    public void flush(OnFlushListener listener) {
+        Map<String, Map<String, Long>> batch;
+        synchronized (this) {
+            if (inFlight != null || pending.isEmpty()) {
+                if (listener != null) listener.onSuccess();
+                return;
+            }
+            batch = pending;
+            inFlight = batch;
+            pending = new LinkedHashMap<>();
+        }
+
+        flusher.write(copy(batch), new OnFlushListener() {
+            @Override
+            public void onSuccess() {
+                synchronized (WriteBehindBuffer.this) {
+                    inFlight = null;
+                    persist();
+                }
+                if (listener != null) listener.onSuccess();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                synchronized (WriteBehindBuffer.this) {
+                    // Remettre les incréments en tête de file, cumulés avec ceux arrivés entre-temps
+                    Map<String, Map<String, Long>> restored = batch;
+                    merge(restored, pending);
+                    pending = restored;
+                    inFlight = null;
+                    persist();
+                }
+                if (listener != null) listener.onError(e);
+            }
+        });
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty() && inFlight == null;
+    }
+
+    /**
+     * Nombre de couples (document, champ) en attente d'envoi
+     */
+    public synchronized int getPendingFieldCount() {
+        int count = 0;
+        for (Map<String, Long> fields : pending.values()) {
+            count += fields.size();
+        }
+        return count;
+    }
+
+    // Les incréments en cours d'envoi sont enregistrés avec ceux en attente
+    private void persist() {
+        Map<String, Map<String, Long>> snapshot = copy(pending);
+        if (inFlight != null) {
+            merge(snapshot, inFlight);
+        }
+        storage.save(snapshot);
+    }
+
+    private static void merge(Map<String, Map<String, Long>> target, Map<String, Map<String, Long>> source) {
+        for (Map.Entry<String, Map<String, Long>> document : source.entrySet()) {
+            Map<String, Long> fields = target.get(document.getKey());
+            if (fields == null) {
+                fields = new LinkedHashMap<>();
+                target.put(document.getKey(), fields);
+            }
+            for (Map.Entry<String, Long> field : document.getValue().entrySet()) {
+                Long current = fields.get(field.getKey());
+                fields.put(field.getKey(), current != null ? current + field.getValue() : field.getValue());
+            }
+        }
+    }
+
+    private static Map<String, Map<String, Long>> copy(Map<String, Map<String, Long>> source) {
+        Map<String, Map<String, Long>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Long>> document : source.entrySet()) {
+            copy.put(document.getKey(), new LinkedHashMap<>(document.getValue()));
+        }
+        return copy;
+    }
+}
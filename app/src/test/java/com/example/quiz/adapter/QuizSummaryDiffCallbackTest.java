@@ -0,0 +1,65 @@
+package com.example.quiz.adapter;
+
+import com.example.quiz.model.QuizSummary;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Comparaison des résumés : une page relue (cache puis réseau) ne redessine aucune carte,
+ * seul un champ affiché modifié redessine la sienne
+ */
+public class QuizSummaryDiffCallbackTest {
+    private final QuizSummaryDiffCallback callback = QuizSummaryDiffCallback.INSTANCE;
+
+    @Test
+    public void reloadedSummary_isUnchanged() {
+        // Même document lu deux fois : deux instances distinctes
+        QuizSummary fromCache = summary("quiz1", "Capitales", 12);
+        QuizSummary fromNetwork = summary("quiz1", "Capitales", 12);
+
+        assertTrue(callback.areItemsTheSame(fromCache, fromNetwork));
+        assertTrue(callback.areContentsTheSame(fromCache, fromNetwork));
+    }
+
+    @Test
+    public void displayedFieldChange_isDetected() {
+        QuizSummary before = summary("quiz1", "Capitales", 12);
+
+        assertFalse(callback.areContentsTheSame(before, summary("quiz1", "Capitales", 13)));
+        assertFalse(callback.areContentsTheSame(before, summary("quiz1", "Capitales d'Europe", 12)));
+        assertTrue(callback.areItemsTheSame(before, summary("quiz1", "Capitales d'Europe", 12)));
+        assertFalse(callback.areItemsTheSame(before, summary("quiz2", "Capitales", 12)));
+    }
+
+    @Test
+    public void stableIds_areDeterministicAndDistinct() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            long id = QuizSummaryDiffCallback.stableId("quiz" + i);
+            assertEquals(id, QuizSummaryDiffCallback.stableId("quiz" + i));
+            assertNotEquals(-1, id); // RecyclerView.NO_ID
+            ids.add(id);
+        }
+        assertEquals(10000, ids.size());
+    }
+
+    private static QuizSummary summary(String id, String title, int playCount) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("title", title);
+        map.put("category", "Géographie");
+        map.put("difficulty", "2");
+        map.put("questionCount", 10);
+        map.put("playCount", playCount);
+        map.put("rating", 4.5);
+        map.put("authorName", "Alice");
+        map.put("updatedAt", 1000L);
+        return QuizSummary.fromMap(map, id);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.quiz.ui.create;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Brouillon d'options : le texte et la bonne réponse suivent l'ID de l'option, pas sa position
+ */
+public class OptionsDraftTest {
+
+    @Test
+    public void textIsWrittenToOptionId_afterReorder() {
+        OptionsDraft draft = new OptionsDraft();
+        draft.setAll(Arrays.asList("Paris", "Lyon", "Marseille"), 0);
+        long lyon = draft.getId(1);
+
+        draft.move(1, 0);
+        assertTrue(draft.setText(lyon, "Lille"));
+
+        assertEquals(Arrays.asList("Lille", "Paris", "Marseille"), draft.getTexts());
+        assertEquals(1, draft.getCorrectAnswerIndex()); // Paris reste la bonne réponse
+    }
+
+    @Test
+    public void removedOption_ignoresLateText() {
+        OptionsDraft draft = new OptionsDraft();
+        draft.setAll(Arrays.asList("A", "B", "C"), 2);
+        long b = draft.getId(1);
+
+        draft.remove(1);
+
+        assertFalse(draft.setText(b, "B modifiée"));
+        assertEquals(Arrays.asList("A", "C"), draft.getTexts());
+        assertEquals(1, draft.getCorrectAnswerIndex());
+        assertFalse(draft.setText(draft.getId(0), "A")); // Texte inchangé
+    }
+
+    @Test
+    public void removingCorrectOption_selectsFirstOption() {
+        OptionsDraft draft = new OptionsDraft();
+        assertEquals(-1, draft.getCorrectAnswerIndex());
+        draft.add("");
+        assertEquals(0, draft.getCorrectAnswerIndex());
+        draft.add("");
+        draft.setCorrectAnswerIndex(1);
+
+        draft.remove(1);
+
+        assertEquals(0, draft.getCorrectAnswerIndex());
+        long remaining = draft.getId(0);
+        draft.add("");
+        assertNotEquals(remaining, draft.getId(1)); // IDs jamais réutilisés
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.quiz.ui.home;
+
+import android.app.Application;
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.quiz.R;
+import com.example.quiz.adapter.QuizAdapter;
+import com.example.quiz.data.QuizCache;
+import com.example.quiz.model.QuizSummary;
+import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.QuizPager;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Chargement complet d'une liste de l'accueil, branchée comme dans HomeFragment : la première page du cache
+ * est affichée, puis la même page relue du réseau (nouvelles instances) ne doit redessiner aucune carte.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class HomeFeedBindingTest {
+    private static final int PAGE_SIZE = QuizPager.DEFAULT_PAGE_SIZE;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 600;
+
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private HomeViewModel.Feed feed;
+
+    @Before
+    public void setUp() {
+        Context context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.Theme_Quiz);
+        recyclerView = new RecyclerView(context);
+        adapter = new CountingAdapter();
+        feed = new HomeViewModel.Feed(QuizCache.Feed.RECENT, null, new PageSource());
+
+        new HomeFeedRenderer(context, 1).attach(recyclerView, adapter, feed.getPager());
+        feed.getItems().observeForever(adapter::updateQuizzes);
+    }
+
+    @Test
+    public void networkPageIdenticalToCachedPage_bindsNoCard() throws Exception {
+        // Première page lue du cache disque
+        List<QuizSummary> cached = page();
+        feed.getPager().showPlaceholder(cached);
+        awaitCommit(cached.get(0));
+        layout();
+        assertTrue(adapter.binds > 0);
+
+        ChangeCounter changes = new ChangeCounter();
+        adapter.registerAdapterDataObserver(changes);
+        adapter.binds = 0;
+
+        // Même page relue du réseau
+        feed.getPager().refresh();
+        awaitCommit(feed.getPager().getItems().get(0));
+        layout();
+
+        assertEquals(PAGE_SIZE, adapter.getItemCount());
+        assertEquals(0, changes.events);
+        assertEquals(0, adapter.binds);
+    }
+
+    private void layout() {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+        shadowOf(getMainLooper()).idle();
+    }
+
+    // La comparaison de ListAdapter tourne en arrière-plan, son résultat est appliqué sur le thread principal
+    private void awaitCommit(QuizSummary first) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (adapter.getCurrentList().isEmpty() || adapter.getCurrentList().get(0) != first) {
+            assertTrue("Liste jamais appliquée", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+            shadowOf(getMainLooper()).idle();
+        }
+    }
+
+    private static List<QuizSummary> page() {
+        List<QuizSummary> items = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("title", "Quiz " + i);
+            map.put("questionCount", 10);
+            map.put("playCount", i);
+            map.put("authorName", "Alice");
+            map.put("updatedAt", 1000L);
+            items.add(QuizSummary.fromMap(map, "quiz" + i));
+        }
+        return items;
+    }
+
+    private static class CountingAdapter extends QuizAdapter {
+        int binds = 0;
+
+        @Override
+        public void onBindViewHolder(@NonNull QuizViewHolder holder, int position) {
+            binds++;
+            super.onBindViewHolder(holder, position);
+        }
+    }
+
+    private static class ChangeCounter extends RecyclerView.AdapterDataObserver {
+        int events = 0;
+
+        @Override
+        public void onChanged() {
+            events++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            events++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            events++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            events++;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            events++;
+        }
+    }
+
+    /** Le réseau renvoie la même page que le cache, en nouvelles instances */
+    private static class PageSource implements HomeViewModel.FeedSource {
+        @Override
+        public QuizPager.PageFetcher pageFetcher(QuizCache.Feed type, String authorId) {
+            return (cursor, pageSize, callback) -> callback.onPageLoaded(page(), "quiz" + (PAGE_SIZE - 1));
+        }
+
+        @Override
+        public ListenerRegistration listen(QuizCache.Feed type, String authorId, int limit,
+                                           FirestoreUtils.OnQuizFeedChangesListener listener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
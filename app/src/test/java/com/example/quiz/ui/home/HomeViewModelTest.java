@@ -0,0 +1,143 @@
+package com.example.quiz.ui.home;
+
+import android.app.Application;
+
+import com.example.quiz.data.QuizCache;
+import com.example.quiz.model.QuizSummary;
+import com.example.quiz.util.FirestoreUtils;
+import com.example.quiz.util.QuizPager;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Cycle de vie de l'accueil contre une source en mémoire qui répond immédiatement ; l'horloge
+ * (SystemClock et Handler du thread principal) est avancée par Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class HomeViewModelTest {
+    private static final long WINDOW_MS = 60_000;
+
+    private FakeSource source;
+    private TestViewModel viewModel;
+
+    @Before
+    public void setUp() {
+        source = new FakeSource();
+        viewModel = new TestViewModel(source);
+        viewModel.setStalenessWindowMs(WINDOW_MS);
+    }
+
+    @Test
+    public void stopStartInsideWindow_makesNoQuery() {
+        viewModel.onScreenStarted();
+        assertEquals(2, source.listens); // Récents et populaires
+        assertEquals(2, viewModel.getRecent().getItems().getValue().size());
+
+        viewModel.onScreenStopped(false);
+        assertEquals(2, source.removes);
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(WINDOW_MS / 2));
+        viewModel.onScreenStarted();
+
+        assertEquals(2, source.listens);
+        assertEquals(0, source.fetches);
+        assertEquals(2, viewModel.getRecent().getItems().getValue().size());
+    }
+
+    @Test
+    public void configurationChange_keepsListeners() {
+        viewModel.onScreenStarted();
+        viewModel.onScreenStopped(true);
+        viewModel.onScreenStarted();
+
+        assertEquals(2, source.listens);
+        assertEquals(0, source.removes);
+
+        // Retirés quand le ViewModel est détruit
+        viewModel.clear();
+        assertEquals(2, source.removes);
+    }
+
+    @Test
+    public void staleFeeds_areReattachedWhenWindowExpires() {
+        viewModel.onScreenStarted();
+        viewModel.onScreenStopped(false);
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(WINDOW_MS / 2));
+        viewModel.onScreenStarted();
+
+        // Relecture programmée à l'expiration de la fenêtre, tant que l'accueil est visible
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(WINDOW_MS / 2));
+        assertEquals(4, source.listens);
+        assertEquals(0, source.fetches);
+    }
+
+    @Test
+    public void oneShotReads_stopStartInsideWindow_makesNoQuery() {
+        viewModel.setLiveFeeds(false);
+        viewModel.onScreenStarted();
+        assertEquals(2, source.fetches);
+
+        viewModel.onScreenStopped(false);
+        viewModel.onScreenStarted();
+
+        assertEquals(2, source.fetches);
+        assertEquals(0, source.listens);
+    }
+
+    /** Expose onCleared(), normalement appelé par le ViewModelStore */
+    private static class TestViewModel extends HomeViewModel {
+        TestViewModel(FeedSource source) {
+            super(source);
+        }
+
+        void clear() {
+            onCleared();
+        }
+    }
+
+    private static class FakeSource implements HomeViewModel.FeedSource {
+        int listens = 0;
+        int removes = 0;
+        int fetches = 0;
+
+        @Override
+        public QuizPager.PageFetcher pageFetcher(QuizCache.Feed type, String authorId) {
+            return (cursor, pageSize, callback) -> {
+                fetches++;
+                callback.onPageLoaded(cursor == null ? page(type) : Collections.emptyList(), null);
+            };
+        }
+
+        @Override
+        public ListenerRegistration listen(QuizCache.Feed type, String authorId, int limit,
+                                           FirestoreUtils.OnQuizFeedChangesListener listener) {
+            listens++;
+            listener.onFirstSnapshot(page(type), null);
+            return () -> removes++;
+        }
+
+        private static List<QuizSummary> page(QuizCache.Feed type) {
+            List<QuizSummary> items = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                QuizSummary summary = new QuizSummary();
+                summary.setId(type.name() + i);
+                items.add(summary);
+            }
+            return items;
+        }
+    }
+}
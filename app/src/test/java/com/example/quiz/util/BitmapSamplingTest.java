@@ -0,0 +1,55 @@
+package com.example.quiz.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mémoire des bitmaps décodés pour les vignettes des cartes (250 x 120 dp) avant et après le sous-échantillonnage.
+ * Les tailles d'images sont synthétiques : un paysage et un carré au plus grand format produit par
+ * MediaUtils.imageToBase64 (800 px de côté).
+ */
+public class BitmapSamplingTest {
+    // Tailles synthétiques : paysage 4:3 et carré
+    private static final int[][] DEMO_IMAGES = {{800, 600}, {800, 800}};
+    private static final float[] DENSITIES = {1f, 2f, 3f};
+
+    @Test
+    public void sampleSize_keepsImageAtLeastAsLargeAsTarget() {
+        assertEquals(1, BitmapSampling.calculateInSampleSize(800, 600, 800, 600));
+        assertEquals(2, BitmapSampling.calculateInSampleSize(800, 600, 250, 120));
+        assertEquals(4, BitmapSampling.calculateInSampleSize(4000, 3000, 800, 600));
+        assertEquals(1, BitmapSampling.calculateInSampleSize(800, 600, 500, 120));
+        assertEquals(1, BitmapSampling.calculateInSampleSize(100, 100, 250, 120));
+    }
+
+    @Test
+    public void sampleSize_ignoresMissingTargetOrBounds() {
+        assertEquals(1, BitmapSampling.calculateInSampleSize(800, 600, 0, 0));
+        assertEquals(1, BitmapSampling.calculateInSampleSize(0, 0, 250, 120));
+        assertEquals(4, BitmapSampling.calculateInSampleSize(800, 600, 200, 0));
+    }
+
+    @Test
+    public void demoThumbnails_peakBytesDropAfterDownsampling() {
+        for (float density : DENSITIES) {
+            int targetWidth = Math.round(250 * density);
+            int targetHeight = Math.round(120 * density);
+            long peakBefore = 0;
+            long peakAfter = 0;
+            for (int[] image : DEMO_IMAGES) {
+                long before = BitmapSampling.decodedBytes(image[0], image[1], 1, BitmapSampling.BYTES_PER_PIXEL_ARGB_8888);
+                int sampleSize = BitmapSampling.calculateInSampleSize(image[0], image[1], targetWidth, targetHeight);
+                long after = BitmapSampling.decodedBytes(image[0], image[1], sampleSize, BitmapSampling.BYTES_PER_PIXEL_RGB_565);
+                peakBefore = Math.max(peakBefore, before);
+                peakAfter = Math.max(peakAfter, after);
+            }
+
+            assertEquals(800L * 800 * 4, peakBefore);
+            assertTrue(peakAfter * 2 <= peakBefore);
+            if (density <= 1f) {
+                assertTrue(peakAfter * 8 <= peakBefore);
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.quiz.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Blobs en blocs avec un stockage en mémoire : les lectures de blocs répondent sur un pool de threads,
+ * comme Firestore, et le stockage compte les écritures et les lectures simultanées
+ */
+public class ChunkedBlobStoreTest {
+    private static final String BLOB = "question1";
+    private static final int PAYLOAD_SIZE = 10 * 1024 * 1024;
+
+    private InMemoryBackend backend;
+    private ChunkedBlobStore store;
+    private byte[] payload;
+
+    @Before
+    public void setUp() {
+        backend = new InMemoryBackend();
+        store = new ChunkedBlobStore(backend);
+        payload = new byte[PAYLOAD_SIZE + 1234]; // Dernier bloc incomplet
+        new Random(42).nextBytes(payload);
+    }
+
+    @After
+    public void tearDown() {
+        backend.readExecutor.shutdownNow();
+    }
+
+    @Test
+    public void tenMegabytePayload_roundTripsWithBoundedParallelDownloads() throws Exception {
+        RecordingUpload upload = upload();
+
+        assertNull(upload.error);
+        assertEquals(21, upload.manifest.getChunkCount());
+        assertEquals(21, backend.chunkWrites.get());
+        assertArrayEquals(payload, download());
+        assertTrue(backend.maxConcurrentReads.get() > 1);
+        assertTrue(backend.maxConcurrentReads.get() <= ChunkedBlobStore.DEFAULT_MAX_PARALLEL_DOWNLOADS);
+    }
+
+    @Test
+    public void interruptedUpload_resumesAfterLastCommittedChunk() throws Exception {
+        backend.failAtChunk = 7;
+        RecordingUpload failed = upload();
+        assertNotNull(failed.error);
+        assertEquals(7, backend.manifest.committedChunks);
+
+        backend.failAtChunk = -1;
+        backend.chunkWrites.set(0);
+        RecordingUpload resumed = upload();
+
+        assertNull(resumed.error);
+        assertEquals(21 - 7, backend.chunkWrites.get()); // Les 7 premiers blocs ne sont pas renvoyés
+        assertEquals(8, resumed.firstProgress);
+        assertArrayEquals(payload, download());
+    }
+
+    @Test
+    public void changedContent_restartsFromFirstChunk() throws Exception {
+        backend.failAtChunk = 5;
+        upload();
+        backend.failAtChunk = -1;
+        backend.chunkWrites.set(0);
+
+        payload[0]++;
+        upload();
+
+        assertEquals(21, backend.chunkWrites.get());
+        assertArrayEquals(payload, download());
+    }
+
+    @Test
+    public void corruptedChunk_failsDownloadAfterOneRetry() throws Exception {
+        upload();
+        backend.chunks.get(3)[100] ^= 1;
+
+        AtomicReference<Exception> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        store.download(BLOB, (offset, data) -> { }, new ChunkedBlobStore.ResultCallback<ChunkedBlobStore.Manifest>() {
+            @Override
+            public void onResult(ChunkedBlobStore.Manifest result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(error.get() instanceof IOException);
+        assertEquals(2, backend.readsOf(3));
+    }
+
+    @Test
+    public void incompleteUpload_isNotDownloadable() throws Exception {
+        backend.failAtChunk = 2;
+        upload();
+
+        AtomicReference<Exception> error = new AtomicReference<>();
+        store.download(BLOB, (offset, data) -> fail("Aucun bloc attendu"), new ChunkedBlobStore.ResultCallback<ChunkedBlobStore.Manifest>() {
+            @Override
+            public void onResult(ChunkedBlobStore.Manifest result) {
+                fail("Téléchargement inattendu");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+            }
+        });
+
+        assertNotNull(error.get());
+        assertEquals(0, backend.readsOf(0));
+    }
+
+    private RecordingUpload upload() {
+        RecordingUpload listener = new RecordingUpload();
+        store.upload(BLOB, ChunkedBlobStore.bytesSource(payload), "video/mp4", listener);
+        return listener;
+    }
+
+    private byte[] download() throws Exception {
+        byte[] result = new byte[payload.length];
+        AtomicReference<Exception> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        store.download(BLOB, (offset, data) -> {
+            synchronized (result) {
+                System.arraycopy(data, 0, result, (int) offset, data.length);
+            }
+        }, new ChunkedBlobStore.ResultCallback<ChunkedBlobStore.Manifest>() {
+            @Override
+            public void onResult(ChunkedBlobStore.Manifest manifest) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNull(error.get());
+        return result;
+    }
+
+    private static class RecordingUpload implements ChunkedBlobStore.UploadListener {
+        ChunkedBlobStore.Manifest manifest;
+        Exception error;
+        int firstProgress = -1;
+
+        @Override
+        public void onProgress(int committedChunks, int chunkCount) {
+            if (firstProgress < 0) firstProgress = committedChunks;
+        }
+
+        @Override
+        public void onComplete(ChunkedBlobStore.Manifest manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Écritures synchrones, lectures de blocs sur un pool de 8 threads
+     */
+    private static class InMemoryBackend implements ChunkedBlobStore.Backend {
+        final ExecutorService readExecutor = Executors.newFixedThreadPool(8);
+        final Map<Integer, byte[]> chunks = new HashMap<>();
+        final AtomicInteger chunkWrites = new AtomicInteger();
+        final AtomicInteger maxConcurrentReads = new AtomicInteger();
+        private final AtomicInteger concurrentReads = new AtomicInteger();
+        private final List<Integer> reads = new ArrayList<>();
+        volatile ChunkedBlobStore.Manifest manifest;
+        int failAtChunk = -1;
+
+        @Override
+        public void readManifest(String blobId, ChunkedBlobStore.ResultCallback<ChunkedBlobStore.Manifest> callback) {
+            callback.onResult(manifest);
+        }
+
+        @Override
+        public void writeManifest(String blobId, ChunkedBlobStore.Manifest manifest, ChunkedBlobStore.OperationCallback callback) {
+            this.manifest = manifest;
+            callback.onSuccess();
+        }
+
+        @Override
+        public void commitChunk(String blobId, int index, byte[] data, String checksum, ChunkedBlobStore.OperationCallback callback) {
+            if (index == failAtChunk) {
+                callback.onError(new IOException("Connexion perdue"));
+                return;
+            }
+            synchronized (chunks) {
+                chunks.put(index, data.clone());
+            }
+            chunkWrites.incrementAndGet();
+            manifest = manifest.withCommittedChunks(index + 1);
+            callback.onSuccess();
+        }
+
+        @Override
+        public void readChunk(String blobId, int index, ChunkedBlobStore.ResultCallback<byte[]> callback) {
+            synchronized (reads) {
+                reads.add(index);
+            }
+            readExecutor.execute(() -> {
+                int current = concurrentReads.incrementAndGet();
+                maxConcurrentReads.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(5); // Latence réseau
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] data;
+                synchronized (chunks) {
+                    byte[] stored = chunks.get(index);
+                    data = stored != null ? stored.clone() : null;
+                }
+                concurrentReads.decrementAndGet();
+                callback.onResult(data);
+            });
+        }
+
+        int readsOf(int index) {
+            synchronized (reads) {
+                int count = 0;
+                for (int read : reads) {
+                    if (read == index) count++;
+                }
+                return count;
+            }
+        }
+    }
+}
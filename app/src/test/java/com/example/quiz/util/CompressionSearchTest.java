@@ -0,0 +1,52 @@
+package com.example.quiz.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Recherche qualité / dimension contre un encodeur simulé dont la taille croît avec les deux
+ */
+public class CompressionSearchTest {
+    // Environ 0,2 octet par pixel à la qualité 40, 1 octet par pixel à 90
+    private static final CompressionSearch.Encoder ENCODER =
+            (maxDimension, quality) -> (long) maxDimension * maxDimension * (quality * 16 - 560) / 800;
+
+    @Test
+    public void search_keepsBestQualityWhenItFits() {
+        CompressionSearch.Result result = CompressionSearch.search(ENCODER, 800, 1024 * 1024);
+
+        assertEquals(800, result.maxDimension);
+        assertEquals(CompressionSearch.MAX_QUALITY, result.quality);
+        assertTrue(result.withinBudget);
+    }
+
+    @Test
+    public void search_lowersQualityToHighestThatFits() {
+        long budget = 300 * 1024;
+        CompressionSearch.Result result = CompressionSearch.search(ENCODER, 800, budget);
+
+        assertEquals(800, result.maxDimension);
+        assertTrue(result.encodedSize <= budget);
+        assertTrue(ENCODER.encodedSize(800, result.quality + 1) > budget);
+        assertEquals(ENCODER.encodedSize(800, result.quality), result.encodedSize);
+    }
+
+    @Test
+    public void search_shrinksDimensionWhenMinimumQualityIsTooLarge() {
+        long budget = 20 * 1024;
+        CompressionSearch.Result result = CompressionSearch.search(ENCODER, 800, budget);
+
+        assertTrue(result.maxDimension < 800);
+        assertTrue(result.encodedSize <= budget);
+    }
+
+    @Test
+    public void search_fallsBackToSmallestEncodingWhenNothingFits() {
+        CompressionSearch.Result result = CompressionSearch.search((maxDimension, quality) -> 100, 800, 10);
+
+        assertEquals(1, result.maxDimension);
+        assertEquals(CompressionSearch.FALLBACK_QUALITY, result.quality);
+        assertFalse(result.withinBudget);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.quiz.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stockage adressé par contenu dans un dossier temporaire
+ */
+public class ContentAddressedStoreTest {
+    // SHA-256 de "abc"
+    private static final String ABC_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("media-store").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void put_namesFileBySha256() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(directory);
+
+        String filename = store.put(stream("abc"), ".jpg");
+
+        assertEquals(ABC_HASH + ".jpg", filename);
+        assertEquals("abc", new String(Files.readAllBytes(store.getFile(filename).toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void repeatedImports_storeOneCopy() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(directory);
+        byte[] picture = new byte[300 * 1024];
+        for (int i = 0; i < picture.length; i++) {
+            picture[i] = (byte) (i * 31);
+        }
+
+        String first = null;
+        for (int i = 0; i < 10; i++) {
+            String filename = store.put(new ByteArrayInputStream(picture), ".jpg");
+            if (first == null) first = filename;
+            assertEquals(first, filename);
+        }
+
+        assertEquals(10, store.getRefCount(first));
+        assertEquals(1, directory.listFiles((dir, name) -> name.endsWith(".jpg")).length);
+        assertEquals(picture.length, store.getFile(first).length());
+    }
+
+    @Test
+    public void collectGarbage_deletesOnlyUnreferencedFiles() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(directory);
+        String shared = store.put(stream("abc"), ".jpg");
+        store.retain(shared);
+        String single = store.put(stream("autre image"), ".png");
+        File legacy = new File(directory, "ancien-uuid.jpg");
+        assertTrue(legacy.createNewFile());
+
+        store.release(shared);
+        store.release(single);
+        assertEquals(1, store.collectGarbage());
+
+        assertTrue(store.getFile(shared).exists());
+        assertFalse(store.getFile(single).exists());
+        assertTrue("Fichier hors index supprimé", legacy.exists());
+    }
+
+    @Test
+    public void refCounts_surviveReopen() throws IOException {
+        String filename = new ContentAddressedStore(directory).put(stream("abc"), "");
+        new ContentAddressedStore(directory).retain(filename);
+
+        assertEquals(2, new ContentAddressedStore(directory).getRefCount(filename));
+    }
+
+    @Test
+    public void remoteCopy_survivesReopenAndIsForgottenWithFile() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(directory);
+        String filename = store.put(stream("abc"), ".mp4");
+        store.markRemoteCopy(filename);
+
+        ContentAddressedStore reopened = new ContentAddressedStore(directory);
+        assertTrue(reopened.hasRemoteCopy(filename));
+
+        reopened.release(filename);
+        reopened.collectGarbage();
+        assertFalse(new ContentAddressedStore(directory).hasRemoteCopy(filename));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
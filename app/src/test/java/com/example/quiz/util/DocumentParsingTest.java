@@ -0,0 +1,175 @@
+package com.example.quiz.util;
+
+import com.example.quiz.model.QuizSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie que la conversion d'un résultat de 500 documents ne s'exécute pas sur le thread principal,
+ * simulé ici par un exécuteur à un seul thread sur lequel arrivent les réponses et les rappels.
+ */
+public class DocumentParsingTest {
+    private static final int DOCUMENT_COUNT = 500;
+
+    private ExecutorService uiExecutor;
+    private Thread uiThread;
+    private List<Map<String, Object>> documents;
+
+    @Before
+    public void setUp() throws Exception {
+        uiExecutor = Executors.newSingleThreadExecutor();
+        uiThread = uiExecutor.submit(Thread::currentThread).get();
+        DocumentParsing.setMainThread(uiThread);
+
+        documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("id", "quiz" + i);
+            data.put("title", "Quiz " + i);
+            data.put("playCount", (long) i);
+            data.put("createdAt", 1000L + i);
+            documents.add(data);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        DocumentParsing.setMainThread(null);
+        DocumentParsing.setMainThreadListener(null);
+        DocumentParsing.setStrict(true);
+        uiExecutor.shutdownNow();
+    }
+
+    @Test
+    public void parseAsync_parsesOffUiThreadAndDeliversOnIt() throws Exception {
+        Set<Thread> parsingThreads = ConcurrentHashMap.newKeySet();
+        AtomicReference<List<QuizSummary>> result = new AtomicReference<>();
+        AtomicReference<Thread> callbackThread = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Comme FirestoreUtils.loadQuiz : lancé depuis le thread principal, résultat rendu sur lui
+        uiExecutor.execute(() -> DocumentParsing.parseAsync(
+            () -> DocumentParsing.mapAll(documents, data -> {
+                parsingThreads.add(Thread.currentThread());
+                return QuizSummary.fromMap(data, (String) data.get("id"));
+            }),
+            uiExecutor,
+            new DocumentParsing.ParseCallback<List<QuizSummary>>() {
+                @Override
+                public void onParsed(List<QuizSummary> summaries) {
+                    callbackThread.set(Thread.currentThread());
+                    result.set(summaries);
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    done.countDown();
+                }
+            }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse("Conversion exécutée sur le thread principal", parsingThreads.contains(uiThread));
+        assertSame(uiThread, callbackThread.get());
+        assertEquals(DOCUMENT_COUNT, result.get().size());
+        assertEquals("quiz0", result.get().get(0).getId());
+        assertEquals(DOCUMENT_COUNT - 1, result.get().get(DOCUMENT_COUNT - 1).getPlayCount());
+    }
+
+    @Test
+    public void parseAsync_deliversParseErrorOnResultExecutor() throws Exception {
+        AtomicReference<Exception> error = new AtomicReference<>();
+        AtomicReference<Thread> callbackThread = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        DocumentParsing.<QuizSummary>parseAsync(() -> {
+            throw new IllegalArgumentException("Document illisible");
+        }, uiExecutor, new DocumentParsing.ParseCallback<QuizSummary>() {
+            @Override
+            public void onParsed(QuizSummary summary) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callbackThread.set(Thread.currentThread());
+                error.set(e);
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(error.get() instanceof IllegalArgumentException);
+        assertSame(uiThread, callbackThread.get());
+    }
+
+    @Test
+    public void mapAll_onUiThread_failsInStrictMode() throws Exception {
+        List<IllegalStateException> reports = new ArrayList<>();
+        DocumentParsing.setMainThreadListener(reports::add);
+
+        try {
+            uiExecutor.submit(() ->
+                DocumentParsing.mapAll(documents, data -> QuizSummary.fromMap(data, (String) data.get("id")))
+            ).get(5, TimeUnit.SECONDS);
+            fail("Conversion acceptée sur le thread principal");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, reports.size());
+    }
+
+    @Test
+    public void mapAll_onUiThread_isReportedAndStillParsesWhenNotStrict() throws Exception {
+        List<IllegalStateException> reports = new ArrayList<>();
+        DocumentParsing.setMainThreadListener(reports::add);
+        DocumentParsing.setStrict(false);
+
+        List<QuizSummary> summaries = uiExecutor.submit(() ->
+            DocumentParsing.mapAll(documents, data -> QuizSummary.fromMap(data, (String) data.get("id")))
+        ).get(5, TimeUnit.SECONDS);
+
+        assertEquals(DOCUMENT_COUNT, summaries.size());
+        assertEquals(1, reports.size());
+    }
+
+    @Test
+    public void listenerExecutor_keepsSubmissionOrder() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+        Executor serial = DocumentParsing.getListenerExecutor();
+        assertSame(serial, DocumentParsing.getListenerExecutor());
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            serial.execute(() -> {
+                synchronized (order) {
+                    order.add(index);
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+}
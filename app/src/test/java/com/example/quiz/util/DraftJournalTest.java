@@ -0,0 +1,126 @@
+package com.example.quiz.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Journal de brouillon avec un stockage en mémoire : chaque réouverture relit les enregistrements écrits,
+ * comme après l'arrêt du processus
+ */
+public class DraftJournalTest {
+
+    @Test
+    public void reopenedJournal_restoresItemsInOrder() {
+        InMemoryStorage storage = new InMemoryStorage();
+        DraftJournal journal = new DraftJournal(storage);
+        journal.putMeta("title", "Capitales");
+        journal.put("q1", "{\"text\":\"Capitale de la France ?\"}");
+        journal.put("q2", "Ligne 1\nLigne 2\tavec tabulation \\ et barre");
+        journal.put("q3", "Troisième");
+        journal.put("q1", "{\"text\":\"Capitale de l'Italie ?\"}");
+        journal.remove("q3");
+
+        DraftJournal reopened = new DraftJournal(storage);
+
+        assertEquals(Arrays.asList("q1", "q2"), reopened.getIds());
+        assertEquals("{\"text\":\"Capitale de l'Italie ?\"}", reopened.get("q1"));
+        assertEquals("Ligne 1\nLigne 2\tavec tabulation \\ et barre", reopened.get("q2"));
+        assertNull(reopened.get("q3"));
+        assertEquals("Capitales", reopened.getMeta("title"));
+    }
+
+    @Test
+    public void onlyItemsChangedSinceLastSync_areDirty() {
+        InMemoryStorage storage = new InMemoryStorage();
+        DraftJournal journal = new DraftJournal(storage);
+        journal.put("q1", "A");
+        journal.put("q2", "B");
+        journal.markSynced(journal.getDirtyRevisions());
+        assertTrue(journal.getDirtyRevisions().isEmpty());
+
+        journal.put("q2", "B modifiée");
+        journal.put("q2", "B modifiée"); // Inchangée : aucun enregistrement
+        journal.put("q3", "C");
+
+        DraftJournal reopened = new DraftJournal(storage);
+        assertEquals(Arrays.asList("q2", "q3"), new ArrayList<>(reopened.getDirtyRevisions().keySet()));
+    }
+
+    @Test
+    public void editDuringSync_staysDirty() {
+        DraftJournal journal = new DraftJournal(new InMemoryStorage());
+        journal.put("q1", "A");
+        Map<String, Long> uploading = journal.getDirtyRevisions();
+
+        journal.put("q1", "A modifiée pendant l'envoi");
+        journal.markSynced(uploading);
+
+        assertEquals(Arrays.asList("q1"), new ArrayList<>(journal.getDirtyRevisions().keySet()));
+    }
+
+    @Test
+    public void compaction_keepsStateAndBoundsJournal() {
+        InMemoryStorage storage = new InMemoryStorage();
+        DraftJournal journal = new DraftJournal(storage, 10);
+        for (int i = 0; i < 500; i++) {
+            journal.put("q" + (i % 3), "version " + i);
+        }
+        journal.markSynced(journal.getDirtyRevisions());
+        journal.put("q0", "dernière version");
+
+        assertTrue(storage.records.size() <= 3 + 3 + 10);
+        assertTrue(storage.rewrites > 0);
+
+        DraftJournal reopened = new DraftJournal(storage, 10);
+        assertEquals(Arrays.asList("q0", "q1", "q2"), reopened.getIds());
+        assertEquals("dernière version", reopened.get("q0"));
+        assertEquals("version 499", reopened.get("q1"));
+        assertEquals(Arrays.asList("q0"), new ArrayList<>(reopened.getDirtyRevisions().keySet()));
+
+        // Les révisions continuent après la compaction
+        reopened.put("q1", "après réouverture");
+        assertEquals(Arrays.asList("q0", "q1"), new ArrayList<>(reopened.getDirtyRevisions().keySet()));
+    }
+
+    @Test
+    public void truncatedRecord_isIgnored() {
+        InMemoryStorage storage = new InMemoryStorage();
+        DraftJournal journal = new DraftJournal(storage);
+        journal.put("q1", "A");
+        storage.records.add("P\tq2\t"); // Écriture interrompue
+
+        DraftJournal reopened = new DraftJournal(storage);
+
+        assertEquals(Arrays.asList("q1"), reopened.getIds());
+        reopened.put("q2", "B");
+        assertEquals("B", new DraftJournal(storage).get("q2"));
+    }
+
+    private static class InMemoryStorage implements DraftJournal.Storage {
+        final List<String> records = new ArrayList<>();
+        int rewrites = 0;
+
+        @Override
+        public List<String> read() {
+            return new ArrayList<>(records);
+        }
+
+        @Override
+        public void append(String record) {
+            records.add(record);
+        }
+
+        @Override
+        public void rewrite(List<String> newRecords) {
+            records.clear();
+            records.addAll(newRecords);
+            rewrites++;
+        }
+    }
+}
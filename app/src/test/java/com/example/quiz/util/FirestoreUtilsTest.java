@@ -0,0 +1,75 @@
+package com.example.quiz.util;
+
+import android.app.Application;
+import android.os.Looper;
+
+import com.example.quiz.model.QuizSummary;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conversion d'une page de l'accueil par FirestoreUtils, à partir d'instantanés simulés :
+ * elle aboutit sur les threads de conversion et échoue sur le thread principal (mode strict).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class FirestoreUtilsTest {
+    private static final int DOCUMENT_COUNT = 500;
+
+    private List<DocumentSnapshot> documents;
+
+    @Before
+    public void setUp() {
+        DocumentParsing.setMainThread(Looper.getMainLooper().getThread());
+
+        documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("title", "Quiz " + i);
+            data.put("playCount", (long) i);
+            data.put("createdAt", 1000L + i);
+            DocumentSnapshot document = mock(DocumentSnapshot.class);
+            when(document.getId()).thenReturn("quiz" + i);
+            when(document.getData()).thenReturn(data);
+            documents.add(document);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        DocumentParsing.setMainThread(null);
+    }
+
+    @Test
+    public void parseSummaries_onParsingThread_convertsEveryDocument() throws Exception {
+        List<QuizSummary> summaries = CompletableFuture
+            .supplyAsync(() -> FirestoreUtils.parseSummaries(documents), DocumentParsing.getExecutor())
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals(DOCUMENT_COUNT, summaries.size());
+        assertEquals("quiz0", summaries.get(0).getId());
+        assertEquals(DOCUMENT_COUNT - 1, summaries.get(DOCUMENT_COUNT - 1).getPlayCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void parseSummaries_onMainThread_fails() {
+        FirestoreUtils.parseSummaries(documents);
+    }
+}
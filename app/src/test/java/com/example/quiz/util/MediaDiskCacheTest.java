@@ -0,0 +1,152 @@
+package com.example.quiz.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Quota LRU sur un dossier temporaire, avec une horloge simulée
+ */
+public class MediaDiskCacheTest {
+    private static final int FILE_SIZE = 1000;
+
+    private File directory;
+    private long[] clock;
+    private List<String> evicted;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("media-cache").toFile();
+        clock = new long[] {0};
+        evicted = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void overQuota_evictsLeastRecentlyUsed() throws IOException {
+        MediaDiskCache cache = open(3 * FILE_SIZE);
+        add(cache, "a.jpg");
+        add(cache, "b.jpg");
+        add(cache, "c.jpg");
+        clock[0]++;
+        assertNotNull(cache.get("a.jpg")); // "b" devient le moins récemment utilisé
+
+        add(cache, "d.jpg");
+
+        assertEquals(1, evicted.size());
+        assertEquals("b.jpg", evicted.get(0));
+        assertFalse(new File(directory, "b.jpg").exists());
+        assertEquals(3 * FILE_SIZE, cache.getStats().bytesUsed);
+        assertEquals(1, cache.getStats().evictions);
+    }
+
+    @Test
+    public void pinnedFiles_areNeverEvicted() throws IOException {
+        MediaDiskCache cache = open(2 * FILE_SIZE);
+        add(cache, "brouillon.jpg");
+        cache.pin("brouillon.jpg");
+        add(cache, "b.jpg");
+        add(cache, "c.jpg");
+        add(cache, "d.jpg");
+
+        assertTrue(new File(directory, "brouillon.jpg").exists());
+        assertEquals(2, evicted.size());
+        assertFalse(evicted.contains("brouillon.jpg"));
+
+        cache.unpin("brouillon.jpg");
+        cache.setQuotaBytes(FILE_SIZE);
+        assertTrue(evicted.contains("brouillon.jpg"));
+    }
+
+    @Test
+    public void guardedFiles_areSkippedByEviction() throws IOException {
+        // "local.jpg" est la seule copie d'un média créé sur l'appareil
+        MediaDiskCache cache = new MediaDiskCache(directory, 2 * FILE_SIZE, evicted::add,
+            filename -> !filename.equals("local.jpg"));
+        add(cache, "local.jpg");
+        add(cache, "b.jpg");
+        add(cache, "c.jpg");
+
+        assertTrue(new File(directory, "local.jpg").exists());
+        assertEquals(1, evicted.size());
+        assertEquals("b.jpg", evicted.get(0));
+    }
+
+    @Test
+    public void index_survivesRestartWithoutScanning() throws IOException {
+        MediaDiskCache cache = open(10 * FILE_SIZE);
+        add(cache, "a.jpg");
+        add(cache, "b.jpg");
+        cache.pin("a.jpg");
+        clock[0]++;
+        cache.get("b.jpg");
+        cache.flush();
+        // Fichier présent sur le disque mais absent de l'index : ni compté, ni supprimé
+        write("ancien.jpg");
+
+        MediaDiskCache reopened = open(FILE_SIZE);
+        assertEquals(2 * FILE_SIZE, reopened.getStats().bytesUsed);
+        assertTrue(reopened.isPinned("a.jpg"));
+
+        add(reopened, "c.jpg");
+        assertEquals(2, evicted.size());
+        assertEquals("b.jpg", evicted.get(0));
+        assertTrue(new File(directory, "a.jpg").exists());
+        assertTrue(new File(directory, "ancien.jpg").exists());
+    }
+
+    @Test
+    public void stats_reportHitRate() throws IOException {
+        MediaDiskCache cache = open(10 * FILE_SIZE);
+        add(cache, "a.jpg");
+        cache.get("a.jpg");
+        cache.get("a.jpg");
+        cache.get("a.jpg");
+        cache.get("absent.jpg");
+
+        MediaDiskCache.Stats stats = cache.getStats();
+        assertEquals(3, stats.hits);
+        assertEquals(1, stats.misses);
+        assertEquals(0.75, stats.getHitRate(), 0.001);
+    }
+
+    private MediaDiskCache open(long quotaBytes) throws IOException {
+        return new MediaDiskCache(directory, quotaBytes, evicted::add) {
+            @Override
+            protected long now() {
+                return clock[0];
+            }
+        };
+    }
+
+    private void add(MediaDiskCache cache, String filename) throws IOException {
+        write(filename);
+        clock[0]++;
+        cache.recordAdded(filename);
+    }
+
+    private void write(String filename) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(new File(directory, filename))) {
+            out.write(new byte[FILE_SIZE]);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.quiz.util;
+
+import com.example.quiz.model.Question;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du chargement par lots des questions, contre un stockage en mémoire qui répond
+ * de façon asynchrone sur un nombre limité de connexions et compte les allers-retours.
+ */
+public class QuestionBatchLoaderTest {
+    private static final int QUESTION_COUNT = 50;
+    private static final int CONNECTIONS = 4;
+
+    private ExecutorService network;
+    private Map<String, Question> store;
+
+    @Before
+    public void setUp() {
+        network = Executors.newFixedThreadPool(CONNECTIONS);
+        store = new HashMap<>();
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            String id = "q" + i;
+            store.put(id, new Question(id, "Question " + i, null, null, null, 0, null, 1, "Test", 0, "test"));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        network.shutdownNow();
+    }
+
+    @Test
+    public void chunk_respectsWhereInLimit() {
+        List<List<String>> chunks = QuestionBatchLoader.chunk(ids(QUESTION_COUNT), QuestionBatchLoader.MAX_IDS_PER_QUERY);
+        assertEquals(2, chunks.size());
+        assertEquals(30, chunks.get(0).size());
+        assertEquals(20, chunks.get(1).size());
+    }
+
+    @Test
+    public void load_returnsQuestionsInRequestedOrder() throws Exception {
+        List<String> requested = new ArrayList<>();
+        for (int i = QUESTION_COUNT - 1; i >= 0; i--) {
+            requested.add("q" + i);
+        }
+
+        Result result = loadAndWait(requested, QuestionBatchLoader.MAX_IDS_PER_QUERY, new InMemoryFetcher(null));
+
+        assertTrue(result.errors.isEmpty());
+        assertEquals(QUESTION_COUNT, result.questions.size());
+        for (int i = 0; i < requested.size(); i++) {
+            assertEquals(requested.get(i), result.questions.get(i).getId());
+        }
+    }
+
+    @Test
+    public void load_keepsOtherChunksWhenOneFails() throws Exception {
+        Result result = loadAndWait(ids(QUESTION_COUNT), QuestionBatchLoader.MAX_IDS_PER_QUERY, new InMemoryFetcher("q0"));
+
+        assertEquals(1, result.errors.size());
+        assertEquals(QUESTION_COUNT - 30, result.questions.size());
+        assertEquals("q30", result.questions.get(0).getId());
+    }
+
+    @Test
+    public void load_usesOneRoundTripPerChunkOfThirty() throws Exception {
+        for (int count : new int[] {1, 29, 30, 31, QUESTION_COUNT}) {
+            List<String> ids = ids(count);
+
+            // Chemin historique : un get() par question
+            InMemoryFetcher legacyFetcher = new InMemoryFetcher(null);
+            Result legacy = loadAndWait(ids, 1, legacyFetcher);
+
+            // Nouveau chemin : whereIn par lots de 30
+            InMemoryFetcher batchedFetcher = new InMemoryFetcher(null);
+            Result batched = loadAndWait(ids, QuestionBatchLoader.MAX_IDS_PER_QUERY, batchedFetcher);
+
+            int expectedRoundTrips = (count + QuestionBatchLoader.MAX_IDS_PER_QUERY - 1) / QuestionBatchLoader.MAX_IDS_PER_QUERY;
+            assertEquals(count, legacy.questions.size());
+            assertEquals(count, batched.questions.size());
+            assertEquals(count, legacyFetcher.roundTrips.get());
+            assertEquals(expectedRoundTrips, batchedFetcher.roundTrips.get());
+        }
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add("q" + i);
+        }
+        return ids;
+    }
+
+    private Result loadAndWait(List<String> ids, int chunkSize, QuestionBatchLoader.ChunkFetcher fetcher) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Result result = new Result();
+        QuestionBatchLoader.load(ids, chunkSize, fetcher, (questions, chunkErrors) -> {
+            result.questions = questions;
+            result.errors = chunkErrors;
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static class Result {
+        List<Question> questions;
+        List<Exception> errors;
+    }
+
+    /**
+     * Stand-in de Firestore : chaque appel compte pour un aller-retour et répond sur une connexion du pool
+     */
+    private class InMemoryFetcher implements QuestionBatchLoader.ChunkFetcher {
+        private final String failingId;
+        final AtomicInteger roundTrips = new AtomicInteger();
+
+        InMemoryFetcher(String failingId) {
+            this.failingId = failingId;
+        }
+
+        @Override
+        public void fetch(List<String> ids, QuestionBatchLoader.ChunkCallback callback) {
+            roundTrips.incrementAndGet();
+            network.execute(() -> {
+                if (failingId != null && ids.contains(failingId)) {
+                    callback.onChunkFailed(new Exception("Lot indisponible"));
+                    return;
+                }
+
+                Map<String, Question> found = new HashMap<>();
+                for (String id : ids) {
+                    if (store.containsKey(id)) {
+                        found.put(id, store.get(id));
+                    }
+                }
+                callback.onChunkLoaded(found);
+            });
+        }
+    }
+}
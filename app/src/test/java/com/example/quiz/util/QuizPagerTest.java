@@ -0,0 +1,175 @@
+package com.example.quiz.util;
+
+import com.example.quiz.model.QuizSummary;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pagination contre une liste en mémoire qui répond immédiatement ; le curseur d'une page est l'ID
+ * de son dernier élément et l'horloge du pager est avancée à la main.
+ */
+public class QuizPagerTest {
+    private static final int ITEM_COUNT = 10;
+
+    private FakeFetcher fetcher;
+
+    @Before
+    public void setUp() {
+        fetcher = new FakeFetcher(ITEM_COUNT);
+    }
+
+    @Test
+    public void scrolling_keepsAtMostMaxPagesAndReloadsEvictedPage() {
+        TestPager pager = new TestPager(fetcher, 2, 2);
+        pager.refresh();
+        scrollToEnd(pager);
+        scrollToEnd(pager);
+
+        // La première page est sortie de la fenêtre
+        assertEquals(Arrays.asList("i2", "i3", "i4", "i5"), ids(pager.getItems()));
+        assertEquals(2, pager.getLoadedPageCount());
+
+        // En revenant en haut, elle est relue avec le curseur de la page qui la précède
+        pager.onVisibleRangeChanged(0, 0);
+        assertEquals(Arrays.asList("i0", "i1", "i2", "i3"), ids(pager.getItems()));
+        assertEquals(2, pager.getLoadedPageCount());
+    }
+
+    @Test
+    public void nextPage_startsAfterCursorOfPreviousPage() {
+        TestPager pager = new TestPager(fetcher, 4, 5);
+        pager.refresh();
+        scrollToEnd(pager);
+        scrollToEnd(pager);
+        scrollToEnd(pager); // Fin de liste : plus de requête
+
+        assertEquals(Arrays.asList(null, "i3", "i7"), fetcher.cursors);
+        assertEquals(ITEM_COUNT, pager.getItems().size());
+        assertTrue(pager.isEndReached());
+    }
+
+    @Test
+    public void failedPage_isRetriedOnScrollAfterBackoff() {
+        TestPager pager = new TestPager(fetcher, 2, 5);
+        pager.refresh();
+        fetcher.failuresLeft = 2;
+
+        scrollToEnd(pager);
+        assertTrue(pager.hasFailed());
+        assertEquals(2, fetcher.cursors.size());
+
+        // Pas de nouvel essai avant le délai
+        pager.time += QuizPager.RETRY_DELAY_MS - 1;
+        scrollToEnd(pager);
+        assertEquals(2, fetcher.cursors.size());
+
+        pager.time += 1;
+        scrollToEnd(pager);
+        assertEquals(3, fetcher.cursors.size());
+
+        // Second échec consécutif : le délai double
+        pager.time += QuizPager.RETRY_DELAY_MS;
+        scrollToEnd(pager);
+        assertEquals(3, fetcher.cursors.size());
+        pager.time += QuizPager.RETRY_DELAY_MS;
+        scrollToEnd(pager);
+
+        assertFalse(pager.hasFailed());
+        assertEquals(Arrays.asList("i0", "i1", "i2", "i3"), ids(pager.getItems()));
+        assertEquals("i1", fetcher.cursors.get(3));
+    }
+
+    @Test
+    public void retry_reloadsImmediately() {
+        TestPager pager = new TestPager(fetcher, 2, 5);
+        fetcher.failuresLeft = 1;
+        pager.refresh();
+        assertTrue(pager.hasFailed());
+        assertTrue(pager.getItems().isEmpty());
+
+        pager.retry();
+
+        assertFalse(pager.hasFailed());
+        assertEquals(Arrays.asList("i0", "i1"), ids(pager.getItems()));
+    }
+
+    @Test
+    public void itemAddedToFirstPage_isRemovedFromLaterPages() {
+        TestPager pager = new TestPager(fetcher, 2, 5);
+        pager.setFirstPage(new ArrayList<>(fetcher.items.subList(0, 2)), "i1");
+        scrollToEnd(pager);
+        assertEquals(Arrays.asList("i0", "i1", "i2", "i3"), ids(pager.getItems()));
+
+        // "i3" remonte en tête : la première page reçoit son ajout et perd "i1"
+        List<QuizPager.LiveChange> changes = Arrays.asList(
+            new QuizPager.LiveChange(QuizPager.LiveChange.Type.REMOVED, 1, -1, fetcher.items.get(1)),
+            new QuizPager.LiveChange(QuizPager.LiveChange.Type.ADDED, -1, 0, fetcher.items.get(3)));
+        pager.applyFirstPageChanges(changes, "i0");
+
+        assertEquals(Arrays.asList("i3", "i0", "i2"), ids(pager.getItems()));
+    }
+
+    private static void scrollToEnd(QuizPager pager) {
+        int last = pager.getItems().size() - 1;
+        pager.onVisibleRangeChanged(Math.max(last - 1, 0), last);
+    }
+
+    private static List<String> ids(List<QuizSummary> summaries) {
+        List<String> ids = new ArrayList<>();
+        for (QuizSummary summary : summaries) {
+            ids.add(summary.getId());
+        }
+        return ids;
+    }
+
+    private static class TestPager extends QuizPager {
+        long time = 1000;
+
+        TestPager(PageFetcher fetcher, int pageSize, int maxPages) {
+            super(fetcher, pageSize, maxPages, 0);
+        }
+
+        @Override
+        protected long now() {
+            return time;
+        }
+    }
+
+    private static class FakeFetcher implements QuizPager.PageFetcher {
+        final List<QuizSummary> items = new ArrayList<>();
+        final List<Object> cursors = new ArrayList<>();
+        int failuresLeft = 0;
+
+        FakeFetcher(int count) {
+            for (int i = 0; i < count; i++) {
+                QuizSummary summary = new QuizSummary();
+                summary.setId("i" + i);
+                items.add(summary);
+            }
+        }
+
+        @Override
+        public void fetchPage(Object cursor, int pageSize, QuizPager.PageCallback callback) {
+            cursors.add(cursor);
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                callback.onPageFailed(new Exception("Réseau indisponible"));
+                return;
+            }
+            int start = 0;
+            if (cursor != null) {
+                start = ids(items).indexOf(cursor) + 1;
+            }
+            List<QuizSummary> page = new ArrayList<>(items.subList(start, Math.min(start + pageSize, items.size())));
+            Object nextCursor = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+            callback.onPageLoaded(page, nextCursor);
+        }
+    }
+}
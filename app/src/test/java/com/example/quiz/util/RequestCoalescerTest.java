@@ -0,0 +1,203 @@
+package com.example.quiz.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Regroupement des chargements avec un chargeur qui ne répond que lorsque le test le décide,
+ * et une horloge avancée à la main.
+ */
+public class RequestCoalescerTest {
+    private static final long TTL_MS = 1000;
+
+    private ManualLoader loader;
+    private TestCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        loader = new ManualLoader();
+        coalescer = new TestCoalescer(3, loader);
+    }
+
+    @Test
+    public void concurrentRequests_shareOneLoad() {
+        List<String> results = new ArrayList<>();
+        coalescer.get("a", collect(results));
+        coalescer.get("a", collect(results));
+        coalescer.get("a", collect(results));
+
+        assertEquals(Collections.singletonList("a"), loader.requested);
+        loader.complete("a");
+
+        assertEquals(Arrays.asList("A", "A", "A"), results);
+        RequestCoalescer.Stats stats = coalescer.getStats();
+        assertEquals(1, stats.misses);
+        assertEquals(2, stats.coalesced);
+    }
+
+    @Test
+    public void memoizedValue_expiresAfterTtl() {
+        List<String> results = new ArrayList<>();
+        coalescer.get("a", collect(results));
+        loader.complete("a");
+
+        coalescer.time += TTL_MS - 1;
+        coalescer.get("a", collect(results));
+        assertEquals(1, loader.requested.size());
+        assertEquals(1, coalescer.getStats().hits);
+
+        coalescer.time += 1;
+        coalescer.get("a", collect(results));
+        assertEquals(2, loader.requested.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntry_isEvicted() {
+        for (String key : Arrays.asList("a", "b", "c")) {
+            coalescer.get(key, collect(new ArrayList<>()));
+            loader.complete(key);
+        }
+        coalescer.get("a", collect(new ArrayList<>())); // "b" devient la moins récemment utilisée
+
+        coalescer.get("d", collect(new ArrayList<>()));
+        loader.complete("d");
+        coalescer.get("a", collect(new ArrayList<>()));
+        coalescer.get("b", collect(new ArrayList<>()));
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "b"), loader.requested);
+    }
+
+    @Test
+    public void errors_areNotMemoized() {
+        List<String> results = new ArrayList<>();
+        coalescer.get("a", collect(results));
+        loader.fail("a");
+        coalescer.get("a", collect(results));
+
+        assertEquals(Collections.singletonList("erreur"), results);
+        assertEquals(2, loader.requested.size());
+    }
+
+    @Test
+    public void getAll_loadsOnlyKeysNotMemoizedOrInFlight() {
+        TestCoalescer bulkCoalescer = new TestCoalescer(10, loader);
+        List<List<String>> bulkRequests = new ArrayList<>();
+        List<RequestCoalescer.BulkCallback<String, String>> bulkCallbacks = new ArrayList<>();
+        RequestCoalescer.BulkLoader<String, String> bulkLoader = (keys, callback) -> {
+            bulkRequests.add(keys);
+            bulkCallbacks.add(callback);
+        };
+
+        bulkCoalescer.get("a", collect(new ArrayList<>()));
+        loader.complete("a");
+        bulkCoalescer.get("b", collect(new ArrayList<>())); // Toujours en cours
+
+        List<Map<String, String>> results = new ArrayList<>();
+        bulkCoalescer.getAll(Arrays.asList("a", "b", "c", "d", "c"), bulkLoader, (values, errors) -> {
+            assertTrue(errors.isEmpty());
+            results.add(values);
+        });
+
+        assertEquals(Collections.singletonList(Arrays.asList("c", "d")), bulkRequests);
+        Map<String, String> loaded = new HashMap<>();
+        loaded.put("c", "C"); // "d" introuvable
+        bulkCallbacks.get(0).onResult(loaded, new ArrayList<>());
+        assertTrue(results.isEmpty()); // "b" n'est pas encore arrivée
+
+        loader.complete("b");
+        assertEquals(1, results.size());
+        Map<String, String> expected = new HashMap<>();
+        expected.put("a", "A");
+        expected.put("b", "B");
+        expected.put("c", "C");
+        assertEquals(expected, results.get(0));
+
+        // "c" est maintenant mémorisée seule, "d" (introuvable) est redemandée
+        bulkCoalescer.getAll(Arrays.asList("c", "d"), bulkLoader, (values, errors) -> results.add(values));
+        assertEquals(Collections.singletonList("d"), bulkRequests.get(1));
+    }
+
+    @Test
+    public void weightBound_evictsLeastRecentlyUsedAndSkipsOversizedValues() {
+        // Poids = longueur de la valeur ; les valeurs chargées répètent la clé
+        RequestCoalescer<String, String> weighted = new RequestCoalescer<String, String>(10, 10, TTL_MS,
+                (key, callback) -> callback.onResult(key)) {
+            @Override
+            protected long weigh(String value) {
+                return value.length();
+            }
+        };
+
+        weighted.get("aaaa", collect(new ArrayList<>()));
+        weighted.get("bbbb", collect(new ArrayList<>()));
+        assertEquals(8, weighted.getTotalWeight());
+
+        weighted.get("cccc", collect(new ArrayList<>())); // "aaaa" est évincée
+        assertEquals(8, weighted.getTotalWeight());
+        weighted.get("bbbb", collect(new ArrayList<>()));
+        assertEquals(1, weighted.getStats().hits);
+        weighted.get("aaaa", collect(new ArrayList<>()));
+        assertEquals(4, weighted.getStats().misses);
+
+        // Plus lourde que la borne : transmise mais jamais mémorisée
+        List<String> results = new ArrayList<>();
+        weighted.get("xxxxxxxxxxxx", collect(results));
+        assertEquals(Collections.singletonList("xxxxxxxxxxxx"), results);
+        assertEquals(8, weighted.getTotalWeight());
+    }
+
+    private static RequestCoalescer.Callback<String> collect(List<String> results) {
+        return new RequestCoalescer.Callback<String>() {
+            @Override
+            public void onResult(String value) {
+                results.add(value);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                results.add("erreur");
+            }
+        };
+    }
+
+    private static class TestCoalescer extends RequestCoalescer<String, String> {
+        long time = 1000;
+
+        TestCoalescer(int maxEntries, Loader<String, String> loader) {
+            super(maxEntries, TTL_MS, loader);
+        }
+
+        @Override
+        protected long now() {
+            return time;
+        }
+    }
+
+    private static class ManualLoader implements RequestCoalescer.Loader<String, String> {
+        final List<String> requested = new ArrayList<>();
+        final Map<String, RequestCoalescer.Callback<String>> pending = new HashMap<>();
+
+        @Override
+        public void load(String key, RequestCoalescer.Callback<String> callback) {
+            requested.add(key);
+            pending.put(key, callback);
+        }
+
+        void complete(String key) {
+            pending.remove(key).onResult(key.toUpperCase());
+        }
+
+        void fail(String key) {
+            pending.remove(key).onError(new Exception("Réseau indisponible"));
+        }
+    }
+}
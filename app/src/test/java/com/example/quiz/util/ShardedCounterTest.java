@@ -0,0 +1,175 @@
+package com.example.quiz.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Incréments concurrents contre un stockage de shards en mémoire, qui compte les écritures reçues par document
+ */
+public class ShardedCounterTest {
+    private static final String QUIZ_ID = "quiz1";
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 500;
+    private static final int SHARDS = 10;
+
+    private InMemoryShardStore store;
+    private ExecutorService players;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryShardStore();
+        players = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        players.shutdownNow();
+    }
+
+    @Test
+    public void concurrentIncrements_areAllCounted() throws Exception {
+        ShardedCounter counter = new ShardedCounter(store, SHARDS, Long.MAX_VALUE, new Random(42));
+        int total = THREADS * INCREMENTS_PER_THREAD;
+        CountDownLatch done = new CountDownLatch(total);
+        AtomicInteger errors = new AtomicInteger();
+
+        for (int t = 0; t < THREADS; t++) {
+            players.execute(() -> {
+                for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                    counter.increment(QUIZ_ID, 1, new ShardedCounter.OnCounterOperationListener() {
+                        @Override
+                        public void onSuccess() {
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            errors.incrementAndGet();
+                            done.countDown();
+                        }
+                    });
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, errors.get());
+        assertEquals(total, store.sum(QUIZ_ID));
+
+        // Chaque shard ne reçoit qu'une fraction des écritures
+        assertEquals(SHARDS, store.writesPerShard.size());
+        for (AtomicInteger writes : store.writesPerShard.values()) {
+            assertTrue("Shard trop sollicité : " + writes.get(), writes.get() < 2 * total / SHARDS);
+        }
+    }
+
+    @Test
+    public void rollUp_copiesSumOfShardsIntoTotal() {
+        store.base.put(QUIZ_ID, 100L); // Parties comptées avant l'introduction des shards
+        ShardedCounter counter = new ShardedCounter(store, SHARDS, Long.MAX_VALUE, new Random(1));
+        for (int i = 0; i < 25; i++) {
+            counter.increment(QUIZ_ID, 1, null);
+        }
+
+        counter.rollUp(QUIZ_ID, null);
+
+        assertEquals(Long.valueOf(125), store.rolledUp.get(QUIZ_ID));
+    }
+
+    @Test
+    public void increment_rollsUpAtMostOncePerInterval() {
+        long[] now = {0};
+        ShardedCounter counter = new ShardedCounter(store, SHARDS, 1000, new Random(7)) {
+            @Override
+            protected long now() {
+                return now[0];
+            }
+        };
+
+        for (int i = 0; i < 50; i++) {
+            counter.increment(QUIZ_ID, 1, null);
+        }
+        assertEquals(1, store.rollUpCount.get());
+        assertEquals(Long.valueOf(1), store.rolledUp.get(QUIZ_ID));
+
+        now[0] = 1000;
+        counter.increment(QUIZ_ID, 1, null);
+        assertEquals(2, store.rollUpCount.get());
+        assertEquals(Long.valueOf(51), store.rolledUp.get(QUIZ_ID));
+    }
+
+    @Test
+    public void rollUpPending_reportsIncrementsSkippedDuringInterval() {
+        long[] now = {0};
+        ShardedCounter counter = new ShardedCounter(store, SHARDS, 1000, new Random(3)) {
+            @Override
+            protected long now() {
+                return now[0];
+            }
+        };
+
+        counter.increment(QUIZ_ID, 1, null);
+        counter.increment(QUIZ_ID, 1, null); // Dans l'intervalle : mis en attente
+        assertTrue(counter.hasPendingRollUps());
+
+        counter.rollUpPending(); // Intervalle pas encore écoulé
+        assertEquals(Long.valueOf(1), store.rolledUp.get(QUIZ_ID));
+
+        now[0] = 1000;
+        counter.rollUpPending();
+        assertEquals(Long.valueOf(2), store.rolledUp.get(QUIZ_ID));
+        assertFalse(counter.hasPendingRollUps());
+        assertEquals(2, store.rollUpCount.get());
+    }
+
+    private static class InMemoryShardStore implements ShardedCounter.ShardStore {
+        final Map<String, AtomicLong> shards = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> writesPerShard = new ConcurrentHashMap<>();
+        final Map<String, Long> base = new ConcurrentHashMap<>();
+        final Map<String, Long> rolledUp = new ConcurrentHashMap<>();
+        final AtomicInteger rollUpCount = new AtomicInteger();
+
+        @Override
+        public void incrementShard(String counterId, int shard, long delta, ShardedCounter.OnCounterOperationListener listener) {
+            String key = counterId + "/" + shard;
+            shards.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+            writesPerShard.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            if (listener != null) listener.onSuccess();
+        }
+
+        @Override
+        public void readTotal(String counterId, ShardedCounter.OnTotalListener listener) {
+            listener.onTotal(base.getOrDefault(counterId, 0L) + sum(counterId));
+        }
+
+        @Override
+        public void writeTotal(String counterId, long total, ShardedCounter.OnCounterOperationListener listener) {
+            rolledUp.put(counterId, total);
+            rollUpCount.incrementAndGet();
+            listener.onSuccess();
+        }
+
+        long sum(String counterId) {
+            long sum = 0;
+            for (Map.Entry<String, AtomicLong> entry : shards.entrySet()) {
+                if (entry.getKey().startsWith(counterId + "/")) {
+                    sum += entry.getValue().get();
+                }
+            }
+            return sum;
+        }
+    }
+}
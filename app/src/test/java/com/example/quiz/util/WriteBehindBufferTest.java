@@ -0,0 +1,153 @@
+package com.example.quiz.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * File d'écritures différées avec un stockage local en mémoire et un envoi simulé,
+ * qui compte les écritures de documents reçues
+ */
+public class WriteBehindBufferTest {
+    private static final String COUNTER = "counters/quiz1";
+    private static final String PLAYER = "users/user1";
+
+    private InMemoryStorage storage;
+    private RecordingFlusher flusher;
+
+    @Before
+    public void setUp() {
+        storage = new InMemoryStorage();
+        flusher = new RecordingFlusher();
+    }
+
+    @Test
+    public void rapidPlays_areCoalescedIntoOneFlush() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(storage, flusher);
+        for (int i = 0; i < 20; i++) {
+            buffer.add(COUNTER, "count", 1);
+            buffer.add(PLAYER, "totalQuizPlayed", 1);
+            buffer.add(PLAYER, "totalPoints", 10);
+        }
+
+        buffer.flush(null);
+        flusher.completeNext();
+
+        assertEquals(1, flusher.writes.size());
+        assertEquals(2, flusher.documentWrites);
+        Map<String, Map<String, Long>> sent = flusher.writes.get(0);
+        assertEquals(Long.valueOf(20), sent.get(COUNTER).get("count"));
+        assertEquals(Long.valueOf(20), sent.get(PLAYER).get("totalQuizPlayed"));
+        assertEquals(Long.valueOf(200), sent.get(PLAYER).get("totalPoints"));
+        assertTrue(buffer.isEmpty());
+        assertTrue(storage.saved.isEmpty());
+    }
+
+    @Test
+    public void pendingDeltas_surviveProcessDeath() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(storage, flusher);
+        buffer.add(COUNTER, "count", 3);
+        buffer.add(PLAYER, "categoryScores.Science", 30);
+
+        // Nouveau processus : seule la copie locale subsiste
+        WriteBehindBuffer restored = new WriteBehindBuffer(storage, flusher);
+        assertEquals(2, restored.getPendingFieldCount());
+
+        restored.flush(null);
+        flusher.completeNext();
+        Map<String, Map<String, Long>> sent = flusher.writes.get(0);
+        assertEquals(Long.valueOf(3), sent.get(COUNTER).get("count"));
+        assertEquals(Long.valueOf(30), sent.get(PLAYER).get("categoryScores.Science"));
+    }
+
+    @Test
+    public void inFlightDeltas_arePersistedUntilConfirmed() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(storage, flusher);
+        buffer.add(COUNTER, "count", 5);
+        buffer.flush(null);
+        buffer.add(COUNTER, "count", 1);
+
+        // Arrêt pendant l'envoi : rien n'est perdu
+        assertEquals(Long.valueOf(6), storage.saved.get(COUNTER).get("count"));
+
+        flusher.completeNext();
+        assertEquals(Long.valueOf(1), storage.saved.get(COUNTER).get("count"));
+    }
+
+    @Test
+    public void failedFlush_requeuesDeltasWithNewerOnes() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(storage, flusher);
+        buffer.add(COUNTER, "count", 4);
+        buffer.flush(null);
+        buffer.add(COUNTER, "count", 2);
+
+        flusher.failNext();
+        assertEquals(1, buffer.getPendingFieldCount());
+
+        buffer.flush(null);
+        flusher.completeNext();
+        assertEquals(Long.valueOf(6), flusher.writes.get(1).get(COUNTER).get("count"));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void flush_sendsOneBatchAtATime() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(storage, flusher);
+        buffer.add(COUNTER, "count", 1);
+        buffer.flush(null);
+        buffer.add(COUNTER, "count", 1);
+        buffer.flush(null);
+
+        assertEquals(1, flusher.writes.size());
+
+        flusher.completeNext();
+        buffer.flush(null);
+        flusher.completeNext();
+        assertEquals(2, flusher.writes.size());
+        assertEquals(Long.valueOf(1), flusher.writes.get(1).get(COUNTER).get("count"));
+    }
+
+    private static class InMemoryStorage implements WriteBehindBuffer.Storage {
+        Map<String, Map<String, Long>> saved = new LinkedHashMap<>();
+
+        @Override
+        public Map<String, Map<String, Long>> load() {
+            return saved;
+        }
+
+        @Override
+        public void save(Map<String, Map<String, Long>> pending) {
+            saved = pending;
+        }
+    }
+
+    /**
+     * Garde les envois en attente jusqu'à completeNext() ou failNext()
+     */
+    private static class RecordingFlusher implements WriteBehindBuffer.Flusher {
+        final List<Map<String, Map<String, Long>>> writes = new ArrayList<>();
+        final List<WriteBehindBuffer.OnFlushListener> waiting = new ArrayList<>();
+        int documentWrites = 0;
+
+        @Override
+        public void write(Map<String, Map<String, Long>> deltas, WriteBehindBuffer.OnFlushListener listener) {
+            writes.add(deltas);
+            documentWrites += deltas.size();
+            waiting.add(listener);
+        }
+
+        void completeNext() {
+            waiting.remove(0).onSuccess();
+        }
+
+        void failNext() {
+            waiting.remove(0).onError(new Exception("hors ligne"));
+        }
+    }
+}